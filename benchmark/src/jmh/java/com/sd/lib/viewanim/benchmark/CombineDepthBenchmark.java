@@ -0,0 +1,145 @@
+package com.sd.lib.viewanim.benchmark;
+
+import com.sd.lib.viewanim.core.FTransitionPlan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CombineCreator组合深度的影响
+ * <p>
+ * 每一层组合包含两个子节点，叶子节点是内置创建者，深度为depth的树有2^depth个属性轨道；
+ * 合并编译后所有轨道保存在同一个{@link FTransitionPlan}中
+ */
+@State(Scope.Thread)
+public class CombineDepthBenchmark
+{
+    @Param({"1", "2", "3", "4"})
+    public int depth;
+
+    private Node mRoot;
+    private CreatorModel[] mTracks;
+    private FakeView mView;
+    private FTransitionPlan mPlan;
+    private float[] mValues;
+    private float mPlayTime;
+
+    @Setup
+    public void setup()
+    {
+        final int[] counter = new int[1];
+        mRoot = buildTree(depth, counter);
+
+        final List<CreatorModel> tracks = new ArrayList<>();
+        mRoot.collect(tracks);
+        mTracks = tracks.toArray(new CreatorModel[tracks.size()]);
+
+        final int[] flags = new int[mTracks.length];
+        for (int i = 0; i < mTracks.length; i++)
+        {
+            flags[i] = mTracks[i].flag;
+        }
+
+        mView = new FakeView(40, 120, 300, 200, 1080, 1920);
+        mPlan = new FTransitionPlan(flags);
+        mValues = new float[mTracks.length];
+        mPlayTime = 73;
+    }
+
+    /**
+     * 递归遍历组合树计算，相当于每次都重新遍历创建者
+     */
+    @Benchmark
+    public long planTree()
+    {
+        final int[] index = new int[1];
+        mRoot.plan(true, mView, mPlan, index);
+        mPlan.finishPlan();
+        return mPlan.getDuration();
+    }
+
+    /**
+     * 遍历合并编译后的扁平轨道计算
+     */
+    @Benchmark
+    public long planCompiled()
+    {
+        final CreatorModel[] tracks = mTracks;
+        final FakeView view = mView;
+        for (int i = 0; i < tracks.length; i++)
+        {
+            final CreatorModel item = tracks[i];
+            mPlan.planTrack(i, true, item.getValueHidden(view), item.getValueShown(view), item.getValueCurrent(view), item.getDuration());
+        }
+        mPlan.finishPlan();
+        return mPlan.getDuration();
+    }
+
+    /**
+     * 每一帧计算所有轨道的值
+     */
+    @Benchmark
+    public float[] frameValues()
+    {
+        mPlan.getValues(mPlayTime, mValues);
+        return mValues;
+    }
+
+    private static Node buildTree(int depth, int[] counter)
+    {
+        if (depth <= 0)
+        {
+            final CreatorModel creator = CreatorModel.ALL[counter[0] % CreatorModel.ALL.length];
+            counter[0]++;
+            return new Node(creator, null);
+        }
+        return new Node(null, new Node[]{buildTree(depth - 1, counter), buildTree(depth - 1, counter)});
+    }
+
+    private static final class Node
+    {
+        private final CreatorModel mCreator;
+        private final Node[] mChildren;
+
+        public Node(CreatorModel creator, Node[] children)
+        {
+            mCreator = creator;
+            mChildren = children;
+        }
+
+        public void collect(List<CreatorModel> tracks)
+        {
+            if (mCreator != null)
+            {
+                tracks.add(mCreator);
+                return;
+            }
+
+            for (Node item : mChildren)
+            {
+                item.collect(tracks);
+            }
+        }
+
+        public void plan(boolean show, FakeView view, FTransitionPlan plan, int[] index)
+        {
+            if (mCreator != null)
+            {
+                plan.planTrack(index[0], show, mCreator.getValueHidden(view), mCreator.getValueShown(view), mCreator.getValueCurrent(view), mCreator.getDuration());
+                index[0]++;
+                return;
+            }
+
+            for (Node item : mChildren)
+            {
+                item.plan(show, view, plan, index);
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.sd.lib.viewanim.benchmark;
+
+import com.sd.lib.viewanim.core.FGeometry;
+import com.sd.lib.viewanim.core.FPropertyFlags;
+
+/**
+ * 内置创建者的值计算，和lib中对应的创建者一致，只是把View换成{@link FakeView}
+ */
+public abstract class CreatorModel
+{
+    public final String name;
+    public final int flag;
+
+    public CreatorModel(String name, int flag)
+    {
+        this.name = name;
+        this.flag = flag;
+    }
+
+    public abstract float getValueHidden(FakeView view);
+
+    public abstract float getValueShown(FakeView view);
+
+    public abstract float getValueCurrent(FakeView view);
+
+    public long getDuration()
+    {
+        return 200;
+    }
+
+    public static final CreatorModel ALPHA = new CreatorModel("Alpha", FPropertyFlags.FLAG_ALPHA)
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return 0.0f;
+        }
+
+        @Override
+        public float getValueShown(FakeView view)
+        {
+            return 1.0f;
+        }
+
+        @Override
+        public float getValueCurrent(FakeView view)
+        {
+            return view.alpha;
+        }
+    };
+
+    public static final CreatorModel SCALE_X = new CreatorModel("ScaleX", FPropertyFlags.FLAG_SCALE)
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return 0.0f;
+        }
+
+        @Override
+        public float getValueShown(FakeView view)
+        {
+            return 1.0f;
+        }
+
+        @Override
+        public float getValueCurrent(FakeView view)
+        {
+            return view.scaleX;
+        }
+    };
+
+    public static final CreatorModel SCALE_Y = new CreatorModel("ScaleY", FPropertyFlags.FLAG_SCALE)
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return 0.0f;
+        }
+
+        @Override
+        public float getValueShown(FakeView view)
+        {
+            return 1.0f;
+        }
+
+        @Override
+        public float getValueCurrent(FakeView view)
+        {
+            return view.scaleY;
+        }
+    };
+
+    public static final CreatorModel SLIDE_LEFT_RIGHT = new Horizontal("SlideLeftRight")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToEnd(view.width);
+        }
+    };
+
+    public static final CreatorModel SLIDE_RIGHT_LEFT = new Horizontal("SlideRightLeft")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToStart(view.width);
+        }
+    };
+
+    public static final CreatorModel SLIDE_TOP_BOTTOM = new Vertical("SlideTopBottom")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToEnd(view.height);
+        }
+    };
+
+    public static final CreatorModel SLIDE_BOTTOM_TOP = new Vertical("SlideBottomTop")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToStart(view.height);
+        }
+    };
+
+    public static final CreatorModel SLIDE_LEFT_RIGHT_PARENT = new Horizontal("SlideLeftRightParent")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToParentEnd(view.parentWidth, view.left, view.width);
+        }
+    };
+
+    public static final CreatorModel SLIDE_RIGHT_LEFT_PARENT = new Horizontal("SlideRightLeftParent")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToParentStart(view.getRight());
+        }
+    };
+
+    public static final CreatorModel SLIDE_TOP_BOTTOM_PARENT = new Vertical("SlideTopBottomParent")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToParentEnd(view.parentHeight, view.top, view.height);
+        }
+    };
+
+    public static final CreatorModel SLIDE_BOTTOM_TOP_PARENT = new Vertical("SlideBottomTopParent")
+    {
+        @Override
+        public float getValueHidden(FakeView view)
+        {
+            return FGeometry.getHiddenToParentStart(view.getBottom());
+        }
+    };
+
+    public static final CreatorModel[] ALL = new CreatorModel[]{
+            ALPHA, SCALE_X, SCALE_Y,
+            SLIDE_LEFT_RIGHT, SLIDE_RIGHT_LEFT, SLIDE_TOP_BOTTOM, SLIDE_BOTTOM_TOP,
+            SLIDE_LEFT_RIGHT_PARENT, SLIDE_RIGHT_LEFT_PARENT, SLIDE_TOP_BOTTOM_PARENT, SLIDE_BOTTOM_TOP_PARENT,
+    };
+
+    public static CreatorModel forName(String name)
+    {
+        for (CreatorModel item : ALL)
+        {
+            if (item.name.equals(name))
+                return item;
+        }
+        throw new IllegalArgumentException("Unknown creator:" + name);
+    }
+
+    private static abstract class Horizontal extends CreatorModel
+    {
+        public Horizontal(String name)
+        {
+            super(name, FPropertyFlags.FLAG_TRANSLATION);
+        }
+
+        @Override
+        public float getValueShown(FakeView view)
+        {
+            return 0;
+        }
+
+        @Override
+        public float getValueCurrent(FakeView view)
+        {
+            return view.translationX;
+        }
+    }
+
+    private static abstract class Vertical extends CreatorModel
+    {
+        public Vertical(String name)
+        {
+            super(name, FPropertyFlags.FLAG_TRANSLATION);
+        }
+
+        @Override
+        public float getValueShown(FakeView view)
+        {
+            return 0;
+        }
+
+        @Override
+        public float getValueCurrent(FakeView view)
+        {
+            return view.translationY;
+        }
+    }
+}
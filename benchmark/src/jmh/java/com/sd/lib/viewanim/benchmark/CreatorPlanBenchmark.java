@@ -0,0 +1,59 @@
+package com.sd.lib.viewanim.benchmark;
+
+import com.sd.lib.viewanim.core.FTransitionPlan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 每个内置创建者计算一次显示和隐藏的开始值，结束值和时长
+ */
+@State(Scope.Thread)
+public class CreatorPlanBenchmark
+{
+    @Param({"Alpha", "ScaleX", "ScaleY",
+            "SlideLeftRight", "SlideRightLeft", "SlideTopBottom", "SlideBottomTop",
+            "SlideLeftRightParent", "SlideRightLeftParent", "SlideTopBottomParent", "SlideBottomTopParent"})
+    public String creator;
+
+    private CreatorModel mCreator;
+    private FakeView mView;
+    private FTransitionPlan mPlan;
+
+    @Setup
+    public void setup()
+    {
+        mCreator = CreatorModel.forName(creator);
+        mView = new FakeView(40, 120, 300, 200, 1080, 1920);
+        mView.alpha = 0.6f;
+        mView.scaleX = 0.6f;
+        mView.scaleY = 0.6f;
+        mView.translationX = 50;
+        mView.translationY = 50;
+        mPlan = new FTransitionPlan(new int[]{mCreator.flag});
+    }
+
+    @Benchmark
+    public long planShow()
+    {
+        return plan(true);
+    }
+
+    @Benchmark
+    public long planHide()
+    {
+        return plan(false);
+    }
+
+    private long plan(boolean show)
+    {
+        final CreatorModel creator = mCreator;
+        final FakeView view = mView;
+        mPlan.planTrack(0, show, creator.getValueHidden(view), creator.getValueShown(view), creator.getValueCurrent(view), creator.getDuration());
+        mPlan.finishPlan();
+        return mPlan.getDuration();
+    }
+}
@@ -0,0 +1,39 @@
+package com.sd.lib.viewanim.benchmark;
+
+import com.sd.lib.viewanim.core.FTransitionMath;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link FTransitionMath#getScaledDuration(float, float, long)}
+ */
+@State(Scope.Thread)
+public class DurationBenchmark
+{
+    private float mDeltaValue;
+    private float mMaxValue;
+    private long mMaxDuration;
+
+    @Setup
+    public void setup()
+    {
+        mDeltaValue = -0.37f;
+        mMaxValue = 1.0f;
+        mMaxDuration = 200;
+    }
+
+    @Benchmark
+    public long scaledDuration()
+    {
+        return FTransitionMath.getScaledDuration(mDeltaValue, mMaxValue, mMaxDuration);
+    }
+
+    @Benchmark
+    public long duration()
+    {
+        return FTransitionMath.getDuration(false, mMaxValue, 0.0f, mDeltaValue, mMaxDuration);
+    }
+}
@@ -0,0 +1,42 @@
+package com.sd.lib.viewanim.benchmark;
+
+/**
+ * 代替View的轻量对象，只保存创建者计算需要的位置，大小和属性值
+ */
+public final class FakeView
+{
+    public int left;
+    public int top;
+    public int width;
+    public int height;
+
+    /** 父容器的宽高，没有父容器为0 */
+    public int parentWidth;
+    public int parentHeight;
+
+    public float alpha = 1.0f;
+    public float scaleX = 1.0f;
+    public float scaleY = 1.0f;
+    public float translationX;
+    public float translationY;
+
+    public FakeView(int left, int top, int width, int height, int parentWidth, int parentHeight)
+    {
+        this.left = left;
+        this.top = top;
+        this.width = width;
+        this.height = height;
+        this.parentWidth = parentWidth;
+        this.parentHeight = parentHeight;
+    }
+
+    public int getRight()
+    {
+        return left + width;
+    }
+
+    public int getBottom()
+    {
+        return top + height;
+    }
+}
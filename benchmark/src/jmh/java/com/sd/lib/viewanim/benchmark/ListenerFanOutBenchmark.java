@@ -0,0 +1,69 @@
+package com.sd.lib.viewanim.benchmark;
+
+import com.sd.lib.viewanim.core.FListenerHolder;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * 动画监听分发，和FVisibilityAnimatorHandler中的分发方式一致：先回调内部监听，再按顺序回调外部监听
+ */
+@State(Scope.Thread)
+public class ListenerFanOutBenchmark
+{
+    @Param({"0", "1", "4", "16", "64"})
+    public int count;
+
+    private Listener mListener;
+    private FListenerHolder<Listener> mListenerHolder;
+    private Listener mExtraListener;
+
+    @Setup
+    public void setup()
+    {
+        mListener = new CountListener();
+        mListenerHolder = new FListenerHolder<>();
+        for (int i = 0; i < count; i++)
+        {
+            mListenerHolder.add(new CountListener());
+        }
+        mExtraListener = new CountListener();
+    }
+
+    @Benchmark
+    public int dispatch()
+    {
+        int result = mListener.onEvent();
+        for (Object item : mListenerHolder.getArray())
+        {
+            result += ((Listener) item).onEvent();
+        }
+        return result;
+    }
+
+    @Benchmark
+    public boolean addRemove()
+    {
+        mListenerHolder.add(mExtraListener);
+        return mListenerHolder.remove(mExtraListener);
+    }
+
+    public interface Listener
+    {
+        int onEvent();
+    }
+
+    private static final class CountListener implements Listener
+    {
+        private int mCount;
+
+        @Override
+        public int onEvent()
+        {
+            return ++mCount;
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.sd.lib.viewanim.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 文本格式的动画描述，解析后不可修改
+ * <p>
+ * 格式：多个子句用逗号分隔，第一个子句是用加号连接的创建者名称，后面的子句顺序任意：
+ * <ul>
+ * <li>pivot x/y：锚点百分比[0-1]</li>
+ * <li>250ms：从隐藏值到显示值的时长</li>
+ * <li>ease standard：缓动曲线名称，或者三次贝塞尔的四个控制点，比如ease 0.4/0/0.2/1</li>
+ * <li>spring 或者 spring 1500/0.5：使用弹簧，可选刚度和阻尼比</li>
+ * </ul>
+ * 例如：alpha+slideTopBottomParent, pivot 0.5/1.0, 250ms
+ */
+public final class FAnimatorSpec
+{
+    private final String mSource;
+    private final List<String> mCreatorNames;
+
+    private final boolean mHasPivot;
+    private final float mPivotX;
+    private final float mPivotY;
+
+    private final long mDuration;
+
+    private final String mEasingName;
+    private final float[] mEasingBezier;
+
+    private final boolean mSpring;
+    private final float mStiffness;
+    private final float mDampingRatio;
+
+    private FAnimatorSpec(Builder builder)
+    {
+        mSource = builder.mSource;
+        mCreatorNames = Collections.unmodifiableList(builder.mCreatorNames);
+        mHasPivot = builder.mHasPivot;
+        mPivotX = builder.mPivotX;
+        mPivotY = builder.mPivotY;
+        mDuration = builder.mDuration;
+        mEasingName = builder.mEasingName;
+        mEasingBezier = builder.mEasingBezier;
+        mSpring = builder.mSpring;
+        mStiffness = builder.mStiffness;
+        mDampingRatio = builder.mDampingRatio;
+    }
+
+    /**
+     * 解析文本
+     *
+     * @param spec
+     * @return
+     * @throws IllegalArgumentException 格式错误
+     */
+    public static FAnimatorSpec parse(String spec)
+    {
+        if (spec == null)
+            throw new NullPointerException("spec is null");
+
+        final Builder builder = new Builder();
+        builder.mSource = spec;
+
+        final String[] clauses = spec.split(",", -1);
+        parseNames(clauses[0], builder, spec);
+        for (int i = 1; i < clauses.length; i++)
+        {
+            parseClause(clauses[i].trim(), builder, spec);
+        }
+        return new FAnimatorSpec(builder);
+    }
+
+    private static void parseNames(String clause, Builder builder, String spec)
+    {
+        for (String item : clause.split("\\+", -1))
+        {
+            final String name = item.trim();
+            if (name.isEmpty())
+                throw error(spec, "empty creator name");
+            builder.mCreatorNames.add(name);
+        }
+    }
+
+    private static void parseClause(String clause, Builder builder, String spec)
+    {
+        if (clause.isEmpty())
+            throw error(spec, "empty clause");
+
+        final String lower = clause.toLowerCase(Locale.ROOT);
+        if (lower.endsWith("ms"))
+        {
+            if (builder.mDuration >= 0)
+                throw error(spec, "duplicate duration");
+            final long duration = parseLong(clause.substring(0, clause.length() - 2).trim(), spec);
+            if (duration < 0)
+                throw error(spec, "duration must be >= 0");
+            builder.mDuration = duration;
+            return;
+        }
+
+        final int space = clause.indexOf(' ');
+        final String keyword = space < 0 ? lower : lower.substring(0, space);
+        final String argument = space < 0 ? "" : clause.substring(space + 1).trim();
+
+        switch (keyword)
+        {
+            case "pivot":
+                if (builder.mHasPivot)
+                    throw error(spec, "duplicate pivot");
+                final float[] pivot = parseFloats(argument, 2, spec);
+                builder.mHasPivot = true;
+                builder.mPivotX = pivot[0];
+                builder.mPivotY = pivot[1];
+                break;
+            case "ease":
+                if (builder.mEasingName != null || builder.mEasingBezier != null)
+                    throw error(spec, "duplicate ease");
+                if (argument.isEmpty())
+                    throw error(spec, "ease requires an argument");
+                if (argument.indexOf('/') >= 0)
+                    builder.mEasingBezier = parseFloats(argument, 4, spec);
+                else
+                    builder.mEasingName = argument;
+                break;
+            case "spring":
+                if (builder.mSpring)
+                    throw error(spec, "duplicate spring");
+                builder.mSpring = true;
+                if (!argument.isEmpty())
+                {
+                    final float[] values = parseFloats(argument, 2, spec);
+                    if (!(values[0] > 0) || !(values[1] >= 0))
+                        throw error(spec, "spring requires stiffness > 0 and dampingRatio >= 0");
+                    builder.mStiffness = values[0];
+                    builder.mDampingRatio = values[1];
+                }
+                break;
+            default:
+                throw error(spec, "unknown clause '" + clause + "'");
+        }
+    }
+
+    private static float[] parseFloats(String argument, int count, String spec)
+    {
+        final String[] items = argument.split("/", -1);
+        if (items.length != count)
+            throw error(spec, "expected " + count + " values separated by '/' but was '" + argument + "'");
+
+        final float[] values = new float[count];
+        for (int i = 0; i < count; i++)
+        {
+            try
+            {
+                values[i] = Float.parseFloat(items[i].trim());
+            } catch (NumberFormatException e)
+            {
+                throw error(spec, "illegal number '" + items[i].trim() + "'");
+            }
+        }
+        return values;
+    }
+
+    private static long parseLong(String value, String spec)
+    {
+        try
+        {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e)
+        {
+            throw error(spec, "illegal duration '" + value + "'");
+        }
+    }
+
+    private static IllegalArgumentException error(String spec, String message)
+    {
+        return new IllegalArgumentException("illegal animator spec \"" + spec + "\": " + message);
+    }
+
+    /**
+     * 原始文本
+     *
+     * @return
+     */
+    public String getSource()
+    {
+        return mSource;
+    }
+
+    /**
+     * 创建者名称，至少有一个
+     *
+     * @return
+     */
+    public List<String> getCreatorNames()
+    {
+        return mCreatorNames;
+    }
+
+    public boolean hasPivot()
+    {
+        return mHasPivot;
+    }
+
+    public float getPivotX()
+    {
+        return mPivotX;
+    }
+
+    public float getPivotY()
+    {
+        return mPivotY;
+    }
+
+    /**
+     * 时长（毫秒），小于0表示未设置
+     *
+     * @return
+     */
+    public long getDuration()
+    {
+        return mDuration;
+    }
+
+    /**
+     * 缓动曲线名称，null表示未设置或者设置的是控制点
+     *
+     * @return
+     */
+    public String getEasingName()
+    {
+        return mEasingName;
+    }
+
+    /**
+     * 三次贝塞尔的四个控制点，null表示未设置
+     *
+     * @return
+     */
+    public float[] getEasingBezier()
+    {
+        return mEasingBezier == null ? null : mEasingBezier.clone();
+    }
+
+    public boolean isSpring()
+    {
+        return mSpring;
+    }
+
+    /**
+     * 弹簧刚度，未设置返回{@link FSpring#STIFFNESS_MEDIUM}
+     *
+     * @return
+     */
+    public float getStiffness()
+    {
+        return mStiffness;
+    }
+
+    /**
+     * 弹簧阻尼比，未设置返回{@link FSpring#DAMPING_RATIO_NO_BOUNCY}
+     *
+     * @return
+     */
+    public float getDampingRatio()
+    {
+        return mDampingRatio;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FAnimatorSpec))
+            return false;
+
+        final FAnimatorSpec other = (FAnimatorSpec) obj;
+        return mCreatorNames.equals(other.mCreatorNames)
+                && mHasPivot == other.mHasPivot
+                && Float.compare(mPivotX, other.mPivotX) == 0
+                && Float.compare(mPivotY, other.mPivotY) == 0
+                && mDuration == other.mDuration
+                && (mEasingName == null ? other.mEasingName == null : mEasingName.equals(other.mEasingName))
+                && Arrays.equals(mEasingBezier, other.mEasingBezier)
+                && mSpring == other.mSpring
+                && Float.compare(mStiffness, other.mStiffness) == 0
+                && Float.compare(mDampingRatio, other.mDampingRatio) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        int result = mCreatorNames.hashCode();
+        result = 31 * result + (mHasPivot ? 1 : 0);
+        result = 31 * result + Float.floatToIntBits(mPivotX);
+        result = 31 * result + Float.floatToIntBits(mPivotY);
+        result = 31 * result + (int) (mDuration ^ (mDuration >>> 32));
+        result = 31 * result + (mEasingName == null ? 0 : mEasingName.hashCode());
+        result = 31 * result + Arrays.hashCode(mEasingBezier);
+        result = 31 * result + (mSpring ? 1 : 0);
+        result = 31 * result + Float.floatToIntBits(mStiffness);
+        result = 31 * result + Float.floatToIntBits(mDampingRatio);
+        return result;
+    }
+
+    @Override
+    public String toString()
+    {
+        return mSource;
+    }
+
+    private static final class Builder
+    {
+        String mSource;
+        final List<String> mCreatorNames = new ArrayList<>();
+
+        boolean mHasPivot;
+        float mPivotX;
+        float mPivotY;
+
+        long mDuration = -1;
+
+        String mEasingName;
+        float[] mEasingBezier;
+
+        boolean mSpring;
+        float mStiffness = FSpring.STIFFNESS_MEDIUM;
+        float mDampingRatio = FSpring.DAMPING_RATIO_NO_BOUNCY;
+    }
+}
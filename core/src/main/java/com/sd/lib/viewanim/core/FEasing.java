@@ -0,0 +1,15 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 缓动曲线，把线性的进度转换为动画的进度
+ */
+public interface FEasing
+{
+    /**
+     * 返回缓动后的进度
+     *
+     * @param fraction [0-1]
+     * @return
+     */
+    float getInterpolation(float fraction);
+}
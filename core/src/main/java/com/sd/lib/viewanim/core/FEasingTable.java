@@ -0,0 +1,282 @@
+package com.sd.lib.viewanim.core;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 预先采样的缓动曲线，创建后不可修改，可以在多个动画之间共享
+ * <p>
+ * 创建的时候按照固定的间隔采样，每一帧只需要一次线性插值，不需要像PathInterpolator一样二分查找
+ */
+public final class FEasingTable implements FEasing
+{
+    /** 默认的采样间隔数量 */
+    public static final int DEFAULT_SAMPLE_COUNT = 256;
+
+    /** {@link #cubicBezier(float, float, float, float)}缓存的数量，最近最少使用的先移除 */
+    private static final int BEZIER_CACHE_SIZE = 16;
+    private static final Map<BezierKey, FEasingTable> BEZIER_CACHE = new LinkedHashMap<BezierKey, FEasingTable>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<BezierKey, FEasingTable> eldest)
+        {
+            return size() > BEZIER_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * 先加速后减速，和android.view.animation.AccelerateDecelerateInterpolator一致
+     */
+    public static final FEasingTable ACCELERATE_DECELERATE = of(new FEasing()
+    {
+        @Override
+        public float getInterpolation(float fraction)
+        {
+            return FTransitionMath.accelerateDecelerate(fraction);
+        }
+    });
+    /**
+     * Material标准曲线，cubic-bezier(0.4, 0, 0.2, 1)
+     */
+    public static final FEasingTable STANDARD = cubicBezier(0.4f, 0.0f, 0.2f, 1.0f);
+    /**
+     * Material减速曲线，用于进入，cubic-bezier(0, 0, 0.2, 1)
+     */
+    public static final FEasingTable DECELERATE = cubicBezier(0.0f, 0.0f, 0.2f, 1.0f);
+    /**
+     * Material加速曲线，用于退出，cubic-bezier(0.4, 0, 1, 1)
+     */
+    public static final FEasingTable ACCELERATE = cubicBezier(0.4f, 0.0f, 1.0f, 1.0f);
+    /**
+     * Material快速曲线，用于临时退出，cubic-bezier(0.4, 0, 0.6, 1)
+     */
+    public static final FEasingTable SHARP = cubicBezier(0.4f, 0.0f, 0.6f, 1.0f);
+
+    private final float[] mSamples;
+    private final int mLastIndex;
+
+    private FEasingTable(float[] samples)
+    {
+        mSamples = samples;
+        mLastIndex = samples.length - 1;
+    }
+
+    /**
+     * 采样任意的缓动曲线
+     *
+     * @param easing
+     * @return
+     */
+    public static FEasingTable of(FEasing easing)
+    {
+        return of(easing, DEFAULT_SAMPLE_COUNT);
+    }
+
+    /**
+     * 采样任意的缓动曲线
+     *
+     * @param easing
+     * @param sampleCount 采样间隔数量，大于0
+     * @return
+     */
+    public static FEasingTable of(FEasing easing, int sampleCount)
+    {
+        if (easing == null)
+            throw new NullPointerException("easing is null");
+        if (sampleCount <= 0)
+            throw new IllegalArgumentException("sampleCount must be > 0");
+
+        if (easing instanceof FEasingTable)
+            return (FEasingTable) easing;
+
+        final float[] samples = new float[sampleCount + 1];
+        for (int i = 0; i <= sampleCount; i++)
+        {
+            samples[i] = easing.getInterpolation((float) i / sampleCount);
+        }
+        return new FEasingTable(samples);
+    }
+
+    /**
+     * 采样三次贝塞尔曲线，起点(0,0)，终点(1,1)，和CSS的cubic-bezier一致
+     * <p>
+     * 结果按照控制点缓存，相同的控制点返回同一个实例
+     *
+     * @param x1 [0-1]
+     * @param y1
+     * @param x2 [0-1]
+     * @param y2
+     * @return
+     */
+    public static FEasingTable cubicBezier(float x1, float y1, float x2, float y2)
+    {
+        if (x1 < 0 || x1 > 1 || x2 < 0 || x2 > 1)
+            throw new IllegalArgumentException("x1 and x2 must be in [0, 1]");
+
+        final BezierKey key = new BezierKey(x1, y1, x2, y2);
+        synchronized (BEZIER_CACHE)
+        {
+            final FEasingTable cached = BEZIER_CACHE.get(key);
+            if (cached != null)
+                return cached;
+        }
+
+        final FEasingTable table = sampleCubicBezier(x1, y1, x2, y2);
+        synchronized (BEZIER_CACHE)
+        {
+            // 其他线程可能已经采样过，使用先放入缓存的结果
+            final FEasingTable cached = BEZIER_CACHE.get(key);
+            if (cached != null)
+                return cached;
+
+            BEZIER_CACHE.put(key, table);
+        }
+        return table;
+    }
+
+    private static FEasingTable sampleCubicBezier(float x1, float y1, float x2, float y2)
+    {
+        final int sampleCount = DEFAULT_SAMPLE_COUNT;
+        final float[] samples = new float[sampleCount + 1];
+        for (int i = 0; i <= sampleCount; i++)
+        {
+            final double x = (double) i / sampleCount;
+            final double t = solveBezierT(x, x1, x2);
+            samples[i] = (float) bezier(t, y1, y2);
+        }
+        samples[0] = 0.0f;
+        samples[sampleCount] = 1.0f;
+        return new FEasingTable(samples);
+    }
+
+    /**
+     * 采样间隔数量
+     *
+     * @return
+     */
+    public int getSampleCount()
+    {
+        return mLastIndex;
+    }
+
+    @Override
+    public float getInterpolation(float fraction)
+    {
+        if (fraction <= 0)
+            return mSamples[0];
+        if (fraction >= 1)
+            return mSamples[mLastIndex];
+
+        final float position = fraction * mLastIndex;
+        final int index = (int) position;
+        return FTransitionMath.lerp(mSamples[index], mSamples[index + 1], position - index);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FEasingTable))
+            return false;
+        return Arrays.equals(mSamples, ((FEasingTable) obj).mSamples);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(mSamples);
+    }
+
+    private static final class BezierKey
+    {
+        private final float mX1;
+        private final float mY1;
+        private final float mX2;
+        private final float mY2;
+
+        BezierKey(float x1, float y1, float x2, float y2)
+        {
+            mX1 = x1;
+            mY1 = y1;
+            mX2 = x2;
+            mY2 = y2;
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof BezierKey))
+                return false;
+
+            final BezierKey other = (BezierKey) obj;
+            return Float.floatToIntBits(mX1) == Float.floatToIntBits(other.mX1)
+                    && Float.floatToIntBits(mY1) == Float.floatToIntBits(other.mY1)
+                    && Float.floatToIntBits(mX2) == Float.floatToIntBits(other.mX2)
+                    && Float.floatToIntBits(mY2) == Float.floatToIntBits(other.mY2);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            int result = Float.floatToIntBits(mX1);
+            result = 31 * result + Float.floatToIntBits(mY1);
+            result = 31 * result + Float.floatToIntBits(mX2);
+            result = 31 * result + Float.floatToIntBits(mY2);
+            return result;
+        }
+    }
+
+    /**
+     * 一维三次贝塞尔，两个端点为0和1
+     */
+    private static double bezier(double t, double p1, double p2)
+    {
+        final double u = 1 - t;
+        return 3 * u * u * t * p1 + 3 * u * t * t * p2 + t * t * t;
+    }
+
+    private static double bezierDerivative(double t, double p1, double p2)
+    {
+        final double u = 1 - t;
+        return 3 * u * u * p1 + 6 * u * t * (p2 - p1) + 3 * t * t * (1 - p2);
+    }
+
+    /**
+     * 求x对应的参数t，先用牛顿法，不收敛再用二分法
+     */
+    private static double solveBezierT(double x, double x1, double x2)
+    {
+        double t = x;
+        for (int i = 0; i < 8; i++)
+        {
+            final double error = bezier(t, x1, x2) - x;
+            if (Math.abs(error) < 1e-7)
+                return t;
+
+            final double derivative = bezierDerivative(t, x1, x2);
+            if (Math.abs(derivative) < 1e-6)
+                break;
+            t -= error / derivative;
+        }
+
+        double low = 0;
+        double high = 1;
+        t = x;
+        for (int i = 0; i < 64; i++)
+        {
+            final double value = bezier(t, x1, x2);
+            if (Math.abs(value - x) < 1e-7)
+                break;
+            if (value < x)
+                low = t;
+            else
+                high = t;
+            t = (low + high) / 2;
+        }
+        return t;
+    }
+}
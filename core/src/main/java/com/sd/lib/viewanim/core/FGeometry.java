@@ -0,0 +1,63 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 根据View的位置和大小计算滑动的隐藏值
+ */
+public final class FGeometry
+{
+    private FGeometry()
+    {
+    }
+
+    /**
+     * 滑出到起始边（左边或者上边）外面需要的平移值
+     *
+     * @param size View的宽或者高
+     * @return
+     */
+    public static float getHiddenToStart(int size)
+    {
+        return -size;
+    }
+
+    /**
+     * 滑出到结束边（右边或者下边）外面需要的平移值
+     *
+     * @param size View的宽或者高
+     * @return
+     */
+    public static float getHiddenToEnd(int size)
+    {
+        return size;
+    }
+
+    /**
+     * 滑出到父容器起始边外面需要的平移值
+     *
+     * @param end View在父容器中的right或者bottom
+     * @return
+     */
+    public static float getHiddenToParentStart(int end)
+    {
+        return -end;
+    }
+
+    /**
+     * 滑出到父容器结束边外面需要的平移值，如果没有父容器或者距离小于等于0，则返回View的宽或者高
+     *
+     * @param parentSize 父容器的宽或者高，没有父容器传0
+     * @param start      View在父容器中的left或者top
+     * @param size       View的宽或者高
+     * @return
+     */
+    public static float getHiddenToParentEnd(int parentSize, int start, int size)
+    {
+        if (parentSize <= 0)
+            return size;
+
+        final int distance = parentSize - start;
+        if (distance > 0)
+            return distance;
+        return size;
+    }
+}
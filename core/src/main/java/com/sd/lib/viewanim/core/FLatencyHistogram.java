@@ -0,0 +1,237 @@
+package com.sd.lib.viewanim.core;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 固定分桶的耗时直方图，记录不加锁也不创建对象，可以在任意线程记录和读取
+ * <p>
+ * 第0个桶记录小于1微秒的耗时，第i个桶记录[2^(i-1), 2^i)微秒的耗时，最后一个桶记录所有更长的耗时
+ */
+public final class FLatencyHistogram
+{
+    /**
+     * 桶的数量，倒数第二个桶的上限是2^(BUCKET_COUNT-2)微秒，大约16秒
+     */
+    public static final int BUCKET_COUNT = 26;
+
+    private final String mName;
+    private final AtomicLongArray mBuckets = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong mCount = new AtomicLong();
+    private final AtomicLong mSum = new AtomicLong();
+    private final AtomicLong mMax = new AtomicLong();
+
+    public FLatencyHistogram(String name)
+    {
+        mName = name;
+    }
+
+    public String getName()
+    {
+        return mName;
+    }
+
+    /**
+     * 记录耗时
+     *
+     * @param nanos 纳秒，小于0忽略
+     */
+    public void record(long nanos)
+    {
+        if (nanos < 0)
+            return;
+
+        mBuckets.incrementAndGet(getBucketIndex(nanos));
+        mCount.incrementAndGet();
+        mSum.addAndGet(nanos);
+
+        long max = mMax.get();
+        while (nanos > max)
+        {
+            if (mMax.compareAndSet(max, nanos))
+                break;
+            max = mMax.get();
+        }
+    }
+
+    /**
+     * 返回当前数据的快照
+     *
+     * @return
+     */
+    public Snapshot snapshot()
+    {
+        final long[] buckets = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            buckets[i] = mBuckets.get(i);
+        }
+        return new Snapshot(mName, buckets, mCount.get(), mSum.get(), mMax.get());
+    }
+
+    /**
+     * 返回当前数据的快照并清空，用于周期性采样
+     *
+     * @return
+     */
+    public Snapshot snapshotAndReset()
+    {
+        final long[] buckets = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            buckets[i] = mBuckets.getAndSet(i, 0);
+        }
+        return new Snapshot(mName, buckets, mCount.getAndSet(0), mSum.getAndSet(0), mMax.getAndSet(0));
+    }
+
+    /**
+     * 清空
+     */
+    public void reset()
+    {
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            mBuckets.set(i, 0);
+        }
+        mCount.set(0);
+        mSum.set(0);
+        mMax.set(0);
+    }
+
+    /**
+     * 返回耗时对应的桶
+     *
+     * @param nanos
+     * @return
+     */
+    public static int getBucketIndex(long nanos)
+    {
+        final long micros = nanos / 1000;
+        final int index = 64 - Long.numberOfLeadingZeros(micros);
+        return index < BUCKET_COUNT ? index : BUCKET_COUNT - 1;
+    }
+
+    /**
+     * 返回桶的上限（纳秒，不包含），最后一个桶返回{@link Long#MAX_VALUE}
+     *
+     * @param index
+     * @return
+     */
+    public static long getBucketUpperBound(int index)
+    {
+        if (index >= BUCKET_COUNT - 1)
+            return Long.MAX_VALUE;
+        return (1L << index) * 1000;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static final class Snapshot
+    {
+        private final String mName;
+        private final long[] mBuckets;
+        private final long mCount;
+        private final long mSum;
+        private final long mMax;
+
+        Snapshot(String name, long[] buckets, long count, long sum, long max)
+        {
+            mName = name;
+            mBuckets = buckets;
+            mCount = count;
+            mSum = sum;
+            mMax = max;
+        }
+
+        public String getName()
+        {
+            return mName;
+        }
+
+        /**
+         * 返回某个桶的数量
+         *
+         * @param index
+         * @return
+         */
+        public long getBucket(int index)
+        {
+            return mBuckets[index];
+        }
+
+        public long getCount()
+        {
+            return mCount;
+        }
+
+        /**
+         * 返回总耗时（纳秒）
+         *
+         * @return
+         */
+        public long getSum()
+        {
+            return mSum;
+        }
+
+        /**
+         * 返回最大耗时（纳秒）
+         *
+         * @return
+         */
+        public long getMax()
+        {
+            return mMax;
+        }
+
+        /**
+         * 返回平均耗时（纳秒）
+         *
+         * @return
+         */
+        public long getMean()
+        {
+            return mCount > 0 ? mSum / mCount : 0;
+        }
+
+        /**
+         * 返回百分位耗时的上限（纳秒），精度为桶的范围
+         *
+         * @param percentile [0-1]
+         * @return
+         */
+        public long getPercentile(float percentile)
+        {
+            long total = 0;
+            for (long item : mBuckets)
+            {
+                total += item;
+            }
+            if (total <= 0)
+                return 0;
+
+            final long target = (long) Math.ceil(total * percentile);
+            long count = 0;
+            for (int i = 0; i < mBuckets.length; i++)
+            {
+                count += mBuckets[i];
+                if (count >= target && count > 0)
+                    return Math.min(getBucketUpperBound(i), mMax);
+            }
+            return mMax;
+        }
+
+        @Override
+        public String toString()
+        {
+            return mName
+                    + " count=" + mCount
+                    + " mean=" + getMean() / 1000 + "us"
+                    + " p50<=" + getPercentile(0.5f) / 1000 + "us"
+                    + " p90<=" + getPercentile(0.9f) / 1000 + "us"
+                    + " p99<=" + getPercentile(0.99f) / 1000 + "us"
+                    + " max=" + mMax / 1000 + "us";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 写时复制的监听数组，按添加顺序保存监听
+ * <p>
+ * 遍历的时候直接使用{@link #getArray()}返回的数组，不会创建对象；在遍历期间添加或者移除监听是安全的，
+ * 本次遍历不受影响，下次遍历生效
+ *
+ * @param <T>
+ */
+public class FListenerHolder<T>
+{
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] mListeners = EMPTY;
+
+    /**
+     * 添加监听
+     *
+     * @param listener
+     * @return true-添加成功，false-监听为null或者已经添加
+     */
+    public boolean add(T listener)
+    {
+        if (listener == null)
+            return false;
+
+        final Object[] old = mListeners;
+        if (indexOf(old, listener) >= 0)
+            return false;
+
+        final Object[] array = new Object[old.length + 1];
+        System.arraycopy(old, 0, array, 0, old.length);
+        array[old.length] = listener;
+        mListeners = array;
+        return true;
+    }
+
+    /**
+     * 移除监听
+     *
+     * @param listener
+     * @return true-移除成功
+     */
+    public boolean remove(T listener)
+    {
+        if (listener == null)
+            return false;
+
+        final Object[] old = mListeners;
+        final int index = indexOf(old, listener);
+        if (index < 0)
+            return false;
+
+        if (old.length == 1)
+        {
+            mListeners = EMPTY;
+            return true;
+        }
+
+        final Object[] array = new Object[old.length - 1];
+        System.arraycopy(old, 0, array, 0, index);
+        System.arraycopy(old, index + 1, array, index, old.length - index - 1);
+        mListeners = array;
+        return true;
+    }
+
+    /**
+     * 返回当前的监听数组，不能修改返回的数组
+     *
+     * @return
+     */
+    public Object[] getArray()
+    {
+        return mListeners;
+    }
+
+    public int size()
+    {
+        return mListeners.length;
+    }
+
+    public boolean isEmpty()
+    {
+        return mListeners.length == 0;
+    }
+
+    private static int indexOf(Object[] array, Object listener)
+    {
+        for (int i = 0; i < array.length; i++)
+        {
+            if (array[i] == listener)
+                return i;
+        }
+        return -1;
+    }
+}
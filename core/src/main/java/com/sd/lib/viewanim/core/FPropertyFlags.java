@@ -0,0 +1,64 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 动画属性的分类标识
+ */
+public final class FPropertyFlags
+{
+    /**
+     * 透明度
+     */
+    public static final int FLAG_ALPHA = 1;
+    /**
+     * 平移
+     */
+    public static final int FLAG_TRANSLATION = 1 << 1;
+    /**
+     * 缩放
+     */
+    public static final int FLAG_SCALE = 1 << 2;
+    /**
+     * 旋转
+     */
+    public static final int FLAG_ROTATION = 1 << 3;
+    /**
+     * 其他属性
+     */
+    public static final int FLAG_OTHER = 1 << 4;
+
+    private FPropertyFlags()
+    {
+    }
+
+    /**
+     * 根据属性名称返回标识
+     *
+     * @param name
+     * @return
+     */
+    public static int forName(String name)
+    {
+        if (name == null)
+            return FLAG_OTHER;
+
+        switch (name)
+        {
+            case "alpha":
+                return FLAG_ALPHA;
+            case "translationX":
+            case "translationY":
+            case "x":
+            case "y":
+                return FLAG_TRANSLATION;
+            case "scaleX":
+            case "scaleY":
+                return FLAG_SCALE;
+            case "rotation":
+            case "rotationX":
+            case "rotationY":
+                return FLAG_ROTATION;
+            default:
+                return FLAG_OTHER;
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 多个属性的弹簧动画，每个属性有自己的当前值，速度和目标值，所有属性共用刚度和阻尼比
+ * <p>
+ * 每一帧按照阻尼振动的解析解计算，和帧间隔无关；修改目标值不会改变当前值和速度
+ */
+public final class FSpring
+{
+    /** 刚度：高 */
+    public static final float STIFFNESS_HIGH = 10000f;
+    /** 刚度：中 */
+    public static final float STIFFNESS_MEDIUM = 1500f;
+    /** 刚度：低 */
+    public static final float STIFFNESS_LOW = 200f;
+    /** 刚度：很低 */
+    public static final float STIFFNESS_VERY_LOW = 50f;
+
+    /** 阻尼比：回弹很多 */
+    public static final float DAMPING_RATIO_HIGH_BOUNCY = 0.2f;
+    /** 阻尼比：回弹中等 */
+    public static final float DAMPING_RATIO_MEDIUM_BOUNCY = 0.5f;
+    /** 阻尼比：回弹很少 */
+    public static final float DAMPING_RATIO_LOW_BOUNCY = 0.75f;
+    /** 阻尼比：不回弹 */
+    public static final float DAMPING_RATIO_NO_BOUNCY = 1f;
+
+    /** 速度阈值和值阈值的比例 */
+    private static final float VELOCITY_THRESHOLD_MULTIPLIER = 1000f / 16f;
+    /** 估算时长的步长和上限（毫秒） */
+    private static final long ESTIMATE_STEP = 16;
+    private static final long ESTIMATE_MAX_DURATION = 10000;
+
+    private final int[] mFlags;
+    private final float[] mValues;
+    private final float[] mVelocities;
+    private final float[] mTargets;
+
+    private float mStiffness = STIFFNESS_MEDIUM;
+    private float mDampingRatio = DAMPING_RATIO_NO_BOUNCY;
+
+    /**
+     * @param flags 每个属性的标识{@link FPropertyFlags}，用来决定静止的阈值
+     */
+    public FSpring(int[] flags)
+    {
+        mFlags = flags;
+        mValues = new float[flags.length];
+        mVelocities = new float[flags.length];
+        mTargets = new float[flags.length];
+    }
+
+    public int getTrackCount()
+    {
+        return mFlags.length;
+    }
+
+    /**
+     * 设置刚度，越大越快
+     *
+     * @param stiffness 大于0
+     */
+    public void setStiffness(float stiffness)
+    {
+        if (!(stiffness > 0))
+            throw new IllegalArgumentException("stiffness must be > 0");
+        mStiffness = stiffness;
+    }
+
+    public float getStiffness()
+    {
+        return mStiffness;
+    }
+
+    /**
+     * 设置阻尼比，小于1会回弹，等于1刚好不回弹，大于1不回弹并且更慢
+     *
+     * @param dampingRatio 大于等于0
+     */
+    public void setDampingRatio(float dampingRatio)
+    {
+        if (!(dampingRatio >= 0))
+            throw new IllegalArgumentException("dampingRatio must be >= 0");
+        mDampingRatio = dampingRatio;
+    }
+
+    public float getDampingRatio()
+    {
+        return mDampingRatio;
+    }
+
+    /**
+     * 设置某个属性的当前值和速度
+     *
+     * @param index
+     * @param value
+     * @param velocity 每秒的变化值
+     */
+    public void setValue(int index, float value, float velocity)
+    {
+        mValues[index] = value;
+        mVelocities[index] = velocity;
+    }
+
+    /**
+     * 设置某个属性的目标值，当前值和速度不变
+     *
+     * @param index
+     * @param target
+     */
+    public void setTarget(int index, float target)
+    {
+        mTargets[index] = target;
+    }
+
+    public float getValue(int index)
+    {
+        return mValues[index];
+    }
+
+    public float getVelocity(int index)
+    {
+        return mVelocities[index];
+    }
+
+    public float getTarget(int index)
+    {
+        return mTargets[index];
+    }
+
+    /**
+     * 所有属性直接到达目标值
+     */
+    public void skipToEnd()
+    {
+        for (int i = 0; i < mValues.length; i++)
+        {
+            mValues[i] = mTargets[i];
+            mVelocities[i] = 0;
+        }
+    }
+
+    /**
+     * 推进一段时间，静止的属性直接设置为目标值
+     *
+     * @param deltaTime 毫秒
+     * @return true-所有属性都已经静止
+     */
+    public boolean step(long deltaTime)
+    {
+        return stepSeconds(deltaTime / 1000d);
+    }
+
+    /**
+     * 推进一段时间，静止的属性直接设置为目标值
+     * <p>
+     * 时间可以是小数，时长缩放之后每一帧推进的时间可能不到1毫秒
+     *
+     * @param seconds 秒
+     * @return true-所有属性都已经静止
+     */
+    public boolean stepSeconds(double seconds)
+    {
+        boolean atRest = true;
+        for (int i = 0; i < mValues.length; i++)
+        {
+            final float target = mTargets[i];
+            final float valueThreshold = getValueThreshold(mFlags[i]);
+            if (isAtRest(mValues[i] - target, mVelocities[i], valueThreshold))
+            {
+                mValues[i] = target;
+                mVelocities[i] = 0;
+                continue;
+            }
+
+            final double displacement = getDisplacement(mValues[i] - target, mVelocities[i], seconds);
+            final double velocity = getVelocity(mValues[i] - target, mVelocities[i], seconds);
+
+            if (isAtRest((float) displacement, (float) velocity, valueThreshold))
+            {
+                mValues[i] = target;
+                mVelocities[i] = 0;
+            } else
+            {
+                mValues[i] = (float) (target + displacement);
+                mVelocities[i] = (float) velocity;
+                atRest = false;
+            }
+        }
+        return atRest;
+    }
+
+    /**
+     * 估算从当前状态到所有属性静止的时长
+     *
+     * @return 毫秒
+     */
+    public long estimateDuration()
+    {
+        long duration = 0;
+        for (int i = 0; i < mValues.length; i++)
+        {
+            final float valueThreshold = getValueThreshold(mFlags[i]);
+            final float displacement = mValues[i] - mTargets[i];
+            final float velocity = mVelocities[i];
+
+            long time = 0;
+            while (time < ESTIMATE_MAX_DURATION)
+            {
+                final double seconds = time / 1000d;
+                if (isAtRest((float) getDisplacement(displacement, velocity, seconds),
+                        (float) getVelocity(displacement, velocity, seconds), valueThreshold))
+                    break;
+                time += ESTIMATE_STEP;
+            }
+            duration = Math.max(duration, time);
+        }
+        return duration;
+    }
+
+    /**
+     * 经过一段时间后相对目标值的位移
+     */
+    private double getDisplacement(double displacement, double velocity, double seconds)
+    {
+        final double naturalFreq = Math.sqrt(mStiffness);
+        final double ratio = mDampingRatio;
+        if (ratio > 1)
+        {
+            final double root = naturalFreq * Math.sqrt(ratio * ratio - 1);
+            final double gammaPlus = -ratio * naturalFreq + root;
+            final double gammaMinus = -ratio * naturalFreq - root;
+            final double coeffB = (gammaMinus * displacement - velocity) / (gammaMinus - gammaPlus);
+            final double coeffA = displacement - coeffB;
+            return coeffA * Math.exp(gammaMinus * seconds) + coeffB * Math.exp(gammaPlus * seconds);
+        } else if (ratio == 1)
+        {
+            final double coeffB = velocity + naturalFreq * displacement;
+            return (displacement + coeffB * seconds) * Math.exp(-naturalFreq * seconds);
+        } else
+        {
+            final double dampedFreq = naturalFreq * Math.sqrt(1 - ratio * ratio);
+            final double sinCoeff = (ratio * naturalFreq * displacement + velocity) / dampedFreq;
+            return Math.exp(-ratio * naturalFreq * seconds)
+                    * (displacement * Math.cos(dampedFreq * seconds) + sinCoeff * Math.sin(dampedFreq * seconds));
+        }
+    }
+
+    /**
+     * 经过一段时间后的速度
+     */
+    private double getVelocity(double displacement, double velocity, double seconds)
+    {
+        final double naturalFreq = Math.sqrt(mStiffness);
+        final double ratio = mDampingRatio;
+        if (ratio > 1)
+        {
+            final double root = naturalFreq * Math.sqrt(ratio * ratio - 1);
+            final double gammaPlus = -ratio * naturalFreq + root;
+            final double gammaMinus = -ratio * naturalFreq - root;
+            final double coeffB = (gammaMinus * displacement - velocity) / (gammaMinus - gammaPlus);
+            final double coeffA = displacement - coeffB;
+            return coeffA * gammaMinus * Math.exp(gammaMinus * seconds) + coeffB * gammaPlus * Math.exp(gammaPlus * seconds);
+        } else if (ratio == 1)
+        {
+            final double coeffB = velocity + naturalFreq * displacement;
+            final double decay = Math.exp(-naturalFreq * seconds);
+            return (displacement + coeffB * seconds) * decay * -naturalFreq + coeffB * decay;
+        } else
+        {
+            final double dampedFreq = naturalFreq * Math.sqrt(1 - ratio * ratio);
+            final double sinCoeff = (ratio * naturalFreq * displacement + velocity) / dampedFreq;
+            final double decay = Math.exp(-ratio * naturalFreq * seconds);
+            final double cos = Math.cos(dampedFreq * seconds);
+            final double sin = Math.sin(dampedFreq * seconds);
+            return decay * (displacement * cos + sinCoeff * sin) * -ratio * naturalFreq
+                    + decay * (-dampedFreq * displacement * sin + dampedFreq * sinCoeff * cos);
+        }
+    }
+
+    private static boolean isAtRest(float displacement, float velocity, float valueThreshold)
+    {
+        return Math.abs(displacement) < valueThreshold
+                && Math.abs(velocity) < valueThreshold * VELOCITY_THRESHOLD_MULTIPLIER;
+    }
+
+    /**
+     * 返回属性静止的阈值，小于肉眼可见的变化
+     *
+     * @param flag {@link FPropertyFlags}
+     * @return
+     */
+    public static float getValueThreshold(int flag)
+    {
+        final float minVisibleChange;
+        switch (flag)
+        {
+            case FPropertyFlags.FLAG_ALPHA:
+                minVisibleChange = 1f / 256;
+                break;
+            case FPropertyFlags.FLAG_SCALE:
+                minVisibleChange = 1f / 500;
+                break;
+            case FPropertyFlags.FLAG_ROTATION:
+                minVisibleChange = 0.1f;
+                break;
+            default:
+                minVisibleChange = 1f;
+                break;
+        }
+        return minVisibleChange * 0.75f;
+    }
+}
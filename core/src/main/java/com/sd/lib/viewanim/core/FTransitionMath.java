@@ -0,0 +1,131 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 过渡动画的时长，开始值和结束值计算
+ */
+public final class FTransitionMath
+{
+    private FTransitionMath()
+    {
+    }
+
+    /**
+     * 根据变化值占最大变化值的比例计算时长
+     *
+     * @param deltaValue  变化值
+     * @param maxValue    最大变化值
+     * @param maxDuration 最大时长
+     * @return
+     */
+    public static long getScaledDuration(float deltaValue, float maxValue, long maxDuration)
+    {
+        if (maxDuration <= 0)
+            return 0;
+        if (maxValue == 0)
+            return 0;
+        if (deltaValue == 0)
+            return 0;
+
+        final float percent = Math.abs(deltaValue / maxValue);
+        long duration = (long) (percent * maxDuration);
+        if (duration > maxDuration)
+            return maxDuration;
+
+        return duration;
+    }
+
+    /**
+     * 返回开始值，显示从隐藏状态的值开始，隐藏从当前值开始
+     *
+     * @param show
+     * @param valueHidden
+     * @param valueCurrent
+     * @return
+     */
+    public static float getValueStart(boolean show, float valueHidden, float valueCurrent)
+    {
+        return show ? valueHidden : valueCurrent;
+    }
+
+    /**
+     * 返回结束值
+     *
+     * @param show
+     * @param valueHidden
+     * @param valueShown
+     * @return
+     */
+    public static float getValueEnd(boolean show, float valueHidden, float valueShown)
+    {
+        return show ? valueShown : valueHidden;
+    }
+
+    /**
+     * 返回动画时长，开始值到结束值的变化占隐藏值到显示值变化的比例乘以最大时长
+     *
+     * @param show
+     * @param valueHidden
+     * @param valueShown
+     * @param valueCurrent
+     * @param maxDuration
+     * @return
+     */
+    public static long getDuration(boolean show, float valueHidden, float valueShown, float valueCurrent, long maxDuration)
+    {
+        final float valueStart = getValueStart(show, valueHidden, valueCurrent);
+        final float valueEnd = getValueEnd(show, valueHidden, valueShown);
+        return getScaledDuration(valueStart - valueEnd, valueShown - valueHidden, maxDuration);
+    }
+
+    /**
+     * 返回某个属性在playTime时候的进度，时长小于等于0或者已经结束返回1
+     *
+     * @param playTime
+     * @param duration
+     * @return [0-1]
+     */
+    public static float getFraction(float playTime, long duration)
+    {
+        if (duration <= 0 || playTime >= duration)
+            return 1.0f;
+        if (playTime <= 0)
+            return 0.0f;
+        return playTime / duration;
+    }
+
+    /**
+     * 线性插值
+     *
+     * @param valueStart
+     * @param valueEnd
+     * @param fraction
+     * @return
+     */
+    public static float lerp(float valueStart, float valueEnd, float fraction)
+    {
+        return valueStart + (valueEnd - valueStart) * fraction;
+    }
+
+    /**
+     * 先加速后减速，和android.view.animation.AccelerateDecelerateInterpolator一致
+     *
+     * @param fraction
+     * @return
+     */
+    public static float accelerateDecelerate(float fraction)
+    {
+        return (float) (Math.cos((fraction + 1) * Math.PI) / 2.0f) + 0.5f;
+    }
+
+    /**
+     * 根据百分比返回锚点
+     *
+     * @param percent 百分比[0-1]
+     * @param size    宽或者高
+     * @return
+     */
+    public static float getPivot(float percent, int size)
+    {
+        return percent * size;
+    }
+}
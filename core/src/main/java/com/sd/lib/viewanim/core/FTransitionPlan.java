@@ -0,0 +1,166 @@
+package com.sd.lib.viewanim.core;
+
+/**
+ * 多个属性（轨道）的动画计划，每个轨道保存开始值，结束值，时长和缓动曲线
+ */
+public final class FTransitionPlan
+{
+    private final int[] mFlags;
+    private final float[] mValueStart;
+    private final float[] mValueEnd;
+    private final long[] mDurations;
+    private final FEasing[] mEasings;
+
+    private final int mPropertyFlags;
+    private long mDuration;
+
+    /**
+     * @param flags 每个轨道的属性标识{@link FPropertyFlags}
+     */
+    public FTransitionPlan(int[] flags)
+    {
+        final int count = flags.length;
+        mFlags = flags.clone();
+        mValueStart = new float[count];
+        mValueEnd = new float[count];
+        mDurations = new long[count];
+        mEasings = new FEasing[count];
+
+        int propertyFlags = 0;
+        for (int item : flags)
+        {
+            propertyFlags |= item;
+        }
+        mPropertyFlags = propertyFlags;
+    }
+
+    public int getTrackCount()
+    {
+        return mFlags.length;
+    }
+
+    /**
+     * 返回所有轨道的属性标识组合
+     *
+     * @return
+     */
+    public int getPropertyFlags()
+    {
+        return mPropertyFlags;
+    }
+
+    public int getFlag(int index)
+    {
+        return mFlags[index];
+    }
+
+    public float getValueStart(int index)
+    {
+        return mValueStart[index];
+    }
+
+    public float getValueEnd(int index)
+    {
+        return mValueEnd[index];
+    }
+
+    public long getTrackDuration(int index)
+    {
+        return mDurations[index];
+    }
+
+    /**
+     * 设置某个轨道的缓动曲线
+     *
+     * @param index
+     * @param easing null-先加速后减速
+     */
+    public void setEasing(int index, FEasing easing)
+    {
+        mEasings[index] = easing;
+    }
+
+    public FEasing getEasing(int index)
+    {
+        return mEasings[index];
+    }
+
+    /**
+     * 设置某个轨道的开始值，结束值和时长
+     */
+    public void setTrack(int index, float valueStart, float valueEnd, long duration)
+    {
+        mValueStart[index] = valueStart;
+        mValueEnd[index] = valueEnd;
+        mDurations[index] = duration;
+    }
+
+    /**
+     * 根据隐藏值，显示值和当前值计算某个轨道
+     *
+     * @param index
+     * @param show
+     * @param valueHidden
+     * @param valueShown
+     * @param valueCurrent
+     * @param maxDuration  从隐藏值到显示值的时长
+     */
+    public void planTrack(int index, boolean show, float valueHidden, float valueShown, float valueCurrent, long maxDuration)
+    {
+        final float valueStart = FTransitionMath.getValueStart(show, valueHidden, valueCurrent);
+        final float valueEnd = FTransitionMath.getValueEnd(show, valueHidden, valueShown);
+        final long duration = FTransitionMath.getScaledDuration(valueStart - valueEnd, valueShown - valueHidden, maxDuration);
+        setTrack(index, valueStart, valueEnd, duration);
+    }
+
+    /**
+     * 所有轨道设置完成后调用
+     */
+    public void finishPlan()
+    {
+        long duration = 0;
+        for (long item : mDurations)
+        {
+            if (item > duration)
+                duration = item;
+        }
+        mDuration = duration;
+    }
+
+    /**
+     * 返回最长的轨道时长
+     */
+    public long getDuration()
+    {
+        return mDuration;
+    }
+
+    /**
+     * 返回某个轨道在playTime时候的值，未设置缓动曲线的轨道使用先加速后减速
+     *
+     * @param index
+     * @param playTime 动画已经执行的时长
+     * @return
+     */
+    public float getValue(int index, float playTime)
+    {
+        final float fraction = FTransitionMath.getFraction(playTime, mDurations[index]);
+        final FEasing easing = mEasings[index];
+        final float interpolated = easing == null ? FTransitionMath.accelerateDecelerate(fraction) : easing.getInterpolation(fraction);
+        return FTransitionMath.lerp(mValueStart[index], mValueEnd[index], interpolated);
+    }
+
+    /**
+     * 计算所有轨道在playTime时候的值
+     *
+     * @param playTime 动画已经执行的时长
+     * @param values   保存结果，长度不小于轨道数量
+     */
+    public void getValues(float playTime, float[] values)
+    {
+        for (int i = 0; i < mFlags.length; i++)
+        {
+            values[i] = getValue(i, playTime);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.sd.lib.viewanim.core;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FAnimatorSpecTest
+{
+    private static final float DELTA = 0.0001f;
+
+    @Test
+    public void parse_full()
+    {
+        final FAnimatorSpec spec = FAnimatorSpec.parse("alpha+slideTopBottomParent, pivot 0.5/1.0, 250ms, ease 0.4/0/0.2/1, spring 200/0.5");
+        assertEquals(Arrays.asList("alpha", "slideTopBottomParent"), spec.getCreatorNames());
+        assertTrue(spec.hasPivot());
+        assertEquals(0.5f, spec.getPivotX(), DELTA);
+        assertEquals(1.0f, spec.getPivotY(), DELTA);
+        assertEquals(250, spec.getDuration());
+        assertNull(spec.getEasingName());
+        assertArrayEquals(new float[]{0.4f, 0.0f, 0.2f, 1.0f}, spec.getEasingBezier(), DELTA);
+        assertTrue(spec.isSpring());
+        assertEquals(200f, spec.getStiffness(), DELTA);
+        assertEquals(0.5f, spec.getDampingRatio(), DELTA);
+    }
+
+    @Test
+    public void parse_defaults()
+    {
+        final FAnimatorSpec spec = FAnimatorSpec.parse(" alpha ");
+        assertEquals(Arrays.asList("alpha"), spec.getCreatorNames());
+        assertFalse(spec.hasPivot());
+        assertEquals(-1, spec.getDuration());
+        assertNull(spec.getEasingName());
+        assertNull(spec.getEasingBezier());
+        assertFalse(spec.isSpring());
+        assertEquals(FSpring.STIFFNESS_MEDIUM, spec.getStiffness(), DELTA);
+
+        final FAnimatorSpec named = FAnimatorSpec.parse("scaleXY,ease standard,SPRING,100MS");
+        assertEquals("standard", named.getEasingName());
+        assertTrue(named.isSpring());
+        assertEquals(100, named.getDuration());
+    }
+
+    @Test
+    public void equality()
+    {
+        assertEquals(FAnimatorSpec.parse("alpha, 250ms, pivot 0.5/1"), FAnimatorSpec.parse("alpha,pivot 0.5/1.0,250ms"));
+        assertEquals(FAnimatorSpec.parse("alpha, 250ms").hashCode(), FAnimatorSpec.parse("alpha,250ms").hashCode());
+        assertNotEquals(FAnimatorSpec.parse("alpha, 250ms"), FAnimatorSpec.parse("alpha, 200ms"));
+    }
+
+    @Test
+    public void parse_errors()
+    {
+        final String[] specs = {"", "alpha+", "alpha,", "alpha, pivot 0.5", "alpha, pivot a/b", "alpha, -1ms",
+                "alpha, 10ms, 20ms", "alpha, bounce", "alpha, ease", "alpha, ease 1/2/3", "alpha, spring 0/1"};
+        for (String item : specs)
+        {
+            try
+            {
+                FAnimatorSpec.parse(item);
+                fail("expected failure: " + item);
+            } catch (IllegalArgumentException e)
+            {
+                assertTrue(e.getMessage().contains(item));
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.sd.lib.viewanim.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FEasingTableTest
+{
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void end_points()
+    {
+        final FEasingTable[] tables = {FEasingTable.ACCELERATE_DECELERATE, FEasingTable.STANDARD,
+                FEasingTable.DECELERATE, FEasingTable.ACCELERATE, FEasingTable.SHARP};
+        for (FEasingTable item : tables)
+        {
+            assertEquals(0.0f, item.getInterpolation(0.0f), DELTA);
+            assertEquals(1.0f, item.getInterpolation(1.0f), DELTA);
+            assertEquals(0.0f, item.getInterpolation(-1.0f), DELTA);
+            assertEquals(1.0f, item.getInterpolation(2.0f), DELTA);
+        }
+    }
+
+    @Test
+    public void cubic_bezier_cached()
+    {
+        assertSame(FEasingTable.STANDARD, FEasingTable.cubicBezier(0.4f, 0.0f, 0.2f, 1.0f));
+
+        final FEasingTable table = FEasingTable.cubicBezier(0.3f, 0.1f, 0.3f, 1.0f);
+        assertSame(table, FEasingTable.cubicBezier(0.3f, 0.1f, 0.3f, 1.0f));
+        assertNotSame(table, FEasingTable.cubicBezier(0.3f, 0.1f, 0.3f, 0.9f));
+    }
+
+    @Test
+    public void accelerate_decelerate_matches_math()
+    {
+        for (int i = 0; i <= 1000; i++)
+        {
+            final float fraction = i / 1000f;
+            assertEquals(FTransitionMath.accelerateDecelerate(fraction),
+                    FEasingTable.ACCELERATE_DECELERATE.getInterpolation(fraction), 0.0001f);
+        }
+    }
+
+    @Test
+    public void cubic_bezier()
+    {
+        // 控制点在对角线上的贝塞尔是线性的
+        final FEasingTable linear = FEasingTable.cubicBezier(0.25f, 0.25f, 0.75f, 0.75f);
+        assertEquals(0.3f, linear.getInterpolation(0.3f), DELTA);
+        assertEquals(0.7f, linear.getInterpolation(0.7f), DELTA);
+
+        // 对称曲线在中点的值是0.5
+        assertEquals(0.5f, FEasingTable.cubicBezier(0.4f, 0.0f, 0.6f, 1.0f).getInterpolation(0.5f), DELTA);
+
+        // 减速曲线前半段走得更多
+        assertTrue(FEasingTable.DECELERATE.getInterpolation(0.5f) > 0.5f);
+        assertTrue(FEasingTable.ACCELERATE.getInterpolation(0.5f) < 0.5f);
+
+        float last = 0;
+        for (int i = 0; i <= 100; i++)
+        {
+            final float value = FEasingTable.STANDARD.getInterpolation(i / 100f);
+            assertTrue(value >= last);
+            last = value;
+        }
+    }
+
+    @Test
+    public void plan_easing()
+    {
+        final FTransitionPlan plan = new FTransitionPlan(new int[]{FPropertyFlags.FLAG_ALPHA, FPropertyFlags.FLAG_ALPHA});
+        plan.planTrack(0, true, 0.0f, 1.0f, 0.0f, 200);
+        plan.planTrack(1, true, 0.0f, 1.0f, 0.0f, 200);
+        plan.setEasing(1, FEasingTable.DECELERATE);
+        plan.finishPlan();
+
+        assertEquals(FTransitionMath.accelerateDecelerate(0.5f), plan.getValue(0, 100), DELTA);
+        assertEquals(FEasingTable.DECELERATE.getInterpolation(0.5f), plan.getValue(1, 100), DELTA);
+    }
+}
@@ -0,0 +1,70 @@
+package com.sd.lib.viewanim.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FLatencyHistogramTest
+{
+    @Test
+    public void bucket_index()
+    {
+        assertEquals(0, FLatencyHistogram.getBucketIndex(999));
+        assertEquals(1, FLatencyHistogram.getBucketIndex(1000));
+        assertEquals(2, FLatencyHistogram.getBucketIndex(2000));
+        assertEquals(2, FLatencyHistogram.getBucketIndex(3999));
+        assertEquals(FLatencyHistogram.BUCKET_COUNT - 1, FLatencyHistogram.getBucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void snapshot_and_reset()
+    {
+        final FLatencyHistogram histogram = new FLatencyHistogram("test");
+        for (int i = 1; i <= 100; i++)
+        {
+            histogram.record(i * 1000L);
+        }
+        histogram.record(-1);
+
+        final FLatencyHistogram.Snapshot snapshot = histogram.snapshotAndReset();
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050 * 1000L, snapshot.getSum());
+        assertEquals(100 * 1000L, snapshot.getMax());
+        assertEquals(64 * 1000L, snapshot.getPercentile(0.5f));
+        assertEquals(100 * 1000L, snapshot.getPercentile(0.99f));
+
+        final FLatencyHistogram.Snapshot empty = histogram.snapshot();
+        assertEquals(0, empty.getCount());
+        assertEquals(0, empty.getPercentile(0.5f));
+    }
+
+    @Test
+    public void concurrent_record() throws InterruptedException
+    {
+        final FLatencyHistogram histogram = new FLatencyHistogram("test");
+        final Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++)
+        {
+            threads[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    for (int j = 0; j < 10000; j++)
+                    {
+                        histogram.record(j);
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread item : threads)
+        {
+            item.join();
+        }
+
+        final FLatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(40000, snapshot.getCount());
+        assertEquals(9999, snapshot.getMax());
+    }
+}
@@ -0,0 +1,148 @@
+package com.sd.lib.viewanim.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FSpringTest
+{
+    private static final float DELTA = 0.01f;
+
+    private static FSpring newSpring(float dampingRatio)
+    {
+        final FSpring spring = new FSpring(new int[]{FPropertyFlags.FLAG_TRANSLATION});
+        spring.setStiffness(FSpring.STIFFNESS_MEDIUM);
+        spring.setDampingRatio(dampingRatio);
+        spring.setValue(0, 0.0f, 0.0f);
+        spring.setTarget(0, 100.0f);
+        return spring;
+    }
+
+    @Test
+    public void reach_target()
+    {
+        final float[] ratios = {FSpring.DAMPING_RATIO_HIGH_BOUNCY, FSpring.DAMPING_RATIO_NO_BOUNCY, 2.0f};
+        for (float ratio : ratios)
+        {
+            final FSpring spring = newSpring(ratio);
+            int frames = 0;
+            while (!spring.step(16))
+            {
+                frames++;
+                assertTrue("ratio:" + ratio, frames < 1000);
+            }
+            assertEquals(100.0f, spring.getValue(0), 0.0f);
+            assertEquals(0.0f, spring.getVelocity(0), 0.0f);
+        }
+    }
+
+    @Test
+    public void frame_interval_independent()
+    {
+        final FSpring small = newSpring(FSpring.DAMPING_RATIO_LOW_BOUNCY);
+        for (int i = 0; i < 10; i++)
+        {
+            small.step(8);
+        }
+
+        final FSpring large = newSpring(FSpring.DAMPING_RATIO_LOW_BOUNCY);
+        large.step(80);
+
+        assertEquals(large.getValue(0), small.getValue(0), DELTA);
+        assertEquals(large.getVelocity(0), small.getVelocity(0), 1.0f);
+    }
+
+    @Test
+    public void large_duration_scale()
+    {
+        // 120Hz的屏幕，时长放大10倍，每一帧推进不到1毫秒
+        final double frameSeconds = 1 / 120d / 10;
+
+        final FSpring scaled = newSpring(FSpring.DAMPING_RATIO_NO_BOUNCY);
+        int frames = 0;
+        while (!scaled.stepSeconds(frameSeconds))
+        {
+            frames++;
+            assertTrue(frames < 100000);
+        }
+        assertEquals(100.0f, scaled.getValue(0), 0.0f);
+
+        final FSpring normal = newSpring(FSpring.DAMPING_RATIO_NO_BOUNCY);
+        long time = 0;
+        while (!normal.step(16))
+        {
+            time += 16;
+        }
+        // 弹簧自身经过的时间和不缩放的时候一致，实际时长是10倍
+        assertEquals(time, (frames + 1) * frameSeconds * 1000, 16);
+
+        // 10帧的小数时间和一次推进相同
+        final FSpring small = newSpring(FSpring.DAMPING_RATIO_LOW_BOUNCY);
+        for (int i = 0; i < 10; i++)
+        {
+            small.stepSeconds(0.0016);
+        }
+        final FSpring large = newSpring(FSpring.DAMPING_RATIO_LOW_BOUNCY);
+        large.step(16);
+        assertEquals(large.getValue(0), small.getValue(0), DELTA);
+    }
+
+    @Test
+    public void overshoot_when_bouncy()
+    {
+        final FSpring spring = newSpring(FSpring.DAMPING_RATIO_HIGH_BOUNCY);
+        float max = 0;
+        while (!spring.step(16))
+        {
+            max = Math.max(max, spring.getValue(0));
+        }
+        assertTrue(max > 100.0f);
+
+        final FSpring critical = newSpring(FSpring.DAMPING_RATIO_NO_BOUNCY);
+        while (!critical.step(16))
+        {
+            assertTrue(critical.getValue(0) <= 100.0f);
+        }
+    }
+
+    @Test
+    public void retarget_keeps_velocity()
+    {
+        final FSpring spring = newSpring(FSpring.DAMPING_RATIO_NO_BOUNCY);
+        spring.step(32);
+
+        final float value = spring.getValue(0);
+        final float velocity = spring.getVelocity(0);
+        assertTrue(velocity > 0);
+
+        spring.setTarget(0, 0.0f);
+        assertEquals(value, spring.getValue(0), 0.0f);
+        assertEquals(velocity, spring.getVelocity(0), 0.0f);
+
+        // 还会继续向原方向运动一段距离再返回
+        spring.step(8);
+        assertTrue(spring.getValue(0) > value);
+
+        while (!spring.step(16))
+        {
+        }
+        assertEquals(0.0f, spring.getValue(0), 0.0f);
+    }
+
+    @Test
+    public void estimate_duration()
+    {
+        final FSpring spring = newSpring(FSpring.DAMPING_RATIO_NO_BOUNCY);
+        final long duration = spring.estimateDuration();
+        assertTrue(duration > 0);
+
+        long time = 0;
+        while (!spring.step(16))
+        {
+            time += 16;
+        }
+        assertEquals(duration, time + 16, 32);
+
+        assertEquals(0, spring.estimateDuration());
+    }
+}
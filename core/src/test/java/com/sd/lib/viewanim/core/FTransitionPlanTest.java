@@ -0,0 +1,61 @@
+package com.sd.lib.viewanim.core;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FTransitionPlanTest
+{
+    private static final float DELTA = 0.0001f;
+
+    @Test
+    public void scaled_duration()
+    {
+        assertEquals(200, FTransitionMath.getScaledDuration(-1.0f, 1.0f, 200));
+        assertEquals(100, FTransitionMath.getScaledDuration(0.5f, 1.0f, 200));
+        assertEquals(200, FTransitionMath.getScaledDuration(3.0f, 1.0f, 200));
+        assertEquals(0, FTransitionMath.getScaledDuration(0.0f, 1.0f, 200));
+        assertEquals(0, FTransitionMath.getScaledDuration(1.0f, 0.0f, 200));
+    }
+
+    @Test
+    public void plan_show()
+    {
+        final FTransitionPlan plan = new FTransitionPlan(new int[]{FPropertyFlags.FLAG_ALPHA, FPropertyFlags.FLAG_SCALE});
+        plan.planTrack(0, true, 0.0f, 1.0f, 0.3f, 200);
+        plan.planTrack(1, true, 0.0f, 1.0f, 0.3f, 300);
+        plan.finishPlan();
+
+        assertEquals(FPropertyFlags.FLAG_ALPHA | FPropertyFlags.FLAG_SCALE, plan.getPropertyFlags());
+        assertEquals(0.0f, plan.getValueStart(0), DELTA);
+        assertEquals(1.0f, plan.getValueEnd(0), DELTA);
+        assertEquals(300, plan.getDuration());
+
+        assertEquals(0.0f, plan.getValue(0, 0), DELTA);
+        assertEquals(0.5f, plan.getValue(0, 100), DELTA);
+        assertEquals(1.0f, plan.getValue(0, 250), DELTA);
+        assertEquals(1.0f, plan.getValue(1, 300), DELTA);
+    }
+
+    @Test
+    public void plan_hide_from_current()
+    {
+        final FTransitionPlan plan = new FTransitionPlan(new int[]{FPropertyFlags.FLAG_TRANSLATION});
+        plan.planTrack(0, false, 100.0f, 0.0f, 50.0f, 200);
+        plan.finishPlan();
+
+        assertEquals(50.0f, plan.getValueStart(0), DELTA);
+        assertEquals(100.0f, plan.getValueEnd(0), DELTA);
+        assertEquals(100, plan.getDuration());
+    }
+
+    @Test
+    public void geometry()
+    {
+        assertEquals(-100.0f, FGeometry.getHiddenToStart(100), DELTA);
+        assertEquals(-150.0f, FGeometry.getHiddenToParentStart(150), DELTA);
+        assertEquals(70.0f, FGeometry.getHiddenToParentEnd(100, 30, 50), DELTA);
+        assertEquals(50.0f, FGeometry.getHiddenToParentEnd(0, 30, 50), DELTA);
+        assertEquals(25.0f, FTransitionMath.getPivot(0.25f, 100), DELTA);
+    }
+}
@@ -0,0 +1,156 @@
+package com.sd.lib.viewanim;
+
+import android.animation.ValueAnimator;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
+import android.os.SystemClock;
+import android.provider.Settings;
+
+/**
+ * 全局的动画策略，决定动画是否执行以及时长的缩放比例
+ * <p>
+ * 默认跟随系统：开发者选项中的动画时长缩放为0，或者省电模式关闭了动画的时候，{@link FVisibilityAnimator}和{@link FVisibilityGroupAnimator}直接修改可见状态，
+ * 不等待布局也不创建动画；自己驱动的动画（{@link FChoreographerEngine}和弹簧动画）按照系统的缩放比例修改时长，
+ * {@link ValueAnimator}由系统自己缩放
+ */
+public final class FAnimatorPolicy
+{
+    /**
+     * 跟随系统的设置
+     */
+    public static final int MODE_SYSTEM = 0;
+    /**
+     * 总是执行动画，自己驱动的动画不缩放时长
+     * <p>
+     * {@link ValueAnimator}（包括ObjectAnimator和AnimatorSet）的时长仍然由系统缩放，
+     * 系统缩放比例为0的时候会直接跳到结束；系统修改缩放比例的方法{@code ValueAnimator.setDurationScale}不是公开的API，这里不调用
+     */
+    public static final int MODE_ENABLED = 1;
+    /**
+     * 总是不执行动画
+     */
+    public static final int MODE_DISABLED = 2;
+
+    /** 系统设置的缓存时间，过期后重新读取 */
+    private static final long SCALE_CACHE_MILLIS = 1000;
+
+    private static volatile int sMode = MODE_SYSTEM;
+    private static volatile float sSystemScale = 1.0f;
+    private static volatile long sSystemScaleTime = -1;
+
+    private FAnimatorPolicy()
+    {
+    }
+
+    /**
+     * 设置策略，默认{@link #MODE_SYSTEM}
+     *
+     * @param mode {@link #MODE_SYSTEM}，{@link #MODE_ENABLED}，{@link #MODE_DISABLED}
+     */
+    public static void setMode(int mode)
+    {
+        if (mode != MODE_SYSTEM && mode != MODE_ENABLED && mode != MODE_DISABLED)
+            throw new IllegalArgumentException("Illegal mode value");
+
+        sMode = mode;
+        sSystemScaleTime = -1;
+    }
+
+    /**
+     * 返回策略
+     *
+     * @return
+     */
+    public static int getMode()
+    {
+        return sMode;
+    }
+
+    /**
+     * 动画是否执行
+     *
+     * @param context
+     * @return
+     */
+    public static boolean isAnimatorEnabled(Context context)
+    {
+        return getDurationScale(context) > 0;
+    }
+
+    /**
+     * 返回动画时长的缩放比例，0表示不执行动画
+     *
+     * @param context
+     * @return
+     */
+    public static float getDurationScale(Context context)
+    {
+        switch (sMode)
+        {
+            case MODE_ENABLED:
+                return 1.0f;
+            case MODE_DISABLED:
+                return 0.0f;
+            default:
+                return getSystemScale(context);
+        }
+    }
+
+    /**
+     * 按照缩放比例返回时长
+     *
+     * @param context
+     * @param duration 毫秒
+     * @return
+     */
+    public static long scaleDuration(Context context, long duration)
+    {
+        if (duration <= 0)
+            return duration;
+
+        final float scale = getDurationScale(context);
+        return scale == 1.0f ? duration : (long) (duration * scale);
+    }
+
+    private static float getSystemScale(Context context)
+    {
+        final long now = SystemClock.uptimeMillis();
+        final long time = sSystemScaleTime;
+        if (time >= 0 && now - time < SCALE_CACHE_MILLIS)
+            return sSystemScale;
+
+        final float scale = readSystemScale(context);
+        sSystemScale = scale;
+        sSystemScaleTime = now;
+        return scale;
+    }
+
+    private static float readSystemScale(Context context)
+    {
+        // 省电模式关闭动画的时候，系统设置的缩放比例不变，只能通过这个方法判断
+        if (Build.VERSION.SDK_INT >= 26 && !ValueAnimator.areAnimatorsEnabled())
+            return 0.0f;
+
+        if (context == null)
+            return 1.0f;
+
+        final ContentResolver resolver = context.getContentResolver();
+        if (resolver == null)
+            return 1.0f;
+
+        final float scale;
+        if (Build.VERSION.SDK_INT >= 17)
+            scale = Settings.Global.getFloat(resolver, Settings.Global.ANIMATOR_DURATION_SCALE, 1.0f);
+        else
+            scale = getLegacyScale(resolver);
+
+        return scale < 0 ? 1.0f : scale;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static float getLegacyScale(ContentResolver resolver)
+    {
+        return Settings.System.getFloat(resolver, Settings.System.ANIMATOR_DURATION_SCALE, 1.0f);
+    }
+}
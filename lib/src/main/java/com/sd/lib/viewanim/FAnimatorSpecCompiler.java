@@ -0,0 +1,273 @@
+package com.sd.lib.viewanim;
+
+import android.animation.TimeInterpolator;
+
+import com.sd.lib.viewanim.core.FAnimatorSpec;
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.AlphaCreator;
+import com.sd.lib.viewanim.creator.obj.CombineCreator;
+import com.sd.lib.viewanim.creator.obj.CompiledCreator;
+import com.sd.lib.viewanim.creator.obj.ObjectAnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.PivotPercentCreator;
+import com.sd.lib.viewanim.creator.obj.ScaleXCreator;
+import com.sd.lib.viewanim.creator.obj.ScaleYCreator;
+import com.sd.lib.viewanim.creator.obj.SlideBottomTopCreator;
+import com.sd.lib.viewanim.creator.obj.SlideBottomTopParentCreator;
+import com.sd.lib.viewanim.creator.obj.SlideLeftRightCreator;
+import com.sd.lib.viewanim.creator.obj.SlideLeftRightParentCreator;
+import com.sd.lib.viewanim.creator.obj.SlideRightLeftCreator;
+import com.sd.lib.viewanim.creator.obj.SlideRightLeftParentCreator;
+import com.sd.lib.viewanim.creator.obj.SlideTopBottomCreator;
+import com.sd.lib.viewanim.creator.obj.SlideTopBottomParentCreator;
+import com.sd.lib.viewanim.creator.obj.SpringAnimatorCreator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 把文本格式的动画描述{@link FAnimatorSpec}编译为创建者，编译结果按照文本缓存，最近最少使用的先移除
+ * <p>
+ * 编译结果会放入{@link FCreatorPool}，在多个View之间共享，不要修改
+ */
+public final class FAnimatorSpecCompiler
+{
+    private static final int DEFAULT_CACHE_SIZE = 32;
+
+    private static final Map<String, CreatorFactory> FACTORIES = new HashMap<>();
+    private static final Map<String, AnimatorCreator> CACHE = new LinkedHashMap<String, AnimatorCreator>(16, 0.75f, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, AnimatorCreator> eldest)
+        {
+            return size() > sCacheSize;
+        }
+    };
+
+    private static int sCacheSize = DEFAULT_CACHE_SIZE;
+
+    private FAnimatorSpecCompiler()
+    {
+    }
+
+    /**
+     * 注册自定义的创建者名称，会覆盖同名的内置创建者，已经缓存的编译结果不受影响
+     *
+     * @param name
+     * @param factory
+     */
+    public static synchronized void register(String name, CreatorFactory factory)
+    {
+        if (name == null)
+            throw new NullPointerException("name is null");
+        if (factory == null)
+            throw new NullPointerException("factory is null");
+        FACTORIES.put(name, factory);
+    }
+
+    /**
+     * 设置缓存的最大数量，默认32
+     *
+     * @param size 大于等于0，0表示不缓存
+     */
+    public static synchronized void setCacheSize(int size)
+    {
+        if (size < 0)
+            throw new IllegalArgumentException("size must be >= 0");
+
+        sCacheSize = size;
+        while (CACHE.size() > size)
+        {
+            CACHE.remove(CACHE.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * 清空缓存
+     */
+    public static synchronized void clearCache()
+    {
+        CACHE.clear();
+    }
+
+    /**
+     * 返回文本对应的创建者，优先使用缓存
+     *
+     * @param spec
+     * @return
+     * @throws IllegalArgumentException 格式错误或者包含未知的名称
+     */
+    public static AnimatorCreator compile(String spec)
+    {
+        if (spec == null)
+            throw new NullPointerException("spec is null");
+
+        synchronized (FAnimatorSpecCompiler.class)
+        {
+            final AnimatorCreator cached = CACHE.get(spec);
+            if (cached != null)
+                return cached;
+        }
+
+        // 文本不同但是内容相同的描述共享同一个实例
+        final AnimatorCreator creator = FCreatorPool.intern(compile(FAnimatorSpec.parse(spec)));
+
+        synchronized (FAnimatorSpecCompiler.class)
+        {
+            // 其他线程可能已经编译过，使用先放入缓存的结果
+            final AnimatorCreator cached = CACHE.get(spec);
+            if (cached != null)
+                return cached;
+
+            if (sCacheSize > 0)
+                CACHE.put(spec, creator);
+            return creator;
+        }
+    }
+
+    /**
+     * 编译为创建者，不使用缓存
+     *
+     * @param spec
+     * @return
+     * @throws IllegalArgumentException 包含未知的名称
+     */
+    public static AnimatorCreator compile(FAnimatorSpec spec)
+    {
+        final TimeInterpolator interpolator = getInterpolator(spec);
+
+        final List<AnimatorCreator> creators = new ArrayList<>();
+        for (String name : spec.getCreatorNames())
+        {
+            addCreators(name, spec, creators);
+        }
+
+        for (AnimatorCreator item : creators)
+        {
+            if (item instanceof ObjectAnimatorCreator)
+            {
+                final ObjectAnimatorCreator creator = (ObjectAnimatorCreator) item;
+                if (spec.getDuration() >= 0)
+                    creator.setDuration(spec.getDuration());
+                if (interpolator != null)
+                    creator.setInterpolator(interpolator);
+            }
+        }
+
+        AnimatorCreator creator = creators.size() == 1 ? creators.get(0) : new CombineCreator(creators.toArray(new AnimatorCreator[creators.size()]));
+
+        if (spec.hasPivot())
+            creator = new PivotPercentCreator(creator, spec.getPivotX(), spec.getPivotY());
+
+        if (spec.isSpring())
+        {
+            return new SpringAnimatorCreator(creator)
+                    .setStiffness(spec.getStiffness())
+                    .setDampingRatio(spec.getDampingRatio());
+        }
+        return new CompiledCreator(creator);
+    }
+
+    private static void addCreators(String name, FAnimatorSpec spec, List<AnimatorCreator> creators)
+    {
+        final CreatorFactory factory;
+        synchronized (FAnimatorSpecCompiler.class)
+        {
+            factory = FACTORIES.get(name);
+        }
+        if (factory != null)
+        {
+            final AnimatorCreator creator = factory.create();
+            if (creator == null)
+                throw new NullPointerException("factory for '" + name + "' returned null");
+            creators.add(creator);
+            return;
+        }
+
+        switch (name)
+        {
+            case "alpha":
+                creators.add(new AlphaCreator());
+                break;
+            case "scaleX":
+                creators.add(new ScaleXCreator());
+                break;
+            case "scaleY":
+                creators.add(new ScaleYCreator());
+                break;
+            case "scaleXY":
+                // 拆开添加，时长和插值器可以设置到每个属性上
+                creators.add(new ScaleXCreator());
+                creators.add(new ScaleYCreator());
+                break;
+            case "slideTopBottom":
+                creators.add(new SlideTopBottomCreator());
+                break;
+            case "slideTopBottomParent":
+                creators.add(new SlideTopBottomParentCreator());
+                break;
+            case "slideBottomTop":
+                creators.add(new SlideBottomTopCreator());
+                break;
+            case "slideBottomTopParent":
+                creators.add(new SlideBottomTopParentCreator());
+                break;
+            case "slideLeftRight":
+                creators.add(new SlideLeftRightCreator());
+                break;
+            case "slideLeftRightParent":
+                creators.add(new SlideLeftRightParentCreator());
+                break;
+            case "slideRightLeft":
+                creators.add(new SlideRightLeftCreator());
+                break;
+            case "slideRightLeftParent":
+                creators.add(new SlideRightLeftParentCreator());
+                break;
+            default:
+                throw new IllegalArgumentException("illegal animator spec \"" + spec.getSource() + "\": unknown creator '" + name + "'");
+        }
+    }
+
+    private static TimeInterpolator getInterpolator(FAnimatorSpec spec)
+    {
+        final float[] bezier = spec.getEasingBezier();
+        if (bezier != null)
+            return FEasingInterpolator.cubicBezier(bezier[0], bezier[1], bezier[2], bezier[3]);
+
+        final String name = spec.getEasingName();
+        if (name == null)
+            return null;
+
+        switch (name)
+        {
+            case "accelerateDecelerate":
+                return FEasingInterpolator.ACCELERATE_DECELERATE;
+            case "standard":
+                return FEasingInterpolator.STANDARD;
+            case "decelerate":
+                return FEasingInterpolator.DECELERATE;
+            case "accelerate":
+                return FEasingInterpolator.ACCELERATE;
+            case "sharp":
+                return FEasingInterpolator.SHARP;
+            default:
+                throw new IllegalArgumentException("illegal animator spec \"" + spec.getSource() + "\": unknown easing '" + name + "'");
+        }
+    }
+
+    /**
+     * 创建自定义名称对应的创建者
+     */
+    public interface CreatorFactory
+    {
+        /**
+         * 每次编译调用一次，返回新的创建者
+         *
+         * @return
+         */
+        AnimatorCreator create();
+    }
+}
@@ -0,0 +1,145 @@
+package com.sd.lib.viewanim;
+
+import android.os.Build;
+import android.os.Trace;
+
+/**
+ * 动画流程的系统跟踪（{@link Trace}），默认关闭，开启后可以在Perfetto或者systrace中看到每个阶段和每个创建者的耗时
+ * <p>
+ * 同步区间需要API 18，异步区间和计数需要API 29，低版本不记录
+ */
+public final class FAnimatorTrace
+{
+    /** 跟踪名称的最大长度 */
+    private static final int MAX_NAME_LENGTH = 127;
+
+    /** 正在执行的动画数量 */
+    public static final String COUNTER_RUNNING_ANIMATORS = "FVisibilityAnimator#running";
+
+    private static volatile boolean sEnabled;
+    private static int sRunningAnimators;
+
+    private FAnimatorTrace()
+    {
+    }
+
+    /**
+     * 设置是否开启跟踪
+     *
+     * @param enabled
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        sEnabled = enabled;
+        if (!enabled)
+            sRunningAnimators = 0;
+    }
+
+    /**
+     * 是否开启跟踪
+     *
+     * @return
+     */
+    public static boolean isEnabled()
+    {
+        return sEnabled && Build.VERSION.SDK_INT >= 18;
+    }
+
+    /**
+     * 开始同步区间，必须和{@link #endSection()}在同一个线程成对调用
+     *
+     * @param name
+     * @return true-已经开始，需要调用{@link #endSection()}
+     */
+    public static boolean beginSection(String name)
+    {
+        if (!isEnabled())
+            return false;
+
+        Trace.beginSection(trimName(name));
+        return true;
+    }
+
+    /**
+     * 结束同步区间
+     */
+    public static void endSection()
+    {
+        if (Build.VERSION.SDK_INT >= 18)
+            Trace.endSection();
+    }
+
+    /**
+     * 开始异步区间
+     *
+     * @param name
+     * @param cookie 区分同名的区间
+     * @return true-已经开始，需要调用{@link #endAsyncSection(String, int)}
+     */
+    public static boolean beginAsyncSection(String name, int cookie)
+    {
+        if (!isEnabled() || Build.VERSION.SDK_INT < 29)
+            return false;
+
+        Trace.beginAsyncSection(trimName(name), cookie);
+        return true;
+    }
+
+    /**
+     * 结束异步区间，名称和cookie要和开始的时候一致
+     *
+     * @param name
+     * @param cookie
+     */
+    public static void endAsyncSection(String name, int cookie)
+    {
+        if (Build.VERSION.SDK_INT >= 29)
+            Trace.endAsyncSection(trimName(name), cookie);
+    }
+
+    /**
+     * 设置计数
+     *
+     * @param name
+     * @param value
+     */
+    public static void setCounter(String name, long value)
+    {
+        if (!isEnabled() || Build.VERSION.SDK_INT < 29)
+            return;
+
+        Trace.setCounter(trimName(name), value);
+    }
+
+    /**
+     * 动画开始，更新正在执行的动画数量
+     */
+    static void onAnimatorStart()
+    {
+        if (!sEnabled)
+            return;
+
+        sRunningAnimators++;
+        setCounter(COUNTER_RUNNING_ANIMATORS, sRunningAnimators);
+    }
+
+    /**
+     * 动画结束，更新正在执行的动画数量
+     */
+    static void onAnimatorEnd()
+    {
+        if (!sEnabled)
+            return;
+
+        if (sRunningAnimators > 0)
+            sRunningAnimators--;
+        setCounter(COUNTER_RUNNING_ANIMATORS, sRunningAnimators);
+    }
+
+    private static String trimName(String name)
+    {
+        if (name == null)
+            return "null";
+        return name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name;
+    }
+}
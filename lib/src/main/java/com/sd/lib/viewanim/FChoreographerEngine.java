@@ -0,0 +1,325 @@
+package com.sd.lib.viewanim;
+
+import android.animation.TimeInterpolator;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.sd.lib.viewanim.core.FTransitionMath;
+import com.sd.lib.viewanim.property.FloatProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 进程内所有过渡动画共用一个{@link Choreographer.FrameCallback}驱动
+ * <p>
+ * 每个属性动画（轨道）保存在连续的数组中，每一帧在一个循环里面计算并设置所有属性值，不为每个动画创建单独的对象和回调
+ * <p>
+ * 只能在主线程使用
+ */
+public final class FChoreographerEngine
+{
+    private static final int INIT_CAPACITY = 16;
+
+    private static FChoreographerEngine sInstance;
+
+    private Transition[] mTransitions = new Transition[INIT_CAPACITY];
+    private View[] mViews = new View[INIT_CAPACITY];
+    @SuppressWarnings("unchecked")
+    private FloatProperty<View>[] mProperties = (FloatProperty<View>[]) new FloatProperty<?>[INIT_CAPACITY];
+    private TimeInterpolator[] mInterpolators = new TimeInterpolator[INIT_CAPACITY];
+    private float[] mValueStart = new float[INIT_CAPACITY];
+    private float[] mValueEnd = new float[INIT_CAPACITY];
+    private long[] mStartDelay = new long[INIT_CAPACITY];
+    private long[] mStartTime = new long[INIT_CAPACITY];
+    private long[] mDuration = new long[INIT_CAPACITY];
+    private int mTrackCount;
+
+    private final List<Transition> mFinishedHolder = new ArrayList<>();
+    private Transition[] mFinishedArray = new Transition[INIT_CAPACITY];
+
+    private boolean mFrameScheduled;
+
+    private FChoreographerEngine()
+    {
+    }
+
+    public static FChoreographerEngine getInstance()
+    {
+        if (sInstance == null)
+            sInstance = new FChoreographerEngine();
+        return sInstance;
+    }
+
+    /**
+     * 返回正在执行的轨道数量
+     *
+     * @return
+     */
+    public int getTrackCount()
+    {
+        return mTrackCount;
+    }
+
+    /**
+     * 添加一个属性轨道，轨道在下一帧开始计时
+     *
+     * @param transition   轨道所属的过渡动画，所有轨道结束后回调{@link Transition#onTransitionEnd()}
+     * @param view
+     * @param property
+     * @param valueStart
+     * @param valueEnd
+     * @param startDelay   延迟（毫秒）
+     * @param duration     时长（毫秒）
+     * @param interpolator 为null则先加速后减速
+     */
+    public void addTrack(Transition transition, View view, FloatProperty<View> property,
+                         float valueStart, float valueEnd, long startDelay, long duration, TimeInterpolator interpolator)
+    {
+        if (transition == null)
+            throw new NullPointerException("transition is null");
+        if (view == null)
+            throw new NullPointerException("view is null");
+        if (property == null)
+            throw new NullPointerException("property is null");
+
+        ensureCapacity(mTrackCount + 1);
+
+        final int index = mTrackCount;
+        mTransitions[index] = transition;
+        mViews[index] = view;
+        mProperties[index] = property;
+        mInterpolators[index] = interpolator;
+        mValueStart[index] = valueStart;
+        mValueEnd[index] = valueEnd;
+        mStartDelay[index] = startDelay < 0 ? 0 : startDelay;
+        mStartTime[index] = -1;
+        mDuration[index] = duration < 0 ? 0 : duration;
+        mTrackCount++;
+
+        transition.mTrackCount++;
+        transition.mFinishPending = false;
+        scheduleFrame();
+    }
+
+    /**
+     * 移除过渡动画的所有轨道，不会回调{@link Transition#onTransitionEnd()}
+     *
+     * @param transition
+     */
+    public void removeTransition(Transition transition)
+    {
+        if (transition == null)
+            return;
+
+        transition.mFinishPending = false;
+        if (transition.mTrackCount <= 0)
+            return;
+
+        int count = 0;
+        for (int i = 0; i < mTrackCount; i++)
+        {
+            if (mTransitions[i] != transition)
+            {
+                moveTrack(i, count);
+                count++;
+            }
+        }
+        clearTracks(count, mTrackCount);
+        mTrackCount = count;
+        transition.mTrackCount = 0;
+    }
+
+    private void scheduleFrame()
+    {
+        if (mFrameScheduled)
+            return;
+
+        mFrameScheduled = true;
+        Choreographer.getInstance().postFrameCallback(mFrameCallback);
+    }
+
+    private final Choreographer.FrameCallback mFrameCallback = new Choreographer.FrameCallback()
+    {
+        @Override
+        public void doFrame(long frameTimeNanos)
+        {
+            mFrameScheduled = false;
+            onFrame(frameTimeNanos / 1000000L);
+        }
+    };
+
+    /**
+     * 计算并设置所有轨道在frameTime时候的属性值，移除已经结束的轨道
+     *
+     * @param frameTime 当前帧时间（毫秒）
+     */
+    void onFrame(long frameTime)
+    {
+        int count = 0;
+        for (int i = 0; i < mTrackCount; i++)
+        {
+            long startTime = mStartTime[i];
+            if (startTime < 0)
+            {
+                startTime = frameTime + mStartDelay[i];
+                mStartTime[i] = startTime;
+            }
+
+            final long playTime = frameTime - startTime;
+            final long duration = mDuration[i];
+
+            final boolean finish = playTime >= duration;
+            float fraction = FTransitionMath.getFraction(playTime, duration);
+
+            final TimeInterpolator interpolator = mInterpolators[i];
+            fraction = interpolator != null ? interpolator.getInterpolation(fraction) : FTransitionMath.accelerateDecelerate(fraction);
+
+            mProperties[i].setValue(mViews[i], FTransitionMath.lerp(mValueStart[i], mValueEnd[i], fraction));
+
+            if (finish)
+            {
+                final Transition transition = mTransitions[i];
+                transition.mTrackCount--;
+                if (transition.mTrackCount <= 0)
+                {
+                    transition.mFinishPending = true;
+                    mFinishedHolder.add(transition);
+                }
+            } else
+            {
+                moveTrack(i, count);
+                count++;
+            }
+        }
+        clearTracks(count, mTrackCount);
+        mTrackCount = count;
+
+        dispatchFinished();
+
+        if (mTrackCount > 0)
+            scheduleFrame();
+    }
+
+    private void dispatchFinished()
+    {
+        final int size = mFinishedHolder.size();
+        if (size <= 0)
+            return;
+
+        if (mFinishedArray.length < size)
+            mFinishedArray = new Transition[size];
+
+        final Transition[] array = mFinishedArray;
+        for (int i = 0; i < size; i++)
+        {
+            array[i] = mFinishedHolder.get(i);
+        }
+        mFinishedHolder.clear();
+
+        // 回调中可能会添加或者移除轨道
+        for (int i = 0; i < size; i++)
+        {
+            final Transition transition = array[i];
+            array[i] = null;
+
+            if (transition.mFinishPending)
+            {
+                transition.mFinishPending = false;
+                transition.onTransitionEnd();
+            }
+        }
+    }
+
+    private void moveTrack(int from, int to)
+    {
+        if (from == to)
+            return;
+
+        mTransitions[to] = mTransitions[from];
+        mViews[to] = mViews[from];
+        mProperties[to] = mProperties[from];
+        mInterpolators[to] = mInterpolators[from];
+        mValueStart[to] = mValueStart[from];
+        mValueEnd[to] = mValueEnd[from];
+        mStartDelay[to] = mStartDelay[from];
+        mStartTime[to] = mStartTime[from];
+        mDuration[to] = mDuration[from];
+    }
+
+    private void clearTracks(int start, int end)
+    {
+        for (int i = start; i < end; i++)
+        {
+            mTransitions[i] = null;
+            mViews[i] = null;
+            mProperties[i] = null;
+            mInterpolators[i] = null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ensureCapacity(int capacity)
+    {
+        final int length = mTransitions.length;
+        if (length >= capacity)
+            return;
+
+        final int newLength = Math.max(capacity, length * 2);
+
+        final Transition[] transitions = new Transition[newLength];
+        final View[] views = new View[newLength];
+        @SuppressWarnings("unchecked")
+        final FloatProperty<View>[] properties = (FloatProperty<View>[]) new FloatProperty<?>[newLength];
+        final TimeInterpolator[] interpolators = new TimeInterpolator[newLength];
+        final float[] valueStart = new float[newLength];
+        final float[] valueEnd = new float[newLength];
+        final long[] startDelay = new long[newLength];
+        final long[] startTime = new long[newLength];
+        final long[] duration = new long[newLength];
+
+        System.arraycopy(mTransitions, 0, transitions, 0, mTrackCount);
+        System.arraycopy(mViews, 0, views, 0, mTrackCount);
+        System.arraycopy(mProperties, 0, properties, 0, mTrackCount);
+        System.arraycopy(mInterpolators, 0, interpolators, 0, mTrackCount);
+        System.arraycopy(mValueStart, 0, valueStart, 0, mTrackCount);
+        System.arraycopy(mValueEnd, 0, valueEnd, 0, mTrackCount);
+        System.arraycopy(mStartDelay, 0, startDelay, 0, mTrackCount);
+        System.arraycopy(mStartTime, 0, startTime, 0, mTrackCount);
+        System.arraycopy(mDuration, 0, duration, 0, mTrackCount);
+
+        mTransitions = transitions;
+        mViews = views;
+        mProperties = properties;
+        mInterpolators = interpolators;
+        mValueStart = valueStart;
+        mValueEnd = valueEnd;
+        mStartDelay = startDelay;
+        mStartTime = startTime;
+        mDuration = duration;
+    }
+
+    /**
+     * 过渡动画，包含一个或者多个轨道
+     */
+    public static abstract class Transition
+    {
+        private int mTrackCount;
+        private boolean mFinishPending;
+
+        /**
+         * 是否还有轨道在执行
+         *
+         * @return
+         */
+        public final boolean isRunning()
+        {
+            return mTrackCount > 0;
+        }
+
+        /**
+         * 所有轨道都结束后回调
+         */
+        protected abstract void onTransitionEnd();
+    }
+}
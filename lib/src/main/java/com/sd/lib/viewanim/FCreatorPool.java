@@ -0,0 +1,71 @@
+package com.sd.lib.viewanim;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 创建者的享元池，相等（{@link Object#equals(Object)}）的创建者只保留一个实例，没有被使用的实例会被回收
+ * <p>
+ * 创建者是无状态的，每个View的临时状态保存在View上，所以一个实例可以同时给任意多个View使用；
+ * 放入池中的{@link BaseAnimatorCreator}会被冻结（{@link BaseAnimatorCreator#freeze()}），之后修改参数会抛出异常；
+ * 其他实现{@link AnimatorCreator}的类需要自己保证放入之后不再变化
+ */
+public final class FCreatorPool
+{
+    private static final Map<AnimatorCreator, WeakReference<AnimatorCreator>> POOL = new WeakHashMap<>();
+
+    private FCreatorPool()
+    {
+    }
+
+    /**
+     * 返回池中和creator相等的实例，如果没有，则冻结creator并放入池中返回
+     *
+     * @param creator
+     * @param <T>
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    public static synchronized <T extends AnimatorCreator> T intern(T creator)
+    {
+        if (creator == null)
+            throw new NullPointerException("creator is null");
+
+        final WeakReference<AnimatorCreator> reference = POOL.get(creator);
+        if (reference != null)
+        {
+            final AnimatorCreator item = reference.get();
+            if (item != null && item.getClass() == creator.getClass())
+                return (T) item;
+        }
+
+        // 冻结之后hashCode不再变化，作为key才能一直被找到
+        if (creator instanceof BaseAnimatorCreator)
+            ((BaseAnimatorCreator) creator).freeze();
+
+        POOL.put(creator, new WeakReference<AnimatorCreator>(creator));
+        return creator;
+    }
+
+    /**
+     * 返回池中实例的数量
+     *
+     * @return
+     */
+    public static synchronized int size()
+    {
+        return POOL.size();
+    }
+
+    /**
+     * 清空池
+     */
+    public static synchronized void clear()
+    {
+        POOL.clear();
+    }
+}
@@ -0,0 +1,108 @@
+package com.sd.lib.viewanim;
+
+import android.animation.TimeInterpolator;
+
+import com.sd.lib.viewanim.core.FEasing;
+import com.sd.lib.viewanim.core.FEasingTable;
+
+/**
+ * 使用预先采样的{@link FEasingTable}实现的插值器，每一帧的计算量固定并且不创建对象
+ * <p>
+ * 常用的曲线已经定义为常量，可以在多个动画之间共享
+ */
+public final class FEasingInterpolator implements TimeInterpolator, FEasing
+{
+    /** 先加速后减速 */
+    public static final FEasingInterpolator ACCELERATE_DECELERATE = new FEasingInterpolator(FEasingTable.ACCELERATE_DECELERATE);
+    /** Material标准曲线 */
+    public static final FEasingInterpolator STANDARD = new FEasingInterpolator(FEasingTable.STANDARD);
+    /** Material减速曲线，用于进入 */
+    public static final FEasingInterpolator DECELERATE = new FEasingInterpolator(FEasingTable.DECELERATE);
+    /** Material加速曲线，用于退出 */
+    public static final FEasingInterpolator ACCELERATE = new FEasingInterpolator(FEasingTable.ACCELERATE);
+    /** Material快速曲线，用于临时退出 */
+    public static final FEasingInterpolator SHARP = new FEasingInterpolator(FEasingTable.SHARP);
+
+    private final FEasingTable mTable;
+
+    private FEasingInterpolator(FEasingTable table)
+    {
+        mTable = table;
+    }
+
+    /**
+     * 三次贝塞尔曲线，和CSS的cubic-bezier一致
+     * <p>
+     * 采样结果按照控制点缓存，见{@link FEasingTable#cubicBezier(float, float, float, float)}
+     *
+     * @param x1
+     * @param y1
+     * @param x2
+     * @param y2
+     * @return
+     */
+    public static FEasingInterpolator cubicBezier(float x1, float y1, float x2, float y2)
+    {
+        final FEasingTable table = FEasingTable.cubicBezier(x1, y1, x2, y2);
+        if (table == STANDARD.mTable)
+            return STANDARD;
+        if (table == DECELERATE.mTable)
+            return DECELERATE;
+        if (table == ACCELERATE.mTable)
+            return ACCELERATE;
+        if (table == SHARP.mTable)
+            return SHARP;
+        return new FEasingInterpolator(table);
+    }
+
+    /**
+     * 采样任意的插值器，比如PathInterpolator，采样后每一帧不再需要查找
+     *
+     * @param interpolator
+     * @return
+     */
+    public static FEasingInterpolator of(final TimeInterpolator interpolator)
+    {
+        if (interpolator == null)
+            throw new NullPointerException("interpolator is null");
+
+        if (interpolator instanceof FEasingInterpolator)
+            return (FEasingInterpolator) interpolator;
+
+        return new FEasingInterpolator(FEasingTable.of(new FEasing()
+        {
+            @Override
+            public float getInterpolation(float fraction)
+            {
+                return interpolator.getInterpolation(fraction);
+            }
+        }));
+    }
+
+    public FEasingTable getTable()
+    {
+        return mTable;
+    }
+
+    @Override
+    public float getInterpolation(float fraction)
+    {
+        return mTable.getInterpolation(fraction);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof FEasingInterpolator))
+            return false;
+        return mTable.equals(((FEasingInterpolator) obj).mTable);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return mTable.hashCode();
+    }
+}
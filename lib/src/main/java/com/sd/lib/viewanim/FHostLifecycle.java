@@ -0,0 +1,186 @@
+package com.sd.lib.viewanim;
+
+import android.app.Activity;
+import android.app.Application;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Bundle;
+
+import com.sd.lib.viewanim.core.FListenerHolder;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 监听Activity的开始和停止，通过{@link Application.ActivityLifecycleCallbacks}实现，不依赖AndroidX Lifecycle
+ * <p>
+ * 回调是弱引用保存的，回调通常引用了View和Activity，强引用会导致Activity不能被回收；调用方需要自己持有回调
+ * <p>
+ * 只能在主线程调用
+ */
+final class FHostLifecycle
+{
+    private static final Map<Activity, FListenerHolder<WeakReference<Callback>>> CALLBACKS = new WeakHashMap<>();
+    /** 已经注册回调的Application，进程中通常只有一个，单元测试中每个测试都会重新创建 */
+    private static Application sApplication;
+
+    private FHostLifecycle()
+    {
+    }
+
+    /**
+     * 返回context对应的Activity
+     *
+     * @param context
+     * @return 没有找到返回null
+     */
+    public static Activity findActivity(Context context)
+    {
+        while (context != null)
+        {
+            if (context instanceof Activity)
+                return (Activity) context;
+
+            if (!(context instanceof ContextWrapper))
+                return null;
+
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+
+    /**
+     * 添加回调
+     *
+     * @param activity
+     * @param callback
+     */
+    public static void register(Activity activity, Callback callback)
+    {
+        if (callback == null)
+            return;
+
+        final Application application = activity.getApplication();
+        if (application == null)
+            return;
+
+        if (application != sApplication)
+        {
+            application.registerActivityLifecycleCallbacks(ACTIVITY_CALLBACKS);
+            sApplication = application;
+        }
+
+        FListenerHolder<WeakReference<Callback>> holder = CALLBACKS.get(activity);
+        if (holder == null)
+        {
+            holder = new FListenerHolder<>();
+            CALLBACKS.put(activity, holder);
+        }
+
+        if (findReference(holder, callback) == null)
+            holder.add(new WeakReference<>(callback));
+    }
+
+    /**
+     * 移除回调
+     *
+     * @param activity
+     * @param callback
+     */
+    public static void unregister(Activity activity, Callback callback)
+    {
+        final FListenerHolder<WeakReference<Callback>> holder = CALLBACKS.get(activity);
+        if (holder == null)
+            return;
+
+        holder.remove(findReference(holder, callback));
+        if (holder.isEmpty())
+            CALLBACKS.remove(activity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static WeakReference<Callback> findReference(FListenerHolder<WeakReference<Callback>> holder, Callback callback)
+    {
+        for (Object item : holder.getArray())
+        {
+            final WeakReference<Callback> reference = (WeakReference<Callback>) item;
+            if (reference.get() == callback)
+                return reference;
+        }
+        return null;
+    }
+
+    private static void notifyCallbacks(Activity activity, boolean started)
+    {
+        final FListenerHolder<WeakReference<Callback>> holder = CALLBACKS.get(activity);
+        if (holder == null)
+            return;
+
+        final Object[] array = holder.getArray();
+        for (Object item : array)
+        {
+            @SuppressWarnings("unchecked")
+            final WeakReference<Callback> reference = (WeakReference<Callback>) item;
+            final Callback callback = reference.get();
+            if (callback == null)
+                holder.remove(reference);
+            else
+                callback.onHostVisibilityChanged(started);
+        }
+
+        if (holder.isEmpty())
+            CALLBACKS.remove(activity);
+    }
+
+    private static final Application.ActivityLifecycleCallbacks ACTIVITY_CALLBACKS = new Application.ActivityLifecycleCallbacks()
+    {
+        @Override
+        public void onActivityCreated(Activity activity, Bundle savedInstanceState)
+        {
+        }
+
+        @Override
+        public void onActivityStarted(Activity activity)
+        {
+            notifyCallbacks(activity, true);
+        }
+
+        @Override
+        public void onActivityResumed(Activity activity)
+        {
+        }
+
+        @Override
+        public void onActivityPaused(Activity activity)
+        {
+        }
+
+        @Override
+        public void onActivityStopped(Activity activity)
+        {
+            notifyCallbacks(activity, false);
+        }
+
+        @Override
+        public void onActivitySaveInstanceState(Activity activity, Bundle outState)
+        {
+        }
+
+        @Override
+        public void onActivityDestroyed(Activity activity)
+        {
+            CALLBACKS.remove(activity);
+        }
+    };
+
+    public interface Callback
+    {
+        /**
+         * Activity开始或者停止
+         *
+         * @param started true-开始，false-停止
+         */
+        void onHostVisibilityChanged(boolean started);
+    }
+}
@@ -0,0 +1,318 @@
+package com.sd.lib.viewanim;
+
+import android.os.Build;
+import android.view.Choreographer;
+import android.view.Display;
+import android.view.View;
+
+/**
+ * 动画卡顿监测，动画执行期间通过{@link Choreographer.FrameCallback}记录每一帧的间隔，
+ * 动画结束后回调{@link Report}
+ * <p>
+ * 丢帧按View所在屏幕的刷新率计算，View附加到窗口的时候更新
+ * <p>
+ * 可以通过{@link FVisibilityAnimator#setJankMonitor(FJankMonitor)}单独设置，或者通过{@link #setDefault(FJankMonitor)}全局设置
+ */
+public class FJankMonitor
+{
+    private static final long DEFAULT_FRAME_INTERVAL_NANOS = 1000000000L / 60;
+
+    private static FJankMonitor sDefault;
+
+    private final Callback mCallback;
+    private long mFrameIntervalNanos;
+
+    public FJankMonitor(Callback callback)
+    {
+        if (callback == null)
+            throw new NullPointerException("callback is null");
+        mCallback = callback;
+    }
+
+    /**
+     * 设置全局的监测，{@link FVisibilityAnimator}未单独设置的时候使用
+     *
+     * @param monitor
+     */
+    public static void setDefault(FJankMonitor monitor)
+    {
+        sDefault = monitor;
+    }
+
+    /**
+     * 返回全局的监测
+     *
+     * @return
+     */
+    public static FJankMonitor getDefault()
+    {
+        return sDefault;
+    }
+
+    /**
+     * 设置固定的每一帧时间预算（纳秒），默认0，跟随View所在屏幕的刷新率
+     *
+     * @param nanos 0-跟随屏幕刷新率
+     */
+    public void setFrameIntervalNanos(long nanos)
+    {
+        if (nanos < 0)
+            throw new IllegalArgumentException("nanos must be >= 0");
+        mFrameIntervalNanos = nanos;
+    }
+
+    /**
+     * 返回固定的每一帧时间预算（纳秒），0表示跟随屏幕刷新率
+     *
+     * @return
+     */
+    public long getFrameIntervalNanos()
+    {
+        return mFrameIntervalNanos;
+    }
+
+    Tracker newTracker(View view)
+    {
+        final Tracker tracker = new Tracker();
+        tracker.updateFrameInterval(view);
+        return tracker;
+    }
+
+    /**
+     * 返回View所在屏幕每一帧的间隔（纳秒），未附加到窗口或者获取不到刷新率的时候按60Hz
+     *
+     * @param view
+     * @return
+     */
+    static long getDisplayFrameIntervalNanos(View view)
+    {
+        if (view == null || Build.VERSION.SDK_INT < 17)
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+
+        final Display display = view.getDisplay();
+        if (display == null)
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+
+        final float refreshRate = display.getRefreshRate();
+        if (refreshRate < 1.0f)
+            return DEFAULT_FRAME_INTERVAL_NANOS;
+
+        return (long) (1000000000L / refreshRate);
+    }
+
+    /**
+     * 记录一个动画的帧间隔，每个{@link FVisibilityAnimator}一个，可以重复使用
+     */
+    final class Tracker implements Choreographer.FrameCallback
+    {
+        private boolean mTracking;
+        private long mDisplayFrameIntervalNanos = DEFAULT_FRAME_INTERVAL_NANOS;
+
+        private View mView;
+        private String mCreatorName;
+        private boolean mShow;
+
+        private long mStartNanos;
+        private long mLastFrameNanos;
+        private int mFrameCount;
+        private int mDroppedFrames;
+        private long mWorstFrameNanos;
+
+        public FJankMonitor getMonitor()
+        {
+            return FJankMonitor.this;
+        }
+
+        /**
+         * 按View所在屏幕的刷新率更新每一帧的间隔
+         */
+        public void updateFrameInterval(View view)
+        {
+            mDisplayFrameIntervalNanos = getDisplayFrameIntervalNanos(view);
+        }
+
+        /**
+         * 开始记录
+         */
+        public void start(View view, Object creator, boolean show)
+        {
+            if (mTracking)
+                Choreographer.getInstance().removeFrameCallback(this);
+
+            mTracking = true;
+            mView = view;
+            mCreatorName = creator == null ? null : creator.getClass().getName();
+            mShow = show;
+
+            mStartNanos = System.nanoTime();
+            mLastFrameNanos = 0;
+            mFrameCount = 0;
+            mDroppedFrames = 0;
+            mWorstFrameNanos = 0;
+
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        /**
+         * 停止记录并回调结果
+         */
+        public void stop()
+        {
+            if (!mTracking)
+                return;
+
+            mTracking = false;
+            Choreographer.getInstance().removeFrameCallback(this);
+
+            final View view = mView;
+            mView = null;
+
+            final Report report = new Report(view == null ? View.NO_ID : view.getId(), mCreatorName, mShow,
+                    (System.nanoTime() - mStartNanos) / 1000000L,
+                    mFrameCount, mDroppedFrames, mWorstFrameNanos / 1000000.0f);
+            mCallback.onReport(report);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos)
+        {
+            if (!mTracking)
+                return;
+
+            final long lastFrameNanos = mLastFrameNanos;
+            mLastFrameNanos = frameTimeNanos;
+            mFrameCount++;
+
+            if (lastFrameNanos > 0)
+            {
+                final long interval = frameTimeNanos - lastFrameNanos;
+                if (interval > mWorstFrameNanos)
+                    mWorstFrameNanos = interval;
+
+                // 超过预算一半以上才算丢帧，避免帧时间抖动导致误判
+                final long budget = mFrameIntervalNanos > 0 ? mFrameIntervalNanos : mDisplayFrameIntervalNanos;
+                if (interval > budget + budget / 2)
+                    mDroppedFrames += (int) ((interval + budget / 2) / budget) - 1;
+            }
+
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * 一个动画的卡顿报告
+     */
+    public static final class Report
+    {
+        private final int mViewId;
+        private final String mCreatorName;
+        private final boolean mShow;
+        private final long mDuration;
+        private final int mFrameCount;
+        private final int mDroppedFrames;
+        private final float mWorstFrame;
+
+        Report(int viewId, String creatorName, boolean show, long duration, int frameCount, int droppedFrames, float worstFrame)
+        {
+            mViewId = viewId;
+            mCreatorName = creatorName;
+            mShow = show;
+            mDuration = duration;
+            mFrameCount = frameCount;
+            mDroppedFrames = droppedFrames;
+            mWorstFrame = worstFrame;
+        }
+
+        /**
+         * 动画View的id
+         *
+         * @return
+         */
+        public int getViewId()
+        {
+            return mViewId;
+        }
+
+        /**
+         * 动画创建者的类名
+         *
+         * @return
+         */
+        public String getCreatorName()
+        {
+            return mCreatorName;
+        }
+
+        /**
+         * true-显示，false-隐藏
+         *
+         * @return
+         */
+        public boolean isShow()
+        {
+            return mShow;
+        }
+
+        /**
+         * 动画实际执行的时长（毫秒）
+         *
+         * @return
+         */
+        public long getDuration()
+        {
+            return mDuration;
+        }
+
+        /**
+         * 动画期间的帧数
+         *
+         * @return
+         */
+        public int getFrameCount()
+        {
+            return mFrameCount;
+        }
+
+        /**
+         * 丢帧数量
+         *
+         * @return
+         */
+        public int getDroppedFrames()
+        {
+            return mDroppedFrames;
+        }
+
+        /**
+         * 最长的帧间隔（毫秒）
+         *
+         * @return
+         */
+        public float getWorstFrame()
+        {
+            return mWorstFrame;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "view=0x" + Integer.toHexString(mViewId)
+                    + " creator=" + mCreatorName
+                    + " " + (mShow ? "show" : "hide")
+                    + " duration=" + mDuration + "ms"
+                    + " frames=" + mFrameCount
+                    + " dropped=" + mDroppedFrames
+                    + " worst=" + mWorstFrame + "ms";
+        }
+    }
+
+    public interface Callback
+    {
+        /**
+         * 动画结束后回调，在主线程
+         *
+         * @param report
+         */
+        void onReport(Report report);
+    }
+}
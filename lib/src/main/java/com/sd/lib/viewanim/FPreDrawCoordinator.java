@@ -0,0 +1,270 @@
+package com.sd.lib.viewanim;
+
+import android.os.Build;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * 全局共享的检查协调者，每个窗口只注册一个{@link ViewTreeObserver.OnPreDrawListener}，
+ * 在绘制之前一次性检查该窗口所有等待中的{@link FViewSizeChecker}，布局完成的同一帧就可以回调
+ * <p>
+ * 只能在主线程使用
+ */
+final class FPreDrawCoordinator
+{
+    private static FPreDrawCoordinator sInstance;
+
+    /** 根View对应的窗口队列 */
+    private final Map<View, WindowQueue> mWindowQueues = new WeakHashMap<>();
+    /** 还未添加到窗口上的检查 */
+    private final List<FViewSizeChecker> mDetachedCheckers = new ArrayList<>();
+
+    private FPreDrawCoordinator()
+    {
+    }
+
+    public static FPreDrawCoordinator getInstance()
+    {
+        if (sInstance == null)
+            sInstance = new FPreDrawCoordinator();
+        return sInstance;
+    }
+
+    /**
+     * 注册检查
+     *
+     * @param checker
+     */
+    public void register(FViewSizeChecker checker)
+    {
+        unregister(checker);
+
+        final View anchor = checker.getAnchorView();
+        if (anchor == null)
+            return;
+
+        if (isAttached(anchor))
+        {
+            getWindowQueue(anchor.getRootView()).add(checker);
+        } else
+        {
+            addDetached(checker);
+        }
+    }
+
+    /**
+     * 取消注册
+     *
+     * @param checker
+     */
+    public void unregister(FViewSizeChecker checker)
+    {
+        final WindowQueue queue = checker.mWindowQueue;
+        if (queue != null)
+        {
+            queue.remove(checker);
+            return;
+        }
+
+        if (mDetachedCheckers.remove(checker))
+        {
+            final View anchor = checker.getAnchorView();
+            if (anchor != null && !hasDetached(anchor))
+                anchor.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        }
+    }
+
+    /**
+     * 返回等待中的检查数量
+     *
+     * @return
+     */
+    int getPendingCount()
+    {
+        int count = mDetachedCheckers.size();
+        for (WindowQueue item : mWindowQueues.values())
+        {
+            count += item.mCheckers.size();
+        }
+        return count;
+    }
+
+    /**
+     * 返回已经注册的{@link ViewTreeObserver.OnPreDrawListener}数量
+     *
+     * @return
+     */
+    int getObserverCount()
+    {
+        int count = 0;
+        for (WindowQueue item : mWindowQueues.values())
+        {
+            if (item.mObserver != null)
+                count++;
+        }
+        return count;
+    }
+
+    private WindowQueue getWindowQueue(View rootView)
+    {
+        WindowQueue queue = mWindowQueues.get(rootView);
+        if (queue == null)
+        {
+            queue = new WindowQueue(rootView);
+            mWindowQueues.put(rootView, queue);
+        }
+        return queue;
+    }
+
+    private void addDetached(FViewSizeChecker checker)
+    {
+        final View anchor = checker.getAnchorView();
+        if (!hasDetached(anchor))
+            anchor.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+        mDetachedCheckers.add(checker);
+    }
+
+    private boolean hasDetached(View anchor)
+    {
+        for (int i = 0; i < mDetachedCheckers.size(); i++)
+        {
+            if (mDetachedCheckers.get(i).getAnchorView() == anchor)
+                return true;
+        }
+        return false;
+    }
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener()
+    {
+        @Override
+        public void onViewAttachedToWindow(View v)
+        {
+            v.removeOnAttachStateChangeListener(this);
+
+            final WindowQueue queue = getWindowQueue(v.getRootView());
+            for (int i = mDetachedCheckers.size() - 1; i >= 0; i--)
+            {
+                final FViewSizeChecker checker = mDetachedCheckers.get(i);
+                if (checker.getAnchorView() == v)
+                {
+                    mDetachedCheckers.remove(i);
+                    queue.add(checker);
+                }
+            }
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v)
+        {
+        }
+    };
+
+    final class WindowQueue implements ViewTreeObserver.OnPreDrawListener
+    {
+        private final WeakReference<View> mRootView;
+        private final List<FViewSizeChecker> mCheckers = new ArrayList<>();
+
+        private ViewTreeObserver mObserver;
+        private FViewSizeChecker[] mDispatchArray = new FViewSizeChecker[4];
+
+        public WindowQueue(View rootView)
+        {
+            mRootView = new WeakReference<>(rootView);
+        }
+
+        public void add(FViewSizeChecker checker)
+        {
+            final View rootView = mRootView.get();
+            if (rootView == null)
+            {
+                addDetached(checker);
+                return;
+            }
+
+            checker.mWindowQueue = this;
+            mCheckers.add(checker);
+
+            if (mObserver == null)
+            {
+                mObserver = rootView.getViewTreeObserver();
+                mObserver.addOnPreDrawListener(this);
+            }
+
+            // 保证下一帧会执行绘制
+            rootView.invalidate();
+        }
+
+        public void remove(FViewSizeChecker checker)
+        {
+            if (checker.mWindowQueue != this)
+                return;
+
+            checker.mWindowQueue = null;
+            mCheckers.remove(checker);
+
+            if (mCheckers.isEmpty())
+                unregisterObserver();
+        }
+
+        private void unregisterObserver()
+        {
+            final ViewTreeObserver observer = mObserver;
+            if (observer != null)
+            {
+                mObserver = null;
+                if (observer.isAlive())
+                    observer.removeOnPreDrawListener(this);
+            }
+        }
+
+        @Override
+        public boolean onPreDraw()
+        {
+            final int size = mCheckers.size();
+            if (mDispatchArray.length < size)
+                mDispatchArray = new FViewSizeChecker[size];
+
+            final FViewSizeChecker[] array = mDispatchArray;
+            mCheckers.toArray(array);
+
+            for (int i = 0; i < size; i++)
+            {
+                final FViewSizeChecker checker = array[i];
+                array[i] = null;
+
+                // 在回调中可能已经被取消了
+                if (checker.mWindowQueue != this)
+                    continue;
+
+                final View anchor = checker.getAnchorView();
+                if (!isAttached(anchor))
+                {
+                    remove(checker);
+                    addDetached(checker);
+                    continue;
+                }
+
+                if (checker.isReady())
+                {
+                    remove(checker);
+                    checker.notifyReady();
+                }
+            }
+            return true;
+        }
+    }
+
+    static boolean isAttached(View view)
+    {
+        if (Build.VERSION.SDK_INT >= 19)
+            return view.isAttachedToWindow();
+        else
+            return view.getWindowToken() != null;
+    }
+}
@@ -1,21 +1,27 @@
 package com.sd.lib.viewanim;
 
-import android.os.Build;
-import android.os.Handler;
-import android.os.Looper;
 import android.view.View;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * 检查View是否准备好（被添加到窗口上，并且宽高都大于0）
+ * <p>
+ * 检查统一由{@link FPreDrawCoordinator}在绘制之前执行
+ */
 class FViewSizeChecker
 {
-    private final Handler mHandler = new Handler(Looper.getMainLooper());
-    private final Map<View, String> mViewHolder = new ConcurrentHashMap<>();
+    private final List<View> mViewHolder = new ArrayList<>(1);
+
+    private static final String TRACE_WAIT = "FViewSizeChecker#wait";
 
     private boolean mIsDestroyed = true;
-    private long mCheckDelay;
     private Callback mCallback;
+    private boolean mTraceWaiting;
+
+    /** 由{@link FPreDrawCoordinator}维护 */
+    FPreDrawCoordinator.WindowQueue mWindowQueue;
 
     /**
      * 是否处于销毁状态
@@ -27,18 +33,6 @@ class FViewSizeChecker
         return mIsDestroyed;
     }
 
-    /**
-     * 设置延迟多少毫秒开始检查
-     *
-     * @param delay
-     */
-    public void setCheckDelay(long delay)
-    {
-        if (delay < 0)
-            delay = 0;
-        mCheckDelay = delay;
-    }
-
     /**
      * 检查View
      *
@@ -48,7 +42,9 @@ class FViewSizeChecker
      */
     public boolean check(View view, Callback callback)
     {
-        return check(new View[]{view}, callback);
+        destroy();
+        addView(view);
+        return startCheck(callback);
     }
 
     /**
@@ -67,21 +63,30 @@ class FViewSizeChecker
 
         for (View view : views)
         {
-            if (view == null)
-                continue;
+            addView(view);
+        }
+        return startCheck(callback);
+    }
 
-            if (mViewHolder.containsKey(view))
-                continue;
+    private void addView(View view)
+    {
+        if (view == null)
+            return;
 
-            mViewHolder.put(view, "");
-            view.addOnLayoutChangeListener(mOnLayoutChangeListener);
-        }
+        if (mViewHolder.contains(view))
+            return;
+
+        mViewHolder.add(view);
+    }
 
+    private boolean startCheck(Callback callback)
+    {
         if (mViewHolder.size() > 0)
         {
             mIsDestroyed = false;
             mCallback = callback;
-            startCheckSize();
+            mTraceWaiting = FAnimatorTrace.beginAsyncSection(TRACE_WAIT, System.identityHashCode(this));
+            FPreDrawCoordinator.getInstance().register(this);
             return true;
         } else
         {
@@ -89,55 +94,46 @@ class FViewSizeChecker
         }
     }
 
-    private final View.OnLayoutChangeListener mOnLayoutChangeListener = new View.OnLayoutChangeListener()
-    {
-        @Override
-        public void onLayoutChange(View v, int left, int top, int right, int bottom, int oldLeft, int oldTop, int oldRight, int oldBottom)
-        {
-            startCheckSize();
-        }
-    };
-
-    private void startCheckSize()
+    /**
+     * 返回用于确定窗口的View
+     *
+     * @return
+     */
+    View getAnchorView()
     {
-        stopCheckSize();
-        mHandler.postDelayed(mCheckSizeRunnable, mCheckDelay);
+        return mViewHolder.isEmpty() ? null : mViewHolder.get(0);
     }
 
-    private void stopCheckSize()
+    /**
+     * 所有View是否都准备好
+     *
+     * @return
+     */
+    boolean isReady()
     {
-        mHandler.removeCallbacks(mCheckSizeRunnable);
+        for (int i = 0; i < mViewHolder.size(); i++)
+        {
+            if (!checkReady(mViewHolder.get(i)))
+                return false;
+        }
+        return true;
     }
 
-    private final Runnable mCheckSizeRunnable = new Runnable()
+    /**
+     * 由{@link FPreDrawCoordinator}在准备好之后调用
+     */
+    void notifyReady()
     {
-        @Override
-        public void run()
-        {
-            if (mIsDestroyed)
-                return;
-
-            boolean isReady = true;
-            for (View view : mViewHolder.keySet())
-            {
-                if (!checkReady(view))
-                {
-                    isReady = false;
-                    break;
-                }
-            }
-
-            if (isReady)
-            {
-                final Callback callback = mCallback;
-                destroy();
-
-                onSizeReady();
-                if (callback != null)
-                    callback.onSizeReady();
-            }
-        }
-    };
+        if (mIsDestroyed)
+            return;
+
+        final Callback callback = mCallback;
+        destroy();
+
+        onSizeReady();
+        if (callback != null)
+            callback.onSizeReady();
+    }
 
     /**
      * 检查view是否准备好
@@ -147,7 +143,7 @@ class FViewSizeChecker
      */
     public boolean checkReady(View view)
     {
-        return view.getWidth() > 0 && view.getHeight() > 0 && isAttached(view);
+        return view.getWidth() > 0 && view.getHeight() > 0 && FPreDrawCoordinator.isAttached(view);
     }
 
     protected void onSizeReady()
@@ -162,29 +158,17 @@ class FViewSizeChecker
         if (mIsDestroyed)
             return;
 
-        mCallback = null;
-        stopCheckSize();
-
-        if (mViewHolder.size() > 0)
+        FPreDrawCoordinator.getInstance().unregister(this);
+        if (mTraceWaiting)
         {
-            for (View view : mViewHolder.keySet())
-            {
-                view.removeOnLayoutChangeListener(mOnLayoutChangeListener);
-            }
-            mViewHolder.clear();
+            mTraceWaiting = false;
+            FAnimatorTrace.endAsyncSection(TRACE_WAIT, System.identityHashCode(this));
         }
-
+        mCallback = null;
+        mViewHolder.clear();
         mIsDestroyed = true;
     }
 
-    private static boolean isAttached(View view)
-    {
-        if (Build.VERSION.SDK_INT >= 19)
-            return view.isAttachedToWindow();
-        else
-            return view.getWindowToken() != null;
-    }
-
     public interface Callback
     {
         void onSizeReady();
@@ -2,23 +2,106 @@ package com.sd.lib.viewanim;
 
 import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
+import android.app.Activity;
+import android.graphics.Rect;
+import android.os.Build;
+import android.view.Choreographer;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.ViewParent;
 
 import com.sd.lib.viewanim.creator.AnimatorCreator;
 import com.sd.lib.viewanim.creator.EmptyCreator;
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.ChoreographerAnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.CompiledCreator;
+import com.sd.lib.viewanim.creator.obj.SpringAnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.ViewPropertyAnimatorCreator;
+import com.sd.lib.viewanim.property.FViewProperties;
+import com.sd.lib.viewanim.property.ViewProperty;
 
 import java.util.Map;
 import java.util.WeakHashMap;
 
 public class FVisibilityAnimator
 {
+    /**
+     * 使用创建者创建的动画执行
+     */
+    public static final int ENGINE_ANIMATOR = 0;
+    /**
+     * 使用{@link View#animate()}执行，只支持{@link com.sd.lib.viewanim.property.ViewProperty}中的属性并且各个属性的插值器相同，不满足的时候使用{@link #ENGINE_ANIMATOR}
+     */
+    public static final int ENGINE_VIEW_PROPERTY = 1;
+    /**
+     * 使用{@link FChoreographerEngine}执行，进程内所有动画由同一个帧回调驱动，创建者不支持合并编译的时候使用{@link #ENGINE_ANIMATOR}
+     */
+    public static final int ENGINE_CHOREOGRAPHER = 2;
+
+    /**
+     * 动画期间不修改View的绘制层
+     */
+    public static final int LAYER_POLICY_NONE = 0;
+    /**
+     * 动画期间根据动画的属性决定是否开启硬件层：
+     * <p>
+     * 缩放和旋转开启硬件层；透明度只有在{@link View#hasOverlappingRendering()}为true的时候才开启，否则直接绘制更省；只有平移不开启
+     */
+    public static final int LAYER_POLICY_HARDWARE = 1;
+    /**
+     * 平移动画期间去掉View的阴影（elevation），动画结束后还原
+     */
+    public static final int LAYER_POLICY_DROP_ELEVATION = 1 << 1;
+
+    private static final String TRACE_START_SHOW = "FVisibilityAnimator#startShow";
+    private static final String TRACE_START_HIDE = "FVisibilityAnimator#startHide";
+
+    /** 动画执行期间检查是否在屏幕上的间隔 */
+    private static final long CULL_CHECK_INTERVAL = 100;
+
     private final View mView;
     private final FVisibilityAnimatorHandler mAnimatorHandler = new FVisibilityAnimatorHandler();
     private final FViewSizeChecker mViewSizeChecker = new FViewSizeChecker();
 
     private AnimatorCreator mAnimatorCreator;
+    private AnimatorCreator mEngineCreator;
+    private int mAnimatorEngine = ENGINE_ANIMATOR;
     private int mHideVisibility = View.INVISIBLE;
     private boolean mResetAfterHideAnimator = true;
+    private boolean mReuseAnimator;
+    private boolean mWithLayer;
+    private boolean mPredictiveLayout;
+    private boolean mReverseOnInterrupt;
+    /** 隐藏动画是否从完全显示的状态开始，只有这种情况反转后才会回到完全显示 */
+    private boolean mHideReversible;
+    private boolean mReversing;
+    private int mPredictedLeft;
+    private int mPredictedTop;
+    private int mPredictedWidth;
+    private int mPredictedHeight;
+
+    private boolean mPauseWhenInvisible = true;
+    private boolean mWindowVisible = true;
+    private boolean mHostStarted = true;
+    private boolean mPaused;
+    private Activity mHostActivity;
+
+    private boolean mCullOffscreen;
+    private Rect mCullRect;
+
+    private int mLayerPolicy = LAYER_POLICY_NONE;
+    private int mPropertyFlags = -1;
+    private LayerState mLayerState;
+
+    private FJankMonitor mJankMonitor;
+    private FJankMonitor.Tracker mJankTracker;
+
+    private long mShowRequestNanos;
+    private long mAnimatorStartNanos;
+
+    private String mTraceShowName;
+    private String mTraceHideName;
+    private String mTraceRunningName;
 
     private Map<View, String> mFollowVisibilityViewHolder;
 
@@ -32,6 +115,31 @@ public class FVisibilityAnimator
 
         mAnimatorHandler.setShowAnimatorListener(mShowAnimatorListener);
         mAnimatorHandler.setHideAnimatorListener(mHideAnimatorListener);
+
+        if (FPreDrawCoordinator.isAttached(view))
+            onAttached();
+    }
+
+    /**
+     * 返回View对应的实例，如果没有则创建并保存在View上，之后每次返回同一个实例
+     * <p>
+     * 适合在列表中绑定数据的时候调用，不会重复创建对象
+     *
+     * @param view
+     * @return
+     */
+    public static FVisibilityAnimator of(View view)
+    {
+        if (view == null)
+            throw new NullPointerException("view is null");
+
+        final Object tag = view.getTag(R.id.lib_viewanim_visibility_animator);
+        if (tag instanceof FVisibilityAnimator)
+            return (FVisibilityAnimator) tag;
+
+        final FVisibilityAnimator animator = new FVisibilityAnimator(view);
+        view.setTag(R.id.lib_viewanim_visibility_animator, animator);
+        return animator;
     }
 
     /**
@@ -48,7 +156,31 @@ public class FVisibilityAnimator
     {
         if (mAnimatorCreator == null)
             mAnimatorCreator = new EmptyCreator();
-        return mAnimatorCreator;
+
+        if (mAnimatorEngine == ENGINE_ANIMATOR)
+            return mAnimatorCreator;
+
+        if (mEngineCreator == null)
+            mEngineCreator = createEngineCreator(mAnimatorCreator);
+        return mEngineCreator;
+    }
+
+    private AnimatorCreator createEngineCreator(AnimatorCreator creator)
+    {
+        if (creator instanceof EmptyCreator)
+            return creator;
+
+        switch (mAnimatorEngine)
+        {
+            case ENGINE_VIEW_PROPERTY:
+                final ViewPropertyAnimatorCreator viewPropertyCreator = new ViewPropertyAnimatorCreator(creator);
+                viewPropertyCreator.setWithLayer(mWithLayer);
+                return viewPropertyCreator;
+            case ENGINE_CHOREOGRAPHER:
+                return new ChoreographerAnimatorCreator(creator);
+            default:
+                return creator;
+        }
     }
 
     /**
@@ -59,6 +191,44 @@ public class FVisibilityAnimator
     public void setAnimatorCreator(AnimatorCreator creator)
     {
         mAnimatorCreator = creator;
+        mEngineCreator = null;
+        mPropertyFlags = -1;
+        mTraceShowName = null;
+        mTraceHideName = null;
+    }
+
+    /**
+     * 设置动画执行引擎，默认{@link #ENGINE_ANIMATOR}
+     * <p>
+     * {@link #ENGINE_VIEW_PROPERTY}会接管{@link View#animate()}：开始动画的时候取消外部正在执行的{@link View#animate()}，
+     * 动画期间外部不要使用{@link View#animate()}，否则动画会按照预计的时长结束，不再等待回调
+     *
+     * @param engine {@link #ENGINE_ANIMATOR}，{@link #ENGINE_VIEW_PROPERTY}，{@link #ENGINE_CHOREOGRAPHER}
+     */
+    public void setAnimatorEngine(int engine)
+    {
+        if (engine != ENGINE_ANIMATOR && engine != ENGINE_VIEW_PROPERTY && engine != ENGINE_CHOREOGRAPHER)
+            throw new IllegalArgumentException("Illegal engine value");
+
+        if (mAnimatorEngine != engine)
+        {
+            mAnimatorEngine = engine;
+            mEngineCreator = null;
+        }
+    }
+
+    /**
+     * 使用{@link #ENGINE_VIEW_PROPERTY}的时候，动画期间是否开启硬件层，默认false
+     *
+     * @param withLayer
+     */
+    public void setWithLayer(boolean withLayer)
+    {
+        if (mWithLayer != withLayer)
+        {
+            mWithLayer = withLayer;
+            mEngineCreator = null;
+        }
     }
 
     /**
@@ -87,6 +257,126 @@ public class FVisibilityAnimator
         mResetAfterHideAnimator = reset;
     }
 
+    /**
+     * 是否复用动画，默认false
+     * <p>
+     * 复用的时候每个方向只创建一次动画，之后每次执行都在原动画上更新参数，需要创建者实现{@link ReusableAnimatorCreator}
+     *
+     * @param reuse
+     */
+    public void setReuseAnimator(boolean reuse)
+    {
+        mReuseAnimator = reuse;
+    }
+
+    /**
+     * 是否预测布局，默认false
+     * <p>
+     * 开启后，显示的时候如果View已经添加到窗口上并且父容器有宽高，则根据父容器的大小提前测量和布局View，立即开始动画，
+     * 不需要等待下一次布局；真实的布局完成后如果位置或者大小和预测的不一致，则按照真实的布局重新计算动画
+     *
+     * @param predictive
+     */
+    public void setPredictiveLayout(boolean predictive)
+    {
+        mPredictiveLayout = predictive;
+    }
+
+    /**
+     * 显示和隐藏互相打断的时候是否原地反转正在执行的动画，默认false
+     * <p>
+     * 开启后，如果正在执行的动画是{@link android.animation.ValueAnimator}，则把已经执行的时间倒着播放，不创建新的动画，
+     * 反转的瞬间值和速度的大小都是连续的，只有方向相反；如果是{@link SpringAnimatorCreator}创建的动画，则只修改目标值，保留当前的速度；
+     * 否则和未开启一样，取消后从当前的值开始新的动画，{@link android.animation.AnimatorSet}（比如没有合并编译的CombineCreator，
+     * ScaleXYCreator）总是这样处理
+     *
+     * @param reverse
+     */
+    public void setReverseOnInterrupt(boolean reverse)
+    {
+        mReverseOnInterrupt = reverse;
+    }
+
+    /**
+     * 窗口不可见或者所在的Activity停止的时候是否暂停正在执行的动画，默认true
+     * <p>
+     * API 19以上的{@link android.animation.ValueAnimator}和{@link android.animation.AnimatorSet}会暂停，可见后继续执行；
+     * 其他动画直接结束；暂停期间开始的显示和隐藏不执行动画，直接修改可见状态
+     * <p>
+     * Activity的开始和停止会自动监听；窗口的可见状态只在View附加到窗口的时候读取一次，
+     * 之后的变化（例如Dialog或者PopupWindow的窗口被隐藏）需要调用{@link #onWindowVisibilityChanged(int)}通知
+     *
+     * @param pause
+     */
+    public void setPauseWhenInvisible(boolean pause)
+    {
+        mPauseWhenInvisible = pause;
+        updatePauseState();
+    }
+
+    /**
+     * 是否跳过不在屏幕上的View的动画，默认false
+     * <p>
+     * 开启后，开始动画之前检查View是否在屏幕上：所有父容器都可见，并且View的布局区域按照各级父容器裁剪之后不为空；
+     * 如果不在屏幕上，则不创建动画，直接修改为结束的状态，外部添加的监听会收到开始和结束，动画参数是一个不会执行的占位动画；
+     * 动画执行期间也会定时检查，移出屏幕之后直接结束动画
+     * <p>
+     * 检查的是布局区域，不包括动画修改的平移和缩放，从屏幕外滑入的动画不会被跳过；被其他View遮挡的情况不检查
+     *
+     * @param cull
+     */
+    public void setCullOffscreen(boolean cull)
+    {
+        mCullOffscreen = cull;
+        if (!cull)
+            mView.removeCallbacks(mCullCheckRunnable);
+    }
+
+    /**
+     * 通知窗口的可见状态变化，可以在自定义View的{@link View#onWindowVisibilityChanged(int)}中调用
+     * <p>
+     * 所在Activity的开始和停止会自动监听，不需要调用这个方法；窗口的可见状态只在附加到窗口的时候读取，之后的变化不会自动监听
+     *
+     * @param visibility
+     */
+    public void onWindowVisibilityChanged(int visibility)
+    {
+        mWindowVisible = visibility == View.VISIBLE;
+        updatePauseState();
+    }
+
+    /**
+     * 动画是否因为不可见而暂停
+     *
+     * @return
+     */
+    public boolean isPaused()
+    {
+        return mPaused;
+    }
+
+    /**
+     * 设置动画期间的绘制层策略，默认{@link #LAYER_POLICY_NONE}
+     * <p>
+     * 显示或者隐藏动画开始的时候根据动画创建者会修改的属性应用策略，动画结束后还原
+     *
+     * @param policy {@link #LAYER_POLICY_NONE}，{@link #LAYER_POLICY_HARDWARE}，{@link #LAYER_POLICY_DROP_ELEVATION}的组合
+     */
+    public void setLayerPolicy(int policy)
+    {
+        mLayerPolicy = policy;
+    }
+
+    /**
+     * 设置卡顿监测，为null则使用{@link FJankMonitor#getDefault()}
+     *
+     * @param monitor
+     */
+    public void setJankMonitor(FJankMonitor monitor)
+    {
+        mJankMonitor = monitor;
+    }
+
     /**
      * 添加跟随可见状态View
      *
@@ -166,16 +456,43 @@ public class FVisibilityAnimator
      * 开始显示
      */
     public void startShow()
+    {
+        final boolean trace = FAnimatorTrace.beginSection(TRACE_START_SHOW);
+        try
+        {
+            startShowInternal();
+        } finally
+        {
+            if (trace)
+                FAnimatorTrace.endSection();
+        }
+    }
+
+    private void startShowInternal()
     {
         if (isShowAnimatorStarted())
             return;
 
+        if (mReverseOnInterrupt && !mPaused && isHideAnimatorStarted())
+        {
+            if (reverseAnimator(false))
+                return;
+        }
+
         cancelHideAnimator();
 
         final View view = getView();
         if (view.getVisibility() == View.VISIBLE)
             return;
 
+        if (!FAnimatorPolicy.isAnimatorEnabled(view.getContext()))
+        {
+            // 系统关闭了动画，不等待布局，直接显示
+            destroySizeChecker();
+            skipShow();
+            return;
+        }
+
         if (view.getVisibility() == View.GONE)
             view.setVisibility(View.INVISIBLE);
 
@@ -185,24 +502,143 @@ public class FVisibilityAnimator
             return;
         }
 
-        mViewSizeChecker.check(view, new FViewSizeChecker.Callback()
+        mShowRequestNanos = FVisibilityMetrics.start();
+
+        if (mPredictiveLayout && predictLayout(view))
+        {
+            // 立即开始动画，真实的布局完成后再检查预测是否正确
+            mShowSizeCallback.onSizeReady();
+            if (isShowAnimatorStarted())
+                mViewSizeChecker.check(view, mVerifySizeCallback);
+            return;
+        }
+
+        mViewSizeChecker.check(view, mShowSizeCallback);
+    }
+
+    /**
+     * 根据父容器当前的大小提前测量和布局View
+     *
+     * @param view
+     * @return true-预测成功，View已经有了宽高
+     */
+    private boolean predictLayout(View view)
+    {
+        if (!FPreDrawCoordinator.isAttached(view))
+            return false;
+
+        final ViewParent parent = view.getParent();
+        if (!(parent instanceof ViewGroup))
+            return false;
+
+        final ViewGroup group = (ViewGroup) parent;
+        final int parentWidth = group.getWidth();
+        final int parentHeight = group.getHeight();
+        if (parentWidth <= 0 || parentHeight <= 0)
+            return false;
+
+        final ViewGroup.LayoutParams params = view.getLayoutParams();
+        if (params == null)
+            return false;
+
+        int marginLeft = 0;
+        int marginTop = 0;
+        int marginRight = 0;
+        int marginBottom = 0;
+        if (params instanceof ViewGroup.MarginLayoutParams)
+        {
+            final ViewGroup.MarginLayoutParams marginParams = (ViewGroup.MarginLayoutParams) params;
+            marginLeft = marginParams.leftMargin;
+            marginTop = marginParams.topMargin;
+            marginRight = marginParams.rightMargin;
+            marginBottom = marginParams.bottomMargin;
+        }
+
+        final int widthSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(parentWidth, View.MeasureSpec.EXACTLY),
+                group.getPaddingLeft() + group.getPaddingRight() + marginLeft + marginRight, params.width);
+        final int heightSpec = ViewGroup.getChildMeasureSpec(View.MeasureSpec.makeMeasureSpec(parentHeight, View.MeasureSpec.EXACTLY),
+                group.getPaddingTop() + group.getPaddingBottom() + marginTop + marginBottom, params.height);
+        view.measure(widthSpec, heightSpec);
+
+        final int width = view.getMeasuredWidth();
+        final int height = view.getMeasuredHeight();
+        if (width <= 0 || height <= 0)
+            return false;
+
+        // 位置由父容器决定，无法预测；之前布局过则使用之前的位置，否则放在父容器的左上角
+        int left = view.getLeft();
+        int top = view.getTop();
+        if (view.getRight() <= left && view.getBottom() <= top)
+        {
+            left = group.getPaddingLeft() + marginLeft;
+            top = group.getPaddingTop() + marginTop;
+        }
+        view.layout(left, top, left + width, top + height);
+
+        mPredictedLeft = left;
+        mPredictedTop = top;
+        mPredictedWidth = width;
+        mPredictedHeight = height;
+        return true;
+    }
+
+    /**
+     * 真实的布局完成后检查预测的位置和大小，如果不一致则按照真实的布局重新计算动画
+     * <p>
+     * 位置由父容器决定（gravity，RTL等），和父容器相关的动画依赖位置，所以位置不一致也要重新计算
+     */
+    private final FViewSizeChecker.Callback mVerifySizeCallback = new FViewSizeChecker.Callback()
+    {
+        @Override
+        public void onSizeReady()
         {
-            @Override
-            public void onSizeReady()
+            final View view = getView();
+            if (view.getLeft() == mPredictedLeft && view.getTop() == mPredictedTop
+                    && view.getWidth() == mPredictedWidth && view.getHeight() == mPredictedHeight)
+                return;
+
+            final Animator animator = mAnimatorHandler.getShowAnimator();
+            if (animator == null || !animator.isStarted())
+                return;
+
+            final AnimatorCreator creator = getAnimatorCreator();
+            if (creator instanceof ReusableAnimatorCreator && ((ReusableAnimatorCreator) creator).updateAnimator(true, view, animator))
+                return;
+
+            // 不支持更新，重新开始显示动画
+            cancelShowAnimator();
+            mShowSizeCallback.onSizeReady();
+        }
+    };
+
+    private final FViewSizeChecker.Callback mShowSizeCallback = new FViewSizeChecker.Callback()
+    {
+        @Override
+        public void onSizeReady()
+        {
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_SIZE_READY, mShowRequestNanos);
+            mShowRequestNanos = 0;
+
+            if (!mPaused && isCulled())
             {
-                final Animator animator = getAnimatorCreator().createAnimator(true, view);
-                if (animator != null)
-                {
-                    cancelHideAnimator();
-                    mAnimatorHandler.setShowAnimator(animator);
-                    mAnimatorHandler.startShowAnimator();
-                } else
-                {
-                    showView();
-                }
+                cancelHideAnimator();
+                skipShow();
+                return;
             }
-        });
-    }
+
+            // 暂停期间不可见，直接显示
+            final Animator animator = mPaused ? null : getAnimator(true);
+            if (animator != null)
+            {
+                cancelHideAnimator();
+                mAnimatorHandler.setShowAnimator(animator);
+                mAnimatorHandler.startShowAnimator();
+            } else
+            {
+                showView();
+            }
+        }
+    };
 
     /**
      * 显示动画是否已经开始
@@ -231,10 +667,34 @@ public class FVisibilityAnimator
      * @return true-动画被成功发起
      */
     public boolean startHide()
+    {
+        final boolean trace = FAnimatorTrace.beginSection(TRACE_START_HIDE);
+        try
+        {
+            return startHideInternal();
+        } finally
+        {
+            if (trace)
+                FAnimatorTrace.endSection();
+        }
+    }
+
+    private boolean startHideInternal()
     {
         if (isHideAnimatorStarted())
             return true;
 
+        final boolean interrupted = isShowAnimatorStarted();
+        if (interrupted && mReverseOnInterrupt && !mPaused)
+        {
+            if (reverseAnimator(true))
+            {
+                destroySizeChecker();
+                mHideReversible = true;
+                return true;
+            }
+        }
+
         cancelShowAnimator();
 
         final View view = getView();
@@ -245,6 +705,13 @@ public class FVisibilityAnimator
             return false;
         }
 
+        if (!FAnimatorPolicy.isAnimatorEnabled(view.getContext()))
+        {
+            // 系统关闭了动画，直接隐藏
+            skipHide();
+            return false;
+        }
+
         if (!mViewSizeChecker.checkReady(view))
         {
             // 如果未准备好，不执行动画
@@ -252,11 +719,26 @@ public class FVisibilityAnimator
             return false;
         }
 
-        final Animator animator = getAnimatorCreator().createAnimator(false, view);
+        if (mPaused)
+        {
+            // 暂停期间不可见，不执行动画
+            hideView();
+            return false;
+        }
+
+        if (isCulled())
+        {
+            skipHide();
+            return false;
+        }
+
+        final Animator animator = getAnimator(false);
         if (animator != null)
         {
             cancelShowAnimator();
             mAnimatorHandler.setHideAnimator(animator);
+            // 打断显示的时候从当前的值开始隐藏，反转后回不到完全显示的状态
+            mHideReversible = !interrupted;
             return mAnimatorHandler.startHideAnimator();
         } else
         {
@@ -265,6 +747,59 @@ public class FVisibilityAnimator
         }
     }
 
+    /**
+     * 取消正在执行的动画，立即切换到显示或者隐藏的状态，常用于列表中复用View的时候
+     *
+     * @param show true-显示，false-隐藏
+     */
+    public void jumpTo(boolean show)
+    {
+        cancelShowAnimator();
+        cancelHideAnimator();
+
+        if (show)
+        {
+            FViewProperties.reset(mView);
+            showView();
+        } else
+        {
+            hideView();
+            if (mResetAfterHideAnimator)
+                FViewProperties.reset(mView);
+        }
+    }
+
+    /**
+     * 原地反转正在执行的动画，弹簧动画只修改目标值
+     *
+     * @param show true-把显示动画反转为隐藏，false-把隐藏动画反转为显示
+     * @return
+     */
+    private boolean reverseAnimator(boolean show)
+    {
+        final Animator animator = show ? mAnimatorHandler.getShowAnimator() : mAnimatorHandler.getHideAnimator();
+        mReversing = true;
+        try
+        {
+            if (SpringAnimatorCreator.isSpringAnimator(animator))
+            {
+                final AnimatorCreator creator = getAnimatorCreator();
+                if (!(creator instanceof ReusableAnimatorCreator) || !((ReusableAnimatorCreator) creator).updateAnimator(!show, mView, animator))
+                    return false;
+
+                return show ? mAnimatorHandler.transferShowAnimator() : mAnimatorHandler.transferHideAnimator();
+            }
+
+            if (show)
+                return mAnimatorHandler.reverseShowAnimator();
+            else
+                return mHideReversible && mAnimatorHandler.reverseHideAnimator();
+        } finally
+        {
+            mReversing = false;
+        }
+    }
+
     /**
      * 隐藏动画是否已经开始执行
      *
@@ -283,11 +818,147 @@ public class FVisibilityAnimator
         mAnimatorHandler.cancelHideAnimator();
     }
 
+    /**
+     * 返回要执行的动画，如果开启了复用，则优先更新之前创建的动画
+     *
+     * @param show
+     * @return
+     */
+    private Animator getAnimator(boolean show)
+    {
+        final long startNanos = FVisibilityMetrics.start();
+        final Animator animator = getAnimatorInternal(show);
+        FVisibilityMetrics.record(FVisibilityMetrics.STAGE_CREATE_ANIMATOR, startNanos);
+        return animator;
+    }
+
+    private Animator getAnimatorInternal(boolean show)
+    {
+        final AnimatorCreator creator = getAnimatorCreator();
+        if (mReuseAnimator && creator instanceof ReusableAnimatorCreator)
+        {
+            final Animator animator = show ? mAnimatorHandler.getShowAnimator() : mAnimatorHandler.getHideAnimator();
+            if (animator != null && ((ReusableAnimatorCreator) creator).updateAnimator(show, mView, animator))
+                return animator;
+        }
+        return creator.createAnimator(show, mView);
+    }
+
     private void destroySizeChecker()
     {
         mViewSizeChecker.destroy();
     }
 
+    private int getPropertyFlags()
+    {
+        if (mPropertyFlags < 0)
+            mPropertyFlags = CompiledCreator.getPropertyFlags(mAnimatorCreator);
+        return mPropertyFlags;
+    }
+
+    private void applyLayerPolicy()
+    {
+        if (mLayerPolicy == LAYER_POLICY_NONE)
+            return;
+
+        if (mLayerState == null)
+            mLayerState = new LayerState();
+
+        final int flags = getPropertyFlags();
+        final boolean layerHandled = mAnimatorEngine == ENGINE_VIEW_PROPERTY && mWithLayer;
+
+        if ((mLayerPolicy & LAYER_POLICY_HARDWARE) != 0 && !layerHandled)
+            mLayerState.applyLayer(mView, flags);
+
+        if ((mLayerPolicy & LAYER_POLICY_DROP_ELEVATION) != 0)
+            mLayerState.applyElevation(mView, flags);
+    }
+
+    private void restoreLayerPolicy()
+    {
+        if (mLayerState != null)
+            mLayerState.restore(mView);
+    }
+
+    private void startMetrics()
+    {
+        mAnimatorStartNanos = FVisibilityMetrics.start();
+        if (mAnimatorStartNanos != 0)
+            Choreographer.getInstance().postFrameCallback(mFirstFrameCallback);
+    }
+
+    private void stopMetrics()
+    {
+        if (mAnimatorStartNanos == 0)
+            return;
+
+        Choreographer.getInstance().removeFrameCallback(mFirstFrameCallback);
+        FVisibilityMetrics.record(FVisibilityMetrics.STAGE_RUN, mAnimatorStartNanos);
+        mAnimatorStartNanos = 0;
+    }
+
+    private final Choreographer.FrameCallback mFirstFrameCallback = new Choreographer.FrameCallback()
+    {
+        @Override
+        public void doFrame(long frameTimeNanos)
+        {
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_FIRST_FRAME, mAnimatorStartNanos);
+        }
+    };
+
+    private void startTrace(boolean show)
+    {
+        FAnimatorTrace.onAnimatorStart();
+        if (!FAnimatorTrace.isEnabled())
+            return;
+
+        String name = show ? mTraceShowName : mTraceHideName;
+        if (name == null)
+        {
+            final Object creator = mAnimatorCreator;
+            name = (show ? "show:" : "hide:") + (creator == null ? "null" : creator.getClass().getName());
+            if (show)
+                mTraceShowName = name;
+            else
+                mTraceHideName = name;
+        }
+
+        if (FAnimatorTrace.beginAsyncSection(name, System.identityHashCode(this)))
+            mTraceRunningName = name;
+    }
+
+    private void stopTrace()
+    {
+        FAnimatorTrace.onAnimatorEnd();
+
+        final String name = mTraceRunningName;
+        if (name != null)
+        {
+            mTraceRunningName = null;
+            FAnimatorTrace.endAsyncSection(name, System.identityHashCode(this));
+        }
+    }
+
+    private void startJankTracking(boolean show)
+    {
+        final FJankMonitor monitor = mJankMonitor != null ? mJankMonitor : FJankMonitor.getDefault();
+        if (monitor == null)
+            return;
+
+        if (mJankTracker == null || mJankTracker.getMonitor() != monitor)
+        {
+            stopJankTracking();
+            mJankTracker = monitor.newTracker(mView);
+        }
+        mJankTracker.start(mView, mAnimatorCreator, show);
+    }
+
+    private void stopJankTracking()
+    {
+        if (mJankTracker != null)
+            mJankTracker.stop();
+    }
+
     private void showView()
     {
         if (mView.getVisibility() != View.VISIBLE)
@@ -324,12 +995,173 @@ public class FVisibilityAnimator
             view.setVisibility(visibility);
     }
 
+    /**
+     * 不执行动画，直接显示，外部添加的监听会收到开始和结束
+     */
+    private void skipShow()
+    {
+        showView();
+        mAnimatorHandler.dispatchShowSkipped();
+    }
+
+    /**
+     * 不执行动画，直接隐藏，外部添加的监听会收到开始和结束
+     */
+    private void skipHide()
+    {
+        hideView();
+        if (mResetAfterHideAnimator)
+            FViewProperties.reset(mView);
+        mAnimatorHandler.dispatchHideSkipped();
+    }
+
+    /**
+     * 开启了{@link #setCullOffscreen(boolean)}并且View不在屏幕上
+     *
+     * @return
+     */
+    private boolean isCulled()
+    {
+        if (!mCullOffscreen)
+            return false;
+
+        if (!FPreDrawCoordinator.isAttached(mView))
+            return false;
+
+        if (mCullRect == null)
+            mCullRect = new Rect();
+        return !isOnScreen(mView, mCullRect);
+    }
+
+    /**
+     * View的布局区域按照各级父容器裁剪之后是否不为空，并且所有父容器都可见
+     *
+     * @param view
+     * @param rect 用于计算
+     * @return
+     */
+    static boolean isOnScreen(View view, Rect rect)
+    {
+        rect.set(0, 0, view.getWidth(), view.getHeight());
+
+        View child = view;
+        ViewParent parent = view.getParent();
+        while (parent instanceof View)
+        {
+            final View group = (View) parent;
+            if (group.getVisibility() != View.VISIBLE)
+                return false;
+
+            rect.offset(child.getLeft() - group.getScrollX(), child.getTop() - group.getScrollY());
+            if (!rect.intersect(0, 0, group.getWidth(), group.getHeight()))
+                return false;
+
+            child = group;
+            parent = group.getParent();
+        }
+        return true;
+    }
+
+    private void startCullCheck()
+    {
+        if (mCullOffscreen)
+        {
+            mView.removeCallbacks(mCullCheckRunnable);
+            mView.postDelayed(mCullCheckRunnable, CULL_CHECK_INTERVAL);
+        }
+    }
+
+    private void stopCullCheck()
+    {
+        if (mCullOffscreen)
+            mView.removeCallbacks(mCullCheckRunnable);
+    }
+
+    private final Runnable mCullCheckRunnable = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            if (!isShowAnimatorStarted() && !isHideAnimatorStarted())
+                return;
+
+            if (isCulled())
+            {
+                final Animator showAnimator = mAnimatorHandler.getShowAnimator();
+                if (showAnimator != null && showAnimator.isStarted())
+                    showAnimator.end();
+
+                final Animator hideAnimator = mAnimatorHandler.getHideAnimator();
+                if (hideAnimator != null && hideAnimator.isStarted())
+                    hideAnimator.end();
+                return;
+            }
+
+            mView.postDelayed(this, CULL_CHECK_INTERVAL);
+        }
+    };
+
+    private void onAttached()
+    {
+        final Activity activity = FHostLifecycle.findActivity(mView.getContext());
+        if (activity != mHostActivity)
+        {
+            if (mHostActivity != null)
+                FHostLifecycle.unregister(mHostActivity, mHostCallback);
+
+            mHostActivity = activity;
+            if (activity != null)
+                FHostLifecycle.register(activity, mHostCallback);
+        }
+
+        mHostStarted = true;
+        mWindowVisible = mView.getWindowVisibility() == View.VISIBLE;
+        updatePauseState();
+
+        // 可能附加到了刷新率不同的屏幕
+        if (mJankTracker != null)
+            mJankTracker.updateFrameInterval(mView);
+    }
+
+    private void onDetached()
+    {
+        if (mHostActivity != null)
+        {
+            FHostLifecycle.unregister(mHostActivity, mHostCallback);
+            mHostActivity = null;
+        }
+        mPaused = false;
+    }
+
+    private void updatePauseState()
+    {
+        final boolean pause = mPauseWhenInvisible && (!mWindowVisible || !mHostStarted);
+        if (mPaused == pause)
+            return;
+
+        mPaused = pause;
+        if (pause)
+            mAnimatorHandler.pauseAnimators();
+        else
+            mAnimatorHandler.resumeAnimators();
+    }
+
+    private final FHostLifecycle.Callback mHostCallback = new FHostLifecycle.Callback()
+    {
+        @Override
+        public void onHostVisibilityChanged(boolean started)
+        {
+            mHostStarted = started;
+            updatePauseState();
+        }
+    };
+
     private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener()
     {
         @Override
         public void onViewAttachedToWindow(View v)
         {
-
+            onAttached();
         }
 
         @Override
@@ -337,6 +1169,7 @@ public class FVisibilityAnimator
         {
             cancelShowAnimator();
             cancelHideAnimator();
+            onDetached();
         }
     };
 
@@ -347,38 +1180,123 @@ public class FVisibilityAnimator
         {
             super.onAnimationStart(animation);
             showView();
+            applyLayerPolicy();
+            startJankTracking(true);
+            startMetrics();
+            startTrace(true);
+            startCullCheck();
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            stopCullCheck();
+            stopTrace();
+            stopMetrics();
+            stopJankTracking();
+            restoreLayerPolicy();
         }
     };
 
     private final AnimatorListenerAdapter mHideAnimatorListener = new AnimatorListenerAdapter()
     {
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            super.onAnimationStart(animation);
+            applyLayerPolicy();
+            startJankTracking(false);
+            startMetrics();
+            startTrace(false);
+            startCullCheck();
+        }
+
         @Override
         public void onAnimationEnd(Animator animation)
         {
             super.onAnimationEnd(animation);
+            stopCullCheck();
+            stopTrace();
+            stopMetrics();
+            stopJankTracking();
+            restoreLayerPolicy();
+            if (mReversing)
+            {
+                // 反转为显示，动画还在继续
+                return;
+            }
             hideView();
             if (mResetAfterHideAnimator)
-                resetView(mView);
+                FViewProperties.reset(mView);
         }
     };
 
     /**
-     * 重置view
-     *
-     * @param view
+     * 保存动画期间修改的绘制层状态，动画结束后还原
      */
-    private static void resetView(View view)
+    private static final class LayerState
     {
-        if (view == null)
-            return;
+        private boolean mLayerApplied;
+        private boolean mElevationApplied;
+        private float mElevation;
+
+        public void applyLayer(View view, int flags)
+        {
+            if (mLayerApplied)
+                return;
+
+            if (view.getLayerType() != View.LAYER_TYPE_NONE)
+                return;
+
+            boolean useLayer = (flags & (ViewProperty.FLAG_SCALE | ViewProperty.FLAG_ROTATION)) != 0;
+            if (!useLayer && (flags & ViewProperty.FLAG_ALPHA) != 0)
+                useLayer = view.hasOverlappingRendering();
+
+            // 修改其他属性的时候，每一帧都要重新绘制内容，开启硬件层反而更慢
+            if ((flags & ViewProperty.FLAG_OTHER) != 0)
+                useLayer = false;
+
+            if (useLayer)
+            {
+                view.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+                mLayerApplied = true;
+            }
+        }
+
+        public void applyElevation(View view, int flags)
+        {
+            if (mElevationApplied)
+                return;
 
-        view.setAlpha(1.0f);
-        view.setRotation(0.0f);
-        view.setRotationX(0.0f);
-        view.setRotationY(0.0f);
-        view.setTranslationX(0.0f);
-        view.setTranslationY(0.0f);
-        view.setScaleX(1.0f);
-        view.setScaleY(1.0f);
+            if (Build.VERSION.SDK_INT < 21)
+                return;
+
+            if ((flags & ViewProperty.FLAG_TRANSLATION) == 0)
+                return;
+
+            final float elevation = view.getElevation();
+            if (elevation != 0)
+            {
+                mElevation = elevation;
+                view.setElevation(0);
+                mElevationApplied = true;
+            }
+        }
+
+        public void restore(View view)
+        {
+            if (mLayerApplied)
+            {
+                mLayerApplied = false;
+                view.setLayerType(View.LAYER_TYPE_NONE, null);
+            }
+
+            if (mElevationApplied)
+            {
+                mElevationApplied = false;
+                view.setElevation(mElevation);
+            }
+        }
     }
 }
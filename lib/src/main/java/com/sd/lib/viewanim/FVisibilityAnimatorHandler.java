@@ -1,20 +1,22 @@
 package com.sd.lib.viewanim;
 
 import android.animation.Animator;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.os.Build;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import com.sd.lib.viewanim.core.FListenerHolder;
 
 class FVisibilityAnimatorHandler
 {
     private Animator mShowAnimator;
     private Animator mHideAnimator;
 
-    private Animator.AnimatorListener mShowListener;
-    private Animator.AnimatorListener mHideListener;
+    final ListenerDispatcher mShowDispatcher = new ListenerDispatcher();
+    final ListenerDispatcher mHideDispatcher = new ListenerDispatcher();
 
-    private Map<Animator.AnimatorListener, String> mShowListenerHolder;
-    private Map<Animator.AnimatorListener, String> mHideListenerHolder;
+    /** 跳过动画的时候传给监听的占位动画，不会被执行 */
+    private Animator mSkippedAnimator;
 
     //---------- Show start ----------
 
@@ -29,15 +31,25 @@ class FVisibilityAnimatorHandler
         if (old != animator)
         {
             if (old != null)
-                old.removeListener(mShowAnimatorListener);
+                old.removeListener(mShowDispatcher);
 
             mShowAnimator = animator;
 
             if (animator != null)
-                animator.addListener(mShowAnimatorListener);
+                animator.addListener(mShowDispatcher);
         }
     }
 
+    /**
+     * 返回显示动画
+     *
+     * @return
+     */
+    public Animator getShowAnimator()
+    {
+        return mShowAnimator;
+    }
+
     /**
      * 设置显示动画监听
      *
@@ -45,7 +57,7 @@ class FVisibilityAnimatorHandler
      */
     public void setShowAnimatorListener(Animator.AnimatorListener listener)
     {
-        mShowListener = listener;
+        mShowDispatcher.mListener = listener;
     }
 
     /**
@@ -55,12 +67,7 @@ class FVisibilityAnimatorHandler
      */
     public void addShowAnimatorListener(Animator.AnimatorListener listener)
     {
-        if (listener == null)
-            return;
-
-        if (mShowListenerHolder == null)
-            mShowListenerHolder = new ConcurrentHashMap<>();
-        mShowListenerHolder.put(listener, "");
+        mShowDispatcher.mListenerHolder.add(listener);
     }
 
     /**
@@ -70,15 +77,7 @@ class FVisibilityAnimatorHandler
      */
     public void removeShowAnimatorListener(Animator.AnimatorListener listener)
     {
-        if (listener == null)
-            return;
-
-        if (mShowListenerHolder != null)
-        {
-            mShowListenerHolder.remove(listener);
-            if (mShowListenerHolder.isEmpty())
-                mShowListenerHolder = null;
-        }
+        mShowDispatcher.mListenerHolder.remove(listener);
     }
 
     /**
@@ -135,15 +134,25 @@ class FVisibilityAnimatorHandler
         if (old != animator)
         {
             if (old != null)
-                old.removeListener(mHideAnimatorListener);
+                old.removeListener(mHideDispatcher);
 
             mHideAnimator = animator;
 
             if (animator != null)
-                animator.addListener(mHideAnimatorListener);
+                animator.addListener(mHideDispatcher);
         }
     }
 
+    /**
+     * 返回隐藏动画
+     *
+     * @return
+     */
+    public Animator getHideAnimator()
+    {
+        return mHideAnimator;
+    }
+
     /**
      * 设置隐藏动画监听
      *
@@ -151,7 +160,7 @@ class FVisibilityAnimatorHandler
      */
     public void setHideAnimatorListener(Animator.AnimatorListener listener)
     {
-        mHideListener = listener;
+        mHideDispatcher.mListener = listener;
     }
 
     /**
@@ -161,12 +170,7 @@ class FVisibilityAnimatorHandler
      */
     public void addHideAnimatorListener(Animator.AnimatorListener listener)
     {
-        if (listener == null)
-            return;
-
-        if (mHideListenerHolder == null)
-            mHideListenerHolder = new ConcurrentHashMap<>();
-        mHideListenerHolder.put(listener, "");
+        mHideDispatcher.mListenerHolder.add(listener);
     }
 
     /**
@@ -176,15 +180,7 @@ class FVisibilityAnimatorHandler
      */
     public void removeHideAnimatorListener(Animator.AnimatorListener listener)
     {
-        if (listener == null)
-            return;
-
-        if (mHideListenerHolder != null)
-        {
-            mHideListenerHolder.remove(listener);
-            if (mHideListenerHolder.isEmpty())
-                mHideListenerHolder = null;
-        }
+        mHideDispatcher.mListenerHolder.remove(listener);
     }
 
     /**
@@ -227,129 +223,308 @@ class FVisibilityAnimatorHandler
 
     //---------- Hide end ----------
 
-    private final Animator.AnimatorListener mShowAnimatorListener = new Animator.AnimatorListener()
+    /**
+     * 把正在执行的显示动画原地反转为隐藏动画，不创建新的动画
+     * <p>
+     * 使用{@link ValueAnimator#reverse()}，把已经执行的时间倒着播放一遍：反转的瞬间值和速度的大小都是连续的，只有方向相反；
+     * 只支持{@link ValueAnimator}，{@link android.animation.AnimatorSet}（比如没有合并编译的CombineCreator，ScaleXYCreator）
+     * 总是返回false，由调用方取消后重新创建
+     *
+     * @return true-反转成功，false-动画未执行（包括还在开始延迟中）或者不支持反转
+     * @see #transferShowAnimator()
+     */
+    public boolean reverseShowAnimator()
     {
-        @Override
-        public void onAnimationStart(Animator animation)
-        {
-            if (mShowListener != null)
-                mShowListener.onAnimationStart(animation);
+        final Animator animator = mShowAnimator;
+        if (!canReverse(animator))
+            return false;
 
-            if (mShowListenerHolder != null)
-            {
-                for (Animator.AnimatorListener item : mShowListenerHolder.keySet())
-                {
-                    item.onAnimationStart(animation);
-                }
-            }
-        }
+        transferShowAnimator();
+        ((ValueAnimator) animator).reverse();
+        return true;
+    }
 
-        @Override
-        public void onAnimationEnd(Animator animation)
-        {
-            if (mShowListener != null)
-                mShowListener.onAnimationEnd(animation);
+    /**
+     * 把正在执行的隐藏动画原地反转为显示动画，不创建新的动画
+     * <p>
+     * 和{@link #reverseShowAnimator()}一样按照已经执行的时间镜像反向执行
+     *
+     * @return true-反转成功，false-动画未执行（包括还在开始延迟中）或者不支持反转
+     * @see #transferHideAnimator()
+     */
+    public boolean reverseHideAnimator()
+    {
+        final Animator animator = mHideAnimator;
+        if (!canReverse(animator))
+            return false;
 
-            if (mShowListenerHolder != null)
-            {
-                for (Animator.AnimatorListener item : mShowListenerHolder.keySet())
-                {
-                    item.onAnimationEnd(animation);
-                }
-            }
-        }
+        transferHideAnimator();
+        ((ValueAnimator) animator).reverse();
+        return true;
+    }
 
-        @Override
-        public void onAnimationCancel(Animator animation)
-        {
-            if (mShowListener != null)
-                mShowListener.onAnimationCancel(animation);
+    /**
+     * 把正在执行的显示动画转为隐藏动画，动画本身不做修改，继续执行
+     * <p>
+     * 显示方向的监听会收到取消和结束，隐藏方向的监听会收到开始，动画结束后回调隐藏方向的结束
+     *
+     * @return true-转换成功，false-动画未开始
+     */
+    public boolean transferShowAnimator()
+    {
+        final Animator animator = mShowAnimator;
+        if (animator == null || !animator.isStarted())
+            return false;
+
+        // 原来的隐藏动画放到显示的位置，复用的时候来回切换不需要重新创建
+        final Animator other = mHideAnimator;
+        if (other != null)
+            other.cancel();
+
+        setShowAnimator(null);
+        mShowDispatcher.onAnimationCancel(animator);
+        mShowDispatcher.onAnimationEnd(animator);
+
+        setHideAnimator(animator);
+        setShowAnimator(other);
+        mHideDispatcher.onAnimationStart(animator);
+        return true;
+    }
 
-            if (mShowListenerHolder != null)
-            {
-                for (Animator.AnimatorListener item : mShowListenerHolder.keySet())
-                {
-                    item.onAnimationCancel(animation);
-                }
-            }
-        }
+    /**
+     * 把正在执行的隐藏动画转为显示动画，动画本身不做修改，继续执行
+     *
+     * @return true-转换成功，false-动画未开始
+     * @see #transferShowAnimator()
+     */
+    public boolean transferHideAnimator()
+    {
+        final Animator animator = mHideAnimator;
+        if (animator == null || !animator.isStarted())
+            return false;
+
+        final Animator other = mShowAnimator;
+        if (other != null)
+            other.cancel();
+
+        setHideAnimator(null);
+        mHideDispatcher.onAnimationCancel(animator);
+        mHideDispatcher.onAnimationEnd(animator);
+
+        setShowAnimator(animator);
+        setHideAnimator(other);
+        mShowDispatcher.onAnimationStart(animator);
+        return true;
+    }
 
-        @Override
-        public void onAnimationRepeat(Animator animation)
+    /**
+     * 没有执行显示动画，直接通知外部添加的显示监听开始和结束，监听收到的是一个不会执行的占位动画
+     */
+    public void dispatchShowSkipped()
+    {
+        mShowDispatcher.dispatchSkipped(getSkippedAnimator());
+    }
+
+    /**
+     * 没有执行隐藏动画，直接通知外部添加的隐藏监听开始和结束，监听收到的是一个不会执行的占位动画
+     */
+    public void dispatchHideSkipped()
+    {
+        mHideDispatcher.dispatchSkipped(getSkippedAnimator());
+    }
+
+    private Animator getSkippedAnimator()
+    {
+        if (mSkippedAnimator == null)
         {
-            if (mShowListener != null)
-                mShowListener.onAnimationRepeat(animation);
+            final ValueAnimator animator = ValueAnimator.ofFloat(0.0f, 1.0f);
+            animator.setDuration(0);
+            mSkippedAnimator = animator;
+        }
+        return mSkippedAnimator;
+    }
+
+    /**
+     * 暂停正在执行的显示和隐藏动画，不支持暂停的动画直接结束
+     */
+    public void pauseAnimators()
+    {
+        pauseAnimator(mShowAnimator);
+        pauseAnimator(mHideAnimator);
+    }
+
+    /**
+     * 恢复{@link #pauseAnimators()}暂停的动画
+     */
+    public void resumeAnimators()
+    {
+        resumeAnimator(mShowAnimator);
+        resumeAnimator(mHideAnimator);
+    }
+
+    /**
+     * {@link Animator#pause()}需要API 19，并且只有{@link ValueAnimator}和{@link AnimatorSet}真正停止计算，
+     * 自己驱动的动画（比如帧回调驱动的动画）调用后还会继续执行，所以直接结束
+     */
+    private static void pauseAnimator(Animator animator)
+    {
+        if (animator == null || !animator.isStarted())
+            return;
 
-            if (mShowListenerHolder != null)
+        if (Build.VERSION.SDK_INT >= 19 && (animator instanceof ValueAnimator || animator instanceof AnimatorSet))
+            animator.pause();
+        else
+            animator.end();
+    }
+
+    private static void resumeAnimator(Animator animator)
+    {
+        if (animator == null)
+            return;
+
+        if (Build.VERSION.SDK_INT >= 19 && animator.isPaused())
+            animator.resume();
+    }
+
+    /**
+     * 只有{@link ValueAnimator}在所有版本上都支持执行中反转，{@link android.animation.AnimatorSet}需要API 26；
+     * 还在开始延迟中的动画反转后延迟不会镜像，不反转
+     */
+    private static boolean canReverse(Animator animator)
+    {
+        return animator instanceof ValueAnimator && animator.isRunning();
+    }
+
+    /**
+     * 把动画的回调分发给内部监听和外部添加的监听，显示和隐藏共用
+     */
+    static final class ListenerDispatcher implements Animator.AnimatorListener
+    {
+        private static final String TRACE_LISTENERS = "FVisibilityAnimator#listeners";
+
+        private Animator.AnimatorListener mListener;
+        private final FListenerHolder<Animator.AnimatorListener> mListenerHolder = new FListenerHolder<>();
+
+        /**
+         * 没有执行动画，直接通知外部添加的监听开始和结束
+         *
+         * @param animation 传给监听的占位动画
+         */
+        public void dispatchSkipped(Animator animation)
+        {
+            final Object[] listeners = mListenerHolder.getArray();
+            for (Object item : listeners)
             {
-                for (Animator.AnimatorListener item : mShowListenerHolder.keySet())
-                {
-                    item.onAnimationRepeat(animation);
-                }
+                ((Animator.AnimatorListener) item).onAnimationStart(animation);
+            }
+            for (Object item : listeners)
+            {
+                ((Animator.AnimatorListener) item).onAnimationEnd(animation);
             }
         }
-    };
 
-    private final Animator.AnimatorListener mHideAnimatorListener = new Animator.AnimatorListener()
-    {
         @Override
         public void onAnimationStart(Animator animation)
         {
-            if (mHideListener != null)
-                mHideListener.onAnimationStart(animation);
+            if (mListener != null)
+                mListener.onAnimationStart(animation);
+
+            final Object[] listeners = mListenerHolder.getArray();
+            if (listeners.length == 0)
+                return;
 
-            if (mHideListenerHolder != null)
+            final long startNanos = FVisibilityMetrics.start();
+            final boolean trace = FAnimatorTrace.beginSection(TRACE_LISTENERS);
+            try
             {
-                for (Animator.AnimatorListener item : mHideListenerHolder.keySet())
+                for (Object item : listeners)
                 {
-                    item.onAnimationStart(animation);
+                    ((Animator.AnimatorListener) item).onAnimationStart(animation);
                 }
+            } finally
+            {
+                if (trace)
+                    FAnimatorTrace.endSection();
             }
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_LISTENER, startNanos);
         }
 
         @Override
         public void onAnimationEnd(Animator animation)
         {
-            if (mHideListener != null)
-                mHideListener.onAnimationEnd(animation);
+            if (mListener != null)
+                mListener.onAnimationEnd(animation);
+
+            final Object[] listeners = mListenerHolder.getArray();
+            if (listeners.length == 0)
+                return;
 
-            if (mHideListenerHolder != null)
+            final long startNanos = FVisibilityMetrics.start();
+            final boolean trace = FAnimatorTrace.beginSection(TRACE_LISTENERS);
+            try
             {
-                for (Animator.AnimatorListener item : mHideListenerHolder.keySet())
+                for (Object item : listeners)
                 {
-                    item.onAnimationEnd(animation);
+                    ((Animator.AnimatorListener) item).onAnimationEnd(animation);
                 }
+            } finally
+            {
+                if (trace)
+                    FAnimatorTrace.endSection();
             }
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_LISTENER, startNanos);
         }
 
         @Override
         public void onAnimationCancel(Animator animation)
         {
-            if (mHideListener != null)
-                mHideListener.onAnimationCancel(animation);
+            if (mListener != null)
+                mListener.onAnimationCancel(animation);
+
+            final Object[] listeners = mListenerHolder.getArray();
+            if (listeners.length == 0)
+                return;
 
-            if (mHideListenerHolder != null)
+            final long startNanos = FVisibilityMetrics.start();
+            final boolean trace = FAnimatorTrace.beginSection(TRACE_LISTENERS);
+            try
             {
-                for (Animator.AnimatorListener item : mHideListenerHolder.keySet())
+                for (Object item : listeners)
                 {
-                    item.onAnimationCancel(animation);
+                    ((Animator.AnimatorListener) item).onAnimationCancel(animation);
                 }
+            } finally
+            {
+                if (trace)
+                    FAnimatorTrace.endSection();
             }
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_LISTENER, startNanos);
         }
 
         @Override
         public void onAnimationRepeat(Animator animation)
         {
-            if (mHideListener != null)
-                mHideListener.onAnimationRepeat(animation);
+            if (mListener != null)
+                mListener.onAnimationRepeat(animation);
+
+            final Object[] listeners = mListenerHolder.getArray();
+            if (listeners.length == 0)
+                return;
 
-            if (mHideListenerHolder != null)
+            final long startNanos = FVisibilityMetrics.start();
+            final boolean trace = FAnimatorTrace.beginSection(TRACE_LISTENERS);
+            try
             {
-                for (Animator.AnimatorListener item : mHideListenerHolder.keySet())
+                for (Object item : listeners)
                 {
-                    item.onAnimationRepeat(animation);
+                    ((Animator.AnimatorListener) item).onAnimationRepeat(animation);
                 }
+            } finally
+            {
+                if (trace)
+                    FAnimatorTrace.endSection();
             }
+            FVisibilityMetrics.record(FVisibilityMetrics.STAGE_LISTENER, startNanos);
         }
-    };
+    }
 }
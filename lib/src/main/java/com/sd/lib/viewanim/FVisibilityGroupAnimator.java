@@ -0,0 +1,491 @@
+package com.sd.lib.viewanim;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ValueAnimator;
+import android.view.View;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.EmptyCreator;
+import com.sd.lib.viewanim.creator.obj.CompiledCreator;
+import com.sd.lib.viewanim.property.FViewProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 多个View的显示隐藏动画
+ * <p>
+ * 等待所有View都准备好之后一起开始，可以设置相邻View开始的时间间隔；如果动画创建者可以被{@link CompiledCreator}合并编译，
+ * 则所有View由同一个动画驱动，否则每个View创建一个动画，放到同一个{@link AnimatorSet}中执行
+ */
+public class FVisibilityGroupAnimator
+{
+    private final List<View> mViewHolder = new ArrayList<>();
+    private final FVisibilityAnimatorHandler mAnimatorHandler = new FVisibilityAnimatorHandler();
+    private final FViewSizeChecker mViewSizeChecker = new FViewSizeChecker();
+
+    private AnimatorCreator mAnimatorCreator;
+    private CompiledCreator mCompiledCreator;
+    private long mStagger;
+    private int mHideVisibility = View.INVISIBLE;
+    private boolean mResetAfterHideAnimator = true;
+
+    /** 正在执行动画的View */
+    private View[] mAnimatorViews;
+
+    public FVisibilityGroupAnimator()
+    {
+        mAnimatorHandler.setShowAnimatorListener(mShowAnimatorListener);
+        mAnimatorHandler.setHideAnimatorListener(mHideAnimatorListener);
+    }
+
+    /**
+     * 添加View
+     *
+     * @param view
+     */
+    public void addView(View view)
+    {
+        if (view == null)
+            return;
+
+        if (mViewHolder.contains(view))
+            return;
+
+        mViewHolder.add(view);
+        view.addOnAttachStateChangeListener(mOnAttachStateChangeListener);
+    }
+
+    /**
+     * 移除View
+     *
+     * @param view
+     */
+    public void removeView(View view)
+    {
+        if (view == null)
+            return;
+
+        if (mViewHolder.remove(view))
+            view.removeOnAttachStateChangeListener(mOnAttachStateChangeListener);
+    }
+
+    /**
+     * 返回所有View
+     *
+     * @return
+     */
+    public List<View> getViews()
+    {
+        return new ArrayList<>(mViewHolder);
+    }
+
+    /**
+     * 动画创建者，每个View都使用这个创建者
+     *
+     * @param creator
+     */
+    public void setAnimatorCreator(AnimatorCreator creator)
+    {
+        mAnimatorCreator = creator;
+        mCompiledCreator = null;
+    }
+
+    /**
+     * 设置相邻View开始的时间间隔，默认0，所有View一起开始
+     *
+     * @param stagger 毫秒
+     */
+    public void setStagger(long stagger)
+    {
+        mStagger = stagger < 0 ? 0 : stagger;
+    }
+
+    /**
+     * 设置隐藏的状态值
+     *
+     * @param visibility {@link View#INVISIBLE}或者{@link View#GONE}
+     */
+    public void setHideVisibility(int visibility)
+    {
+        if (visibility == View.INVISIBLE || visibility == View.GONE)
+        {
+            mHideVisibility = visibility;
+        } else
+        {
+            throw new IllegalArgumentException("Illegal visibility value. View.INVISIBLE or View.GONE required");
+        }
+    }
+
+    /**
+     * 隐藏动画结束后，是否重置View的各项属性
+     *
+     * @param reset
+     */
+    public void setResetAfterHideAnimator(boolean reset)
+    {
+        mResetAfterHideAnimator = reset;
+    }
+
+    /**
+     * 添加显示动画监听
+     *
+     * @param listener
+     */
+    public void addShowAnimatorListener(Animator.AnimatorListener listener)
+    {
+        mAnimatorHandler.addShowAnimatorListener(listener);
+    }
+
+    /**
+     * 移除显示动画监听
+     *
+     * @param listener
+     */
+    public void removeShowAnimatorListener(Animator.AnimatorListener listener)
+    {
+        mAnimatorHandler.removeShowAnimatorListener(listener);
+    }
+
+    /**
+     * 添加隐藏动画监听
+     *
+     * @param listener
+     */
+    public void addHideAnimatorListener(Animator.AnimatorListener listener)
+    {
+        mAnimatorHandler.addHideAnimatorListener(listener);
+    }
+
+    /**
+     * 移除隐藏动画监听
+     *
+     * @param listener
+     */
+    public void removeHideAnimatorListener(Animator.AnimatorListener listener)
+    {
+        mAnimatorHandler.removeHideAnimatorListener(listener);
+    }
+
+    /**
+     * 开始显示，所有不可见的View都准备好之后一起执行动画
+     */
+    public void startShow()
+    {
+        if (isShowAnimatorStarted())
+            return;
+
+        cancelHideAnimator();
+
+        if (!mViewSizeChecker.isDestroyed())
+        {
+            // 已经在准备中
+            return;
+        }
+
+        final View[] views = getViews(false);
+        if (views == null)
+            return;
+
+        if (!FAnimatorPolicy.isAnimatorEnabled(views[0].getContext()))
+        {
+            // 系统关闭了动画，不等待布局，直接显示
+            skipShow(views);
+            return;
+        }
+
+        for (View item : views)
+        {
+            if (item.getVisibility() == View.GONE)
+                item.setVisibility(View.INVISIBLE);
+        }
+
+        mAnimatorViews = views;
+        mViewSizeChecker.check(views, mShowSizeCallback);
+    }
+
+    private final FViewSizeChecker.Callback mShowSizeCallback = new FViewSizeChecker.Callback()
+    {
+        @Override
+        public void onSizeReady()
+        {
+            final View[] views = mAnimatorViews;
+            if (views != null && !FAnimatorPolicy.isAnimatorEnabled(views[0].getContext()))
+            {
+                // 等待布局期间系统关闭了动画
+                skipShow(views);
+                return;
+            }
+
+            final Animator animator = createAnimator(true, views);
+            if (animator != null)
+            {
+                cancelHideAnimator();
+                mAnimatorHandler.setShowAnimator(animator);
+                mAnimatorHandler.startShowAnimator();
+            } else
+            {
+                showViews(views);
+            }
+        }
+    };
+
+    /**
+     * 显示动画是否已经开始
+     *
+     * @return
+     */
+    public boolean isShowAnimatorStarted()
+    {
+        return mAnimatorHandler.isShowAnimatorStarted();
+    }
+
+    /**
+     * 取消显示动画
+     */
+    public void cancelShowAnimator()
+    {
+        mAnimatorHandler.cancelShowAnimator();
+        mViewSizeChecker.destroy();
+    }
+
+    /**
+     * 开始隐藏，如果有可见的View不满足动画执行条件，则所有可见的View直接隐藏
+     * <p>
+     * 动画执行条件：view被添加到ui上，并且宽高都大于0
+     *
+     * @return true-动画被成功发起
+     */
+    public boolean startHide()
+    {
+        if (isHideAnimatorStarted())
+            return true;
+
+        cancelShowAnimator();
+
+        final View[] views = getViews(true);
+        if (views == null)
+            return false;
+
+        if (!FAnimatorPolicy.isAnimatorEnabled(views[0].getContext()))
+        {
+            // 系统关闭了动画，直接隐藏
+            skipHide(views);
+            return false;
+        }
+
+        for (View item : views)
+        {
+            if (!mViewSizeChecker.checkReady(item))
+            {
+                // 如果未准备好，不执行动画
+                hideViews(views);
+                return false;
+            }
+        }
+
+        final Animator animator = createAnimator(false, views);
+        if (animator != null)
+        {
+            cancelShowAnimator();
+            mAnimatorViews = views;
+            mAnimatorHandler.setHideAnimator(animator);
+            return mAnimatorHandler.startHideAnimator();
+        } else
+        {
+            hideViews(views);
+            return false;
+        }
+    }
+
+    /**
+     * 隐藏动画是否已经开始执行
+     *
+     * @return
+     */
+    public boolean isHideAnimatorStarted()
+    {
+        return mAnimatorHandler.isHideAnimatorStarted();
+    }
+
+    /**
+     * 取消隐藏动画
+     */
+    public void cancelHideAnimator()
+    {
+        mAnimatorHandler.cancelHideAnimator();
+    }
+
+    /**
+     * 返回可见状态符合条件的View
+     *
+     * @param visible true-返回可见的View，false-返回不可见的View
+     * @return null-没有符合条件的View
+     */
+    private View[] getViews(boolean visible)
+    {
+        final List<View> list = new ArrayList<>(mViewHolder.size());
+        for (View item : mViewHolder)
+        {
+            if ((item.getVisibility() == View.VISIBLE) == visible)
+                list.add(item);
+        }
+        return list.isEmpty() ? null : list.toArray(new View[list.size()]);
+    }
+
+    private Animator createAnimator(boolean show, View[] views)
+    {
+        if (views == null)
+            return null;
+
+        final AnimatorCreator creator = mAnimatorCreator;
+        if (creator == null || creator instanceof EmptyCreator)
+            return null;
+
+        if (mCompiledCreator == null)
+            mCompiledCreator = creator instanceof CompiledCreator ? (CompiledCreator) creator : new CompiledCreator(creator);
+
+        if (mCompiledCreator.isCompiled())
+            return mCompiledCreator.createGroupAnimator(show, views, mStagger);
+
+        // 不支持合并编译，每个View单独创建动画
+        final List<Animator> list = new ArrayList<>(views.length);
+        for (int i = 0; i < views.length; i++)
+        {
+            final Animator animator = creator.createAnimator(show, views[i]);
+            if (animator != null)
+            {
+                final long delay = i * mStagger;
+                if (delay > 0)
+                {
+                    animator.setStartDelay(animator.getStartDelay() + delay);
+                    // 延迟期间保持开始值，否则会先显示为当前的值，延迟结束后再跳到开始值
+                    applyStartValues(animator);
+                }
+                list.add(animator);
+            }
+        }
+
+        if (list.isEmpty())
+            return null;
+
+        final AnimatorSet animatorSet = new AnimatorSet();
+        animatorSet.playTogether(list);
+        return animatorSet;
+    }
+
+    /**
+     * 立即设置动画的开始值，只支持{@link ValueAnimator}和由它们组成的{@link AnimatorSet}
+     *
+     * @param animator
+     */
+    private static void applyStartValues(Animator animator)
+    {
+        if (animator instanceof ValueAnimator)
+        {
+            ((ValueAnimator) animator).setCurrentPlayTime(0);
+        } else if (animator instanceof AnimatorSet)
+        {
+            for (Animator item : ((AnimatorSet) animator).getChildAnimations())
+            {
+                applyStartValues(item);
+            }
+        }
+    }
+
+    /**
+     * 不执行动画，直接显示，外部添加的监听会收到开始和结束
+     */
+    private void skipShow(View[] views)
+    {
+        showViews(views);
+        mAnimatorHandler.dispatchShowSkipped();
+    }
+
+    /**
+     * 不执行动画，直接隐藏，外部添加的监听会收到开始和结束
+     */
+    private void skipHide(View[] views)
+    {
+        hideViews(views);
+        if (mResetAfterHideAnimator)
+            resetViews(views);
+        mAnimatorHandler.dispatchHideSkipped();
+    }
+
+    private static void resetViews(View[] views)
+    {
+        if (views == null)
+            return;
+
+        for (View item : views)
+        {
+            FViewProperties.reset(item);
+        }
+    }
+
+    private void showViews(View[] views)
+    {
+        if (views == null)
+            return;
+
+        for (View item : views)
+        {
+            if (item.getVisibility() != View.VISIBLE)
+                item.setVisibility(View.VISIBLE);
+        }
+    }
+
+    private void hideViews(View[] views)
+    {
+        if (views == null)
+            return;
+
+        for (View item : views)
+        {
+            if (item.getVisibility() != mHideVisibility)
+                item.setVisibility(mHideVisibility);
+        }
+    }
+
+    private final View.OnAttachStateChangeListener mOnAttachStateChangeListener = new View.OnAttachStateChangeListener()
+    {
+        @Override
+        public void onViewAttachedToWindow(View v)
+        {
+
+        }
+
+        @Override
+        public void onViewDetachedFromWindow(View v)
+        {
+            cancelShowAnimator();
+            cancelHideAnimator();
+        }
+    };
+
+    private final AnimatorListenerAdapter mShowAnimatorListener = new AnimatorListenerAdapter()
+    {
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            super.onAnimationStart(animation);
+            showViews(mAnimatorViews);
+        }
+    };
+
+    private final AnimatorListenerAdapter mHideAnimatorListener = new AnimatorListenerAdapter()
+    {
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            final View[] views = mAnimatorViews;
+            hideViews(views);
+            if (mResetAfterHideAnimator)
+                resetViews(views);
+        }
+    };
+}
@@ -0,0 +1,130 @@
+package com.sd.lib.viewanim;
+
+import com.sd.lib.viewanim.core.FLatencyHistogram;
+
+/**
+ * 显示隐藏流程每个阶段的耗时统计，默认关闭
+ * <p>
+ * 记录不创建对象，可以周期性调用{@link #snapshotAndReset(int)}采样
+ */
+public final class FVisibilityMetrics
+{
+    /**
+     * 从{@link FVisibilityAnimator#startShow()}到View准备好
+     */
+    public static final int STAGE_SIZE_READY = 0;
+    /**
+     * 创建（或者更新复用的）动画
+     */
+    public static final int STAGE_CREATE_ANIMATOR = 1;
+    /**
+     * 从动画开始到第一帧
+     */
+    public static final int STAGE_FIRST_FRAME = 2;
+    /**
+     * 从动画开始到结束
+     */
+    public static final int STAGE_RUN = 3;
+    /**
+     * 外部动画监听的回调
+     */
+    public static final int STAGE_LISTENER = 4;
+
+    private static final FLatencyHistogram[] HISTOGRAMS = new FLatencyHistogram[]{
+            new FLatencyHistogram("sizeReady"),
+            new FLatencyHistogram("createAnimator"),
+            new FLatencyHistogram("firstFrame"),
+            new FLatencyHistogram("run"),
+            new FLatencyHistogram("listener"),
+    };
+
+    private static volatile boolean sEnabled;
+
+    private FVisibilityMetrics()
+    {
+    }
+
+    /**
+     * 设置是否开启统计
+     *
+     * @param enabled
+     */
+    public static void setEnabled(boolean enabled)
+    {
+        sEnabled = enabled;
+    }
+
+    /**
+     * 是否开启统计
+     *
+     * @return
+     */
+    public static boolean isEnabled()
+    {
+        return sEnabled;
+    }
+
+    /**
+     * 返回阶段的直方图
+     *
+     * @param stage {@link #STAGE_SIZE_READY}...{@link #STAGE_LISTENER}
+     * @return
+     */
+    public static FLatencyHistogram getHistogram(int stage)
+    {
+        return HISTOGRAMS[stage];
+    }
+
+    /**
+     * 返回阶段的快照
+     *
+     * @param stage
+     * @return
+     */
+    public static FLatencyHistogram.Snapshot snapshot(int stage)
+    {
+        return HISTOGRAMS[stage].snapshot();
+    }
+
+    /**
+     * 返回阶段的快照并清空
+     *
+     * @param stage
+     * @return
+     */
+    public static FLatencyHistogram.Snapshot snapshotAndReset(int stage)
+    {
+        return HISTOGRAMS[stage].snapshotAndReset();
+    }
+
+    /**
+     * 清空所有阶段
+     */
+    public static void reset()
+    {
+        for (FLatencyHistogram item : HISTOGRAMS)
+        {
+            item.reset();
+        }
+    }
+
+    /**
+     * 如果开启了统计，返回当前时间（纳秒），否则返回0
+     */
+    static long start()
+    {
+        return sEnabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * 记录从startNanos到现在的耗时，startNanos为0的时候不记录
+     */
+    static void record(int stage, long startNanos)
+    {
+        if (startNanos == 0)
+            return;
+        if (!sEnabled)
+            return;
+        HISTOGRAMS[stage].record(System.nanoTime() - startNanos);
+    }
+}
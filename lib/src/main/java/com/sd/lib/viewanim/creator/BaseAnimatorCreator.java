@@ -4,36 +4,167 @@ import android.animation.Animator;
 import android.animation.AnimatorListenerAdapter;
 import android.view.View;
 
-public abstract class BaseAnimatorCreator implements AnimatorCreator
+import com.sd.lib.viewanim.FAnimatorTrace;
+import com.sd.lib.viewanim.core.FTransitionMath;
+
+import java.util.List;
+
+public abstract class BaseAnimatorCreator implements ReusableAnimatorCreator
 {
+    /** 内置创建者的包名，这些类的参数都已经参与比较 */
+    private static final String BUILT_IN_PACKAGE = "com.sd.lib.viewanim.creator.";
+
+    private String mTraceCreateName;
+    private String mTraceUpdateName;
+
+    private volatile boolean mFrozen;
+
+    /**
+     * 冻结，之后修改参数会抛出{@link IllegalStateException}，包装的创建者也一起冻结
+     * <p>
+     * 放入{@link com.sd.lib.viewanim.FCreatorPool}的时候自动冻结，共享的实例和它的hashCode不会再变化
+     */
+    public final void freeze()
+    {
+        if (mFrozen)
+            return;
+
+        mFrozen = true;
+        onFreeze();
+    }
+
+    /**
+     * 是否已经冻结
+     *
+     * @return
+     */
+    public final boolean isFrozen()
+    {
+        return mFrozen;
+    }
+
+    /**
+     * 冻结的时候回调，包装其他创建者的子类在这里冻结被包装的创建者
+     */
+    protected void onFreeze()
+    {
+    }
+
+    /**
+     * 修改参数之前调用，如果已经冻结则抛出异常
+     */
+    protected final void checkNotFrozen()
+    {
+        if (mFrozen)
+            throw new IllegalStateException("creator is frozen and shared, create a new one instead: " + getClass().getName());
+    }
+
+    /**
+     * 是否按照参数比较相等，{@link com.sd.lib.viewanim.FCreatorPool}和{@link com.sd.lib.viewanim.FAnimatorSpecCompiler}会合并相等的实例
+     * <p>
+     * 默认只有本库内置的创建者返回true，其他子类按照对象本身比较，避免子类自己的参数没有参与比较，参数不同的实例被合并；
+     * 子类重写返回true的时候，需要同时重写equals和hashCode，把自己的参数加进去
+     *
+     * @return
+     */
+    protected boolean hasValueEquality()
+    {
+        return getClass().getName().startsWith(BUILT_IN_PACKAGE);
+    }
+
+    /**
+     * equals的公共判断：obj是同一个类，并且按照参数比较
+     *
+     * @param obj
+     * @return
+     */
+    protected final boolean isSameValueClass(Object obj)
+    {
+        return obj != null && obj.getClass() == getClass() && hasValueEquality();
+    }
+
+    /**
+     * 冻结创建者，不是{@link BaseAnimatorCreator}则不处理
+     *
+     * @param creator
+     */
+    protected static void freezeCreator(AnimatorCreator creator)
+    {
+        if (creator instanceof BaseAnimatorCreator)
+            ((BaseAnimatorCreator) creator).freeze();
+    }
+
     @Override
     public final Animator createAnimator(final boolean show, final View view)
     {
-        beforeCreateAnimator(show, view);
+        if (mTraceCreateName == null && FAnimatorTrace.isEnabled())
+            mTraceCreateName = "createAnimator:" + getClass().getName();
+
+        final boolean trace = FAnimatorTrace.beginSection(mTraceCreateName);
+        try
+        {
+            beforeCreateAnimator(show, view);
+
+            final Animator animator = onCreateAnimator(show, view);
+            if (animator != null)
+            {
+                animator.addListener(new CreatorListener(show, view));
+                onAnimatorCreated(show, view, animator);
+            }
+            return animator;
+        } finally
+        {
+            if (trace)
+                FAnimatorTrace.endSection();
+        }
+    }
+
+    @Override
+    public final boolean updateAnimator(boolean show, View view, Animator animator)
+    {
+        if (animator == null)
+            return false;
+
+        final CreatorListener listener = findCreatorListener(animator);
+        if (listener == null)
+            return false;
+
+        if (mTraceUpdateName == null && FAnimatorTrace.isEnabled())
+            mTraceUpdateName = "updateAnimator:" + getClass().getName();
+
+        final boolean trace = FAnimatorTrace.beginSection(mTraceUpdateName);
+        try
+        {
+            if (!onUpdateAnimator(show, view, animator))
+                return false;
+        } finally
+        {
+            if (trace)
+                FAnimatorTrace.endSection();
+        }
+
+        listener.mShow = show;
+        listener.mView = view;
+        return true;
+    }
+
+    private CreatorListener findCreatorListener(Animator animator)
+    {
+        final List<Animator.AnimatorListener> listeners = animator.getListeners();
+        if (listeners == null)
+            return null;
 
-        final Animator animator = onCreateAnimator(show, view);
-        if (animator != null)
+        for (int i = 0; i < listeners.size(); i++)
         {
-            animator.addListener(new AnimatorListenerAdapter()
+            final Animator.AnimatorListener item = listeners.get(i);
+            if (item instanceof CreatorListener)
             {
-                @Override
-                public void onAnimationStart(Animator animation)
-                {
-                    super.onAnimationStart(animation);
-                    BaseAnimatorCreator.this.onAnimationStart(show, view);
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation)
-                {
-                    super.onAnimationEnd(animation);
-                    animation.removeListener(this);
-                    BaseAnimatorCreator.this.onAnimationEnd(show, view);
-                }
-            });
-            onAnimatorCreated(show, view, animator);
+                final CreatorListener listener = (CreatorListener) item;
+                if (listener.getCreator() == this)
+                    return listener;
+            }
         }
-        return animator;
+        return null;
     }
 
     /**
@@ -67,6 +198,19 @@ public abstract class BaseAnimatorCreator implements AnimatorCreator
     {
     }
 
+    /**
+     * 更新之前创建的动画，默认不支持更新
+     *
+     * @param show
+     * @param view
+     * @param animator
+     * @return true-更新成功，false-不支持更新，需要重新创建动画
+     */
+    protected boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        return false;
+    }
+
     /**
      * 动画开始回调
      *
@@ -87,20 +231,110 @@ public abstract class BaseAnimatorCreator implements AnimatorCreator
     {
     }
 
+    /**
+     * 分发动画要创建之前的回调，用于动画不是由当前创建者创建的时候（例如被合并到其他创建者的动画中）
+     *
+     * @param show
+     * @param view
+     */
+    public final void dispatchBeforeCreateAnimator(boolean show, View view)
+    {
+        beforeCreateAnimator(show, view);
+    }
+
+    /**
+     * 分发动画开始回调，用于动画不是由当前创建者创建的时候（例如被合并到其他创建者的动画中）
+     *
+     * @param show
+     * @param view
+     */
+    public final void dispatchAnimationStart(boolean show, View view)
+    {
+        onAnimationStart(show, view);
+    }
+
+    /**
+     * 分发动画结束回调，用于动画不是由当前创建者创建的时候（例如被合并到其他创建者的动画中）
+     *
+     * @param show
+     * @param view
+     */
+    public final void dispatchAnimationEnd(boolean show, View view)
+    {
+        onAnimationEnd(show, view);
+    }
+
     protected static long getScaledDuration(float deltaValue, float maxValue, long maxDuration)
     {
-        if (maxDuration <= 0)
-            return 0;
-        if (maxValue == 0)
-            return 0;
-        if (deltaValue == 0)
-            return 0;
+        return FTransitionMath.getScaledDuration(deltaValue, maxValue, maxDuration);
+    }
+
+    /**
+     * 比较两个对象是否相等，可以为null
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    protected static boolean isEquals(Object a, Object b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * 查找动画上指定类型的监听
+     *
+     * @param animator
+     * @param clazz
+     * @param <T>
+     * @return
+     */
+    protected static <T extends Animator.AnimatorListener> T findListener(Animator animator, Class<T> clazz)
+    {
+        final List<Animator.AnimatorListener> listeners = animator.getListeners();
+        if (listeners == null)
+            return null;
+
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            final Animator.AnimatorListener item = listeners.get(i);
+            if (clazz.isInstance(item))
+                return clazz.cast(item);
+        }
+        return null;
+    }
+
+    /**
+     * 每个动画只创建一次，复用动画的时候更新参数，不需要重新创建
+     */
+    private final class CreatorListener extends AnimatorListenerAdapter
+    {
+        private boolean mShow;
+        private View mView;
 
-        final float percent = Math.abs(deltaValue / maxValue);
-        long duration = (long) (percent * maxDuration);
-        if (duration > maxDuration)
-            return maxDuration;
+        public CreatorListener(boolean show, View view)
+        {
+            mShow = show;
+            mView = view;
+        }
 
-        return duration;
+        public BaseAnimatorCreator getCreator()
+        {
+            return BaseAnimatorCreator.this;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            super.onAnimationStart(animation);
+            BaseAnimatorCreator.this.onAnimationStart(mShow, mView);
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            BaseAnimatorCreator.this.onAnimationEnd(mShow, mView);
+        }
     }
 }
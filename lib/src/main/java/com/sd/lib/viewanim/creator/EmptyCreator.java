@@ -10,4 +10,16 @@ public final class EmptyCreator implements AnimatorCreator
     {
         return null;
     }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return obj instanceof EmptyCreator;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return EmptyCreator.class.hashCode();
+    }
 }
@@ -0,0 +1,20 @@
+package com.sd.lib.viewanim.creator;
+
+import android.animation.Animator;
+import android.view.View;
+
+/**
+ * 支持复用动画的创建者
+ */
+public interface ReusableAnimatorCreator extends AnimatorCreator
+{
+    /**
+     * 更新之前由{@link #createAnimator(boolean, View)}创建的动画，使其可以再次执行
+     *
+     * @param show     true-显示，false-隐藏
+     * @param view     动画view
+     * @param animator 要更新的动画
+     * @return true-更新成功，false-不支持更新，需要重新创建动画
+     */
+    boolean updateAnimator(boolean show, View view, Animator animator);
+}
@@ -0,0 +1,135 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.animation.TimeInterpolator;
+import android.content.Context;
+import android.view.View;
+
+import com.sd.lib.viewanim.FAnimatorPolicy;
+import com.sd.lib.viewanim.FChoreographerEngine;
+
+/**
+ * 把{@link FChoreographerEngine}中的过渡动画包装成{@link Animator}，监听的回调和普通动画一致
+ */
+final class ChoreographerAnimator extends SelfDrivenAnimator
+{
+    private final TransitionPlan mPlan;
+
+    private long mDuration = -1;
+    private TimeInterpolator mInterpolator;
+
+    public ChoreographerAnimator(TransitionPlan plan)
+    {
+        mPlan = plan;
+    }
+
+    public TransitionPlan getPlan()
+    {
+        return mPlan;
+    }
+
+    /**
+     * 设置动画时长，小于0则使用计划中每个属性的时长
+     */
+    @Override
+    public Animator setDuration(long duration)
+    {
+        mDuration = duration;
+        return this;
+    }
+
+    @Override
+    public long getDuration()
+    {
+        return mDuration >= 0 ? mDuration : mPlan.getDuration();
+    }
+
+    @Override
+    public void setInterpolator(TimeInterpolator interpolator)
+    {
+        mInterpolator = interpolator;
+    }
+
+    @Override
+    public TimeInterpolator getInterpolator()
+    {
+        return mInterpolator;
+    }
+
+    @Override
+    public void start()
+    {
+        if (isStarted())
+            cancel();
+
+        setStarted(true);
+
+        // 设置开始值
+        mPlan.apply(0);
+        notifyStart();
+        if (!isStarted())
+            return;
+
+        // 不是ValueAnimator，系统不会缩放时长，按照全局策略缩放
+        final View view = mPlan.getView();
+        final Context context = view.getContext();
+        if (!FAnimatorPolicy.isAnimatorEnabled(context))
+        {
+            end();
+            return;
+        }
+
+        final FChoreographerEngine engine = FChoreographerEngine.getInstance();
+        final long startDelay = FAnimatorPolicy.scaleDuration(context, getStartDelay());
+        for (int i = 0; i < mPlan.getTrackCount(); i++)
+        {
+            final long duration = mDuration >= 0 ? mDuration : mPlan.getTrackDuration(i);
+            final TimeInterpolator interpolator = mInterpolator != null ? mInterpolator : mPlan.getInterpolator(i);
+            engine.addTrack(mTransition, view, mPlan.getProperty(i),
+                    mPlan.getValueStart(i), mPlan.getValueEnd(i),
+                    startDelay, FAnimatorPolicy.scaleDuration(context, duration), interpolator);
+        }
+    }
+
+    @Override
+    public void cancel()
+    {
+        if (!isStarted())
+            return;
+
+        FChoreographerEngine.getInstance().removeTransition(mTransition);
+        setStarted(false);
+        notifyCancel();
+        notifyEnd();
+    }
+
+    @Override
+    public void end()
+    {
+        if (!isStarted())
+        {
+            setStarted(true);
+            notifyStart();
+            if (!isStarted())
+                return;
+        }
+
+        FChoreographerEngine.getInstance().removeTransition(mTransition);
+        mPlan.apply(Float.MAX_VALUE);
+        setStarted(false);
+        notifyEnd();
+    }
+
+    private final FChoreographerEngine.Transition mTransition = new FChoreographerEngine.Transition()
+    {
+        @Override
+        protected void onTransitionEnd()
+        {
+            if (!isStarted())
+                return;
+
+            setStarted(false);
+            notifyEnd();
+        }
+    };
+}
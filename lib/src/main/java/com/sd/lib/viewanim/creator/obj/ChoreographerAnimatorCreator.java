@@ -0,0 +1,103 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.view.View;
+
+import com.sd.lib.viewanim.FChoreographerEngine;
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+
+/**
+ * 使用{@link FChoreographerEngine}执行动画，进程内所有动画由同一个帧回调驱动
+ * <p>
+ * 原创建者会先被{@link CompiledCreator}合并编译，如果合并失败，则使用{@link CompiledCreator}创建动画
+ */
+public class ChoreographerAnimatorCreator extends BaseAnimatorCreator
+{
+    private final CompiledCreator mCreator;
+
+    public ChoreographerAnimatorCreator(AnimatorCreator creator)
+    {
+        if (creator == null)
+            throw new NullPointerException("creator is null");
+
+        mCreator = creator instanceof CompiledCreator ? (CompiledCreator) creator : new CompiledCreator(creator);
+    }
+
+    @Override
+    protected void beforeCreateAnimator(boolean show, View view)
+    {
+        super.beforeCreateAnimator(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchBeforeCreateAnimator(show, view);
+    }
+
+    @Override
+    protected final Animator onCreateAnimator(boolean show, View view)
+    {
+        if (!mCreator.isCompiled())
+            return mCreator.createAnimator(show, view);
+
+        final TransitionPlan plan = new TransitionPlan(mCreator.getProperties());
+        mCreator.plan(show, view, plan);
+        return new ChoreographerAnimator(plan);
+    }
+
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (!mCreator.isCompiled())
+            return mCreator.updateAnimator(show, view, animator);
+
+        if (!(animator instanceof ChoreographerAnimator))
+            return false;
+
+        mCreator.plan(show, view, ((ChoreographerAnimator) animator).getPlan());
+        return true;
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        mCreator.freeze();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final ChoreographerAnimatorCreator other = (ChoreographerAnimatorCreator) obj;
+        return mCreator.equals(other.mCreator);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = 31 * getClass().hashCode() + mCreator.hashCode();
+        return result;
+    }
+
+    @Override
+    protected void onAnimationStart(boolean show, View view)
+    {
+        super.onAnimationStart(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchAnimationStart(show, view);
+    }
+
+    @Override
+    protected void onAnimationEnd(boolean show, View view)
+    {
+        super.onAnimationEnd(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchAnimationEnd(show, view);
+    }
+}
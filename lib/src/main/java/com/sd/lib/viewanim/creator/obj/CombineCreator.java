@@ -1,11 +1,15 @@
 package com.sd.lib.viewanim.creator.obj;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.AnimatorSet;
 import android.view.View;
 
 import com.sd.lib.viewanim.creator.AnimatorCreator;
 import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
+
+import java.util.Arrays;
 
 public class CombineCreator extends BaseAnimatorCreator
 {
@@ -34,6 +38,7 @@ public class CombineCreator extends BaseAnimatorCreator
     {
         final AnimatorCreator[] creators = getCreators();
         final AnimatorSet animatorSet = new AnimatorSet();
+        final Animator[] children = new Animator[creators.length];
 
         Animator mLast = null;
         for (int i = 0; i < creators.length; i++)
@@ -48,11 +53,13 @@ public class CombineCreator extends BaseAnimatorCreator
                 animatorSet.play(mLast).with(animator);
 
             mLast = animator;
+            children[i] = animator;
         }
 
         if (mLast == null)
             return null;
 
+        animatorSet.addListener(new ChildrenHolder(children));
         return animatorSet;
     }
 
@@ -61,4 +68,75 @@ public class CombineCreator extends BaseAnimatorCreator
     {
         return getAnimator(show, view);
     }
+
+    @Override
+    protected boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        final ChildrenHolder holder = findListener(animator, ChildrenHolder.class);
+        if (holder == null)
+            return false;
+
+        final AnimatorCreator[] creators = getCreators();
+        final Animator[] children = holder.mChildren;
+        if (children.length != creators.length)
+            return false;
+
+        for (int i = 0; i < creators.length; i++)
+        {
+            final AnimatorCreator creator = creators[i];
+            final Animator child = children[i];
+            if (child == null)
+                return false;
+
+            if (!(creator instanceof ReusableAnimatorCreator))
+                return false;
+
+            if (!((ReusableAnimatorCreator) creator).updateAnimator(show, view, child))
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        for (AnimatorCreator item : mCreators)
+        {
+            freezeCreator(item);
+        }
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        return Arrays.equals(mCreators, ((CombineCreator) obj).mCreators);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        return 31 * getClass().hashCode() + Arrays.hashCode(mCreators);
+    }
+
+    /**
+     * 保存每个创建者对应的子动画
+     */
+    private static final class ChildrenHolder extends AnimatorListenerAdapter
+    {
+        private final Animator[] mChildren;
+
+        public ChildrenHolder(Animator[] children)
+        {
+            mChildren = children;
+        }
+    }
 }
@@ -0,0 +1,445 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.view.View;
+import android.view.animation.LinearInterpolator;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+import com.sd.lib.viewanim.creator.EmptyCreator;
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 把{@link CombineCreator}，{@link PivotCreator}，{@link PivotPercentCreator}，{@link ObjectAnimatorCreator}组成的创建者合并编译，
+ * 只创建一个动画，每一帧同时设置所有属性，所有节点的开始和结束回调由同一个监听分发
+ * <p>
+ * 如果包含不支持合并的创建者，则直接使用原创建者创建动画
+ * <p>
+ * 注意：被合并的节点不会回调{@link BaseAnimatorCreator#onAnimatorCreated(boolean, View, Animator)}
+ */
+public class CompiledCreator extends BaseAnimatorCreator
+{
+    private static final TimeInterpolator LINEAR_INTERPOLATOR = new LinearInterpolator();
+
+    private final AnimatorCreator mCreator;
+
+    private final ObjectAnimatorCreator[] mTracks;
+    private final FloatProperty<View>[] mProperties;
+    private final BaseAnimatorCreator[] mNodes;
+    private final int mPropertyFlags;
+
+    @SuppressWarnings("unchecked")
+    public CompiledCreator(AnimatorCreator creator)
+    {
+        if (creator == null)
+            throw new NullPointerException("creator is null");
+
+        mCreator = creator;
+
+        final List<ObjectAnimatorCreator> tracks = new ArrayList<>();
+        final List<BaseAnimatorCreator> nodes = new ArrayList<>();
+        if (collect(creator, tracks, nodes) && tracks.size() > 0)
+        {
+            mTracks = tracks.toArray(new ObjectAnimatorCreator[tracks.size()]);
+            mNodes = nodes.toArray(new BaseAnimatorCreator[nodes.size()]);
+            @SuppressWarnings("unchecked")
+            final FloatProperty<View>[] properties = (FloatProperty<View>[]) new FloatProperty<?>[mTracks.length];
+            mProperties = properties;
+
+            int flags = 0;
+            for (int i = 0; i < mTracks.length; i++)
+            {
+                mProperties[i] = mTracks[i].resolveProperty();
+                flags |= ViewProperty.getFlag(mProperties[i]);
+            }
+            mPropertyFlags = flags;
+        } else
+        {
+            mTracks = null;
+            mNodes = null;
+            mProperties = null;
+            mPropertyFlags = creator instanceof EmptyCreator ? 0 : ViewProperty.FLAG_OTHER;
+        }
+    }
+
+    /**
+     * 是否合并编译成功
+     *
+     * @return
+     */
+    public final boolean isCompiled()
+    {
+        return mTracks != null;
+    }
+
+    /**
+     * 返回动画会修改的属性标识，如果合并编译失败，则包含{@link ViewProperty#FLAG_OTHER}
+     *
+     * @return {@link ViewProperty#getFlag(FloatProperty)}的组合
+     */
+    public final int getPropertyFlags()
+    {
+        return mPropertyFlags;
+    }
+
+    /**
+     * 返回创建者的动画会修改的属性标识
+     *
+     * @param creator
+     * @return {@link #getPropertyFlags()}
+     */
+    public static int getPropertyFlags(AnimatorCreator creator)
+    {
+        if (creator == null || creator instanceof EmptyCreator)
+            return 0;
+
+        final CompiledCreator compiledCreator = creator instanceof CompiledCreator ? (CompiledCreator) creator : new CompiledCreator(creator);
+        return compiledCreator.getPropertyFlags();
+    }
+
+    @Override
+    protected void beforeCreateAnimator(boolean show, View view)
+    {
+        super.beforeCreateAnimator(show, view);
+        if (mNodes != null)
+        {
+            for (BaseAnimatorCreator item : mNodes)
+            {
+                item.dispatchBeforeCreateAnimator(show, view);
+            }
+        }
+    }
+
+    @Override
+    protected final Animator onCreateAnimator(boolean show, View view)
+    {
+        if (!isCompiled())
+            return mCreator.createAnimator(show, view);
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0.0f, 1.0f);
+        animator.setInterpolator(LINEAR_INTERPOLATOR);
+
+        final PlanUpdater updater = new PlanUpdater(new TransitionPlan(mProperties));
+        animator.addUpdateListener(updater);
+        animator.addListener(updater);
+
+        plan(show, view, animator, updater.mPlan);
+        return animator;
+    }
+
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (!isCompiled())
+        {
+            if (mCreator instanceof ReusableAnimatorCreator)
+                return ((ReusableAnimatorCreator) mCreator).updateAnimator(show, view, animator);
+            return false;
+        }
+
+        if (!(animator instanceof ValueAnimator))
+            return false;
+
+        final PlanUpdater updater = findListener(animator, PlanUpdater.class);
+        if (updater == null)
+            return false;
+
+        plan(show, view, (ValueAnimator) animator, updater.mPlan);
+        return true;
+    }
+
+    /**
+     * 创建同时驱动多个View的动画，所有View的属性由同一个动画在每一帧计算，第index个View延迟index*stagger开始
+     * <p>
+     * 每个View都会分发一次节点的回调
+     *
+     * @param show
+     * @param views
+     * @param stagger 相邻View开始的时间间隔（毫秒）
+     * @return null-合并编译失败
+     */
+    public final Animator createGroupAnimator(boolean show, View[] views, long stagger)
+    {
+        if (!isCompiled())
+            return null;
+
+        if (views == null || views.length <= 0)
+            return null;
+
+        if (stagger < 0)
+            stagger = 0;
+
+        final TransitionPlan[] plans = new TransitionPlan[views.length];
+        final long[] offsets = new long[views.length];
+
+        long duration = 0;
+        for (int i = 0; i < views.length; i++)
+        {
+            final View view = views[i];
+            beforeCreateAnimator(show, view);
+
+            final TransitionPlan plan = new TransitionPlan(mProperties);
+            plan(show, view, plan);
+
+            plans[i] = plan;
+            offsets[i] = i * stagger;
+            duration = Math.max(duration, offsets[i] + plan.getDuration());
+        }
+
+        final ValueAnimator animator = ValueAnimator.ofFloat(0.0f, 1.0f);
+        animator.setInterpolator(LINEAR_INTERPOLATOR);
+        animator.setDuration(duration);
+
+        final GroupUpdater updater = new GroupUpdater(show, plans, offsets, duration);
+        animator.addUpdateListener(updater);
+        animator.addListener(updater);
+        return animator;
+    }
+
+    private void plan(boolean show, View view, ValueAnimator animator, TransitionPlan plan)
+    {
+        plan(show, view, plan);
+        animator.setDuration(plan.getDuration());
+    }
+
+    /**
+     * 计算所有属性的动画计划，只有合并编译成功才可以调用
+     */
+    final void plan(boolean show, View view, TransitionPlan plan)
+    {
+        plan.setView(view);
+        for (int i = 0; i < mTracks.length; i++)
+        {
+            mTracks[i].planTrack(show, view, plan, i);
+        }
+        plan.finishPlan();
+    }
+
+    /**
+     * 所有属性在这个方向的插值器是否相同，只有合并编译成功才可以调用
+     */
+    final boolean hasSameInterpolator(boolean show)
+    {
+        final TimeInterpolator interpolator = mTracks[0].getInterpolator(show);
+        for (int i = 1; i < mTracks.length; i++)
+        {
+            if (!isEquals(interpolator, mTracks[i].getInterpolator(show)))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * 返回所有属性，只有合并编译成功才可以调用
+     */
+    final FloatProperty<View>[] getProperties()
+    {
+        return mProperties;
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        freezeCreator(mCreator);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final CompiledCreator other = (CompiledCreator) obj;
+        return mCreator.equals(other.mCreator);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = 31 * getClass().hashCode() + mCreator.hashCode();
+        return result;
+    }
+
+    @Override
+    protected void onAnimationStart(boolean show, View view)
+    {
+        super.onAnimationStart(show, view);
+        if (mNodes != null)
+        {
+            for (BaseAnimatorCreator item : mNodes)
+            {
+                item.dispatchAnimationStart(show, view);
+            }
+        }
+    }
+
+    @Override
+    protected void onAnimationEnd(boolean show, View view)
+    {
+        super.onAnimationEnd(show, view);
+        if (mNodes != null)
+        {
+            for (BaseAnimatorCreator item : mNodes)
+            {
+                item.dispatchAnimationEnd(show, view);
+            }
+        }
+    }
+
+    /**
+     * 收集所有属性动画节点和回调节点，子节点在父节点之前
+     *
+     * @return false-包含不支持合并的节点
+     */
+    private static boolean collect(AnimatorCreator creator, List<ObjectAnimatorCreator> tracks, List<BaseAnimatorCreator> nodes)
+    {
+        if (creator instanceof ObjectAnimatorCreator)
+        {
+            final ObjectAnimatorCreator item = (ObjectAnimatorCreator) creator;
+            if (item.resolveProperty() == null)
+                return false;
+
+            tracks.add(item);
+            nodes.add(item);
+            return true;
+        }
+
+        if (creator instanceof CombineCreator)
+        {
+            final CombineCreator item = (CombineCreator) creator;
+            if (isOverridden(item.getClass(), CombineCreator.class, "onCreateAnimator"))
+                return false;
+
+            for (AnimatorCreator child : item.getCreators())
+            {
+                if (!collect(child, tracks, nodes))
+                    return false;
+            }
+            nodes.add(item);
+            return true;
+        }
+
+        if (creator instanceof PivotCreator)
+        {
+            final PivotCreator item = (PivotCreator) creator;
+            if (!collect(item.getCreator(), tracks, nodes))
+                return false;
+
+            nodes.add(item);
+            return true;
+        }
+
+        if (creator instanceof PivotPercentCreator)
+        {
+            final PivotPercentCreator item = (PivotPercentCreator) creator;
+            if (!collect(item.getPivotCreator(), tracks, nodes))
+                return false;
+
+            nodes.add(item);
+            return true;
+        }
+
+        if (creator instanceof CompiledCreator)
+            return collect(((CompiledCreator) creator).mCreator, tracks, nodes);
+
+        return false;
+    }
+
+    /**
+     * 子类是否重写了base中的某个方法
+     */
+    private static boolean isOverridden(Class<?> clazz, Class<?> base, String methodName)
+    {
+        while (clazz != null && clazz != base)
+        {
+            try
+            {
+                clazz.getDeclaredMethod(methodName, boolean.class, View.class);
+                return true;
+            } catch (NoSuchMethodException e)
+            {
+                clazz = clazz.getSuperclass();
+            }
+        }
+        return false;
+    }
+
+    private static final class PlanUpdater extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener
+    {
+        private final TransitionPlan mPlan;
+
+        public PlanUpdater(TransitionPlan plan)
+        {
+            mPlan = plan;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation)
+        {
+            final float playTime = animation.getAnimatedFraction() * mPlan.getDuration();
+            mPlan.apply(playTime);
+        }
+    }
+
+    private final class GroupUpdater extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener
+    {
+        private final boolean mShow;
+        private final TransitionPlan[] mPlans;
+        private final long[] mOffsets;
+        private final long mDuration;
+
+        public GroupUpdater(boolean show, TransitionPlan[] plans, long[] offsets, long duration)
+        {
+            mShow = show;
+            mPlans = plans;
+            mOffsets = offsets;
+            mDuration = duration;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            super.onAnimationStart(animation);
+            for (TransitionPlan item : mPlans)
+            {
+                CompiledCreator.this.onAnimationStart(mShow, item.getView());
+            }
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            for (TransitionPlan item : mPlans)
+            {
+                CompiledCreator.this.onAnimationEnd(mShow, item.getView());
+            }
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation)
+        {
+            final float playTime = animation.getAnimatedFraction() * mDuration;
+            for (int i = 0; i < mPlans.length; i++)
+            {
+                // 还未轮到的View停留在开始值
+                final float itemPlayTime = playTime - mOffsets[i];
+                mPlans[i].apply(itemPlayTime > 0 ? itemPlayTime : 0);
+            }
+        }
+    }
+}
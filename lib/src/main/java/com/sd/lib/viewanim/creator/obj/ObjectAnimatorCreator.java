@@ -1,32 +1,210 @@
 package com.sd.lib.viewanim.creator.obj;
 
 import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
 import android.animation.ObjectAnimator;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
 import android.view.View;
 
+import com.sd.lib.viewanim.FEasingInterpolator;
+import com.sd.lib.viewanim.core.FTransitionMath;
 import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
 
 public abstract class ObjectAnimatorCreator extends BaseAnimatorCreator
 {
+    private TimeInterpolator mShowInterpolator;
+    private TimeInterpolator mHideInterpolator;
+    private long mDuration = 200;
+
+    /**
+     * 设置从隐藏值到显示值的动画时长，默认200毫秒
+     *
+     * @param duration 毫秒
+     * @return
+     */
+    public ObjectAnimatorCreator setDuration(long duration)
+    {
+        if (duration < 0)
+            throw new IllegalArgumentException("duration must be >= 0");
+        checkNotFrozen();
+        mDuration = duration;
+        return this;
+    }
+
+    /**
+     * 设置显示和隐藏的插值器，默认先加速后减速
+     *
+     * @param interpolator null-默认
+     * @return
+     */
+    public ObjectAnimatorCreator setInterpolator(TimeInterpolator interpolator)
+    {
+        checkNotFrozen();
+        mShowInterpolator = interpolator;
+        mHideInterpolator = interpolator;
+        return this;
+    }
+
+    /**
+     * 设置显示的插值器
+     *
+     * @param interpolator null-默认
+     * @return
+     */
+    public ObjectAnimatorCreator setShowInterpolator(TimeInterpolator interpolator)
+    {
+        checkNotFrozen();
+        mShowInterpolator = interpolator;
+        return this;
+    }
+
+    /**
+     * 设置隐藏的插值器
+     *
+     * @param interpolator null-默认
+     * @return
+     */
+    public ObjectAnimatorCreator setHideInterpolator(TimeInterpolator interpolator)
+    {
+        checkNotFrozen();
+        mHideInterpolator = interpolator;
+        return this;
+    }
+
     @Override
     protected final Animator onCreateAnimator(boolean show, View view)
     {
+        final FloatProperty<View> property = resolveProperty();
+        if (property != null)
+        {
+            final ValueAnimator animator = ValueAnimator.ofFloat(0.0f, 1.0f);
+
+            final PropertyUpdater updater = new PropertyUpdater(property);
+            animator.addUpdateListener(updater);
+            animator.addListener(updater);
+
+            setValues(show, view, animator, updater);
+            return animator;
+        }
+
+        final String propertyName = getPropertyName();
+        if (propertyName == null)
+            throw new RuntimeException("getProperty() or getPropertyName() must be overridden");
+
         final ObjectAnimator animator = new ObjectAnimator();
-        animator.setPropertyName(getPropertyName());
+        animator.setPropertyName(propertyName);
+
+        final ValuesHolder holder = new ValuesHolder();
+        animator.addListener(holder);
+
+        setValues(show, view, animator, holder);
+        return animator;
+    }
 
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (!(animator instanceof ValueAnimator))
+            return false;
+
+        final PropertyUpdater updater = findListener(animator, PropertyUpdater.class);
+        if (updater != null)
+        {
+            setValues(show, view, (ValueAnimator) animator, updater);
+            return true;
+        }
+
+        if (!(animator instanceof ObjectAnimator))
+            return false;
+
+        final ValuesHolder holder = findListener(animator, ValuesHolder.class);
+        if (holder == null)
+            return false;
+
+        setValues(show, view, (ObjectAnimator) animator, holder);
+        return true;
+    }
+
+    private void setValues(boolean show, View view, ValueAnimator animator, PropertyUpdater updater)
+    {
+        final float valueHidden = getValueHidden(view);
+        final float valueShown = getValueShown(view);
+        final float valueStart = FTransitionMath.getValueStart(show, valueHidden, getValueCurrent(view));
+        final float valueEnd = FTransitionMath.getValueEnd(show, valueHidden, valueShown);
+
+        updater.setValues(view, valueStart, valueEnd);
+
+        final long duration = getScaledDuration(valueStart - valueEnd, valueShown - valueHidden, getDuration());
+        animator.setDuration(duration);
+        animator.setInterpolator(getAnimatorInterpolator(show));
+    }
+
+    private void setValues(boolean show, View view, ObjectAnimator animator, ValuesHolder holder)
+    {
         final float valueHidden = getValueHidden(view);
         final float valueShown = getValueShown(view);
-        final float[] values = show ? new float[]{valueHidden, valueShown} : new float[]{getValueCurrent(view), valueHidden};
-        animator.setFloatValues(values);
+        final float valueStart = FTransitionMath.getValueStart(show, valueHidden, getValueCurrent(view));
+        final float valueEnd = FTransitionMath.getValueEnd(show, valueHidden, valueShown);
+
+        if (holder.setValues(valueStart, valueEnd))
+            animator.setFloatValues(valueStart, valueEnd);
 
-        final long duration = getScaledDuration(values[0] - values[1], valueShown - valueHidden, getDuration());
+        final long duration = getScaledDuration(valueStart - valueEnd, valueShown - valueHidden, getDuration());
         animator.setDuration(duration);
+        animator.setInterpolator(getAnimatorInterpolator(show));
 
         animator.setTarget(view);
-        return animator;
     }
 
-    protected abstract String getPropertyName();
+    /**
+     * 计算动画的开始值，结束值和时长，保存到plan的index位置
+     */
+    final void planTrack(boolean show, View view, TransitionPlan plan, int index)
+    {
+        plan.planTrack(index, show, getValueHidden(view), getValueShown(view), getValueCurrent(view), getDuration(), getInterpolator(show));
+    }
+
+    private TimeInterpolator getAnimatorInterpolator(boolean show)
+    {
+        final TimeInterpolator interpolator = getInterpolator(show);
+        return interpolator != null ? interpolator : FEasingInterpolator.ACCELERATE_DECELERATE;
+    }
+
+    final FloatProperty<View> resolveProperty()
+    {
+        final FloatProperty<View> property = getProperty();
+        if (property != null)
+            return property;
+
+        return ViewProperty.forName(getPropertyName());
+    }
+
+    /**
+     * 返回动画的属性，动画每一帧直接调用{@link FloatProperty#setValue(Object, float)}设置属性值
+     * <p>
+     * 如果返回null，则使用{@link #getPropertyName()}
+     *
+     * @return
+     */
+    protected FloatProperty<View> getProperty()
+    {
+        return null;
+    }
+
+    /**
+     * 返回动画的属性名称，如果{@link #getProperty()}返回null才会使用这个名称
+     * <p>
+     * 如果名称不是{@link ViewProperty}中的常用属性，则通过反射设置属性值
+     *
+     * @return
+     */
+    protected String getPropertyName()
+    {
+        return null;
+    }
 
     /**
      * 返回动画执行到于隐藏状态的值
@@ -53,12 +231,107 @@ public abstract class ObjectAnimatorCreator extends BaseAnimatorCreator
     protected abstract float getValueCurrent(View view);
 
     /**
-     * 返回动画时长，默认200毫秒
+     * 返回插值器，默认返回设置的插值器，为null则使用先加速后减速
+     * <p>
+     * 建议使用{@link FEasingInterpolator}，每一帧的计算量固定
+     *
+     * @param show
+     * @return
+     */
+    protected TimeInterpolator getInterpolator(boolean show)
+    {
+        return show ? mShowInterpolator : mHideInterpolator;
+    }
+
+    /**
+     * 返回动画时长，默认返回{@link #setDuration(long)}设置的时长
      *
      * @return
      */
     protected long getDuration()
     {
-        return 200;
+        return mDuration;
+    }
+
+    /**
+     * 按照参数比较的时候（见{@link #hasValueEquality()}），同一个类，并且时长和插值器相同则相等
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final ObjectAnimatorCreator other = (ObjectAnimatorCreator) obj;
+        return mDuration == other.mDuration
+                && isEquals(mShowInterpolator, other.mShowInterpolator)
+                && isEquals(mHideInterpolator, other.mHideInterpolator);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = getClass().hashCode();
+        result = 31 * result + (int) (mDuration ^ (mDuration >>> 32));
+        result = 31 * result + (mShowInterpolator == null ? 0 : mShowInterpolator.hashCode());
+        result = 31 * result + (mHideInterpolator == null ? 0 : mHideInterpolator.hashCode());
+        return result;
+    }
+
+    /**
+     * 根据动画进度设置属性值
+     */
+    private static final class PropertyUpdater extends AnimatorListenerAdapter implements ValueAnimator.AnimatorUpdateListener
+    {
+        private final FloatProperty<View> mProperty;
+
+        private View mView;
+        private float mValueStart;
+        private float mValueEnd;
+
+        public PropertyUpdater(FloatProperty<View> property)
+        {
+            mProperty = property;
+        }
+
+        public void setValues(View view, float valueStart, float valueEnd)
+        {
+            mView = view;
+            mValueStart = valueStart;
+            mValueEnd = valueEnd;
+        }
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation)
+        {
+            final float fraction = animation.getAnimatedFraction();
+            mProperty.setValue(mView, FTransitionMath.lerp(mValueStart, mValueEnd, fraction));
+        }
+    }
+
+    /**
+     * 保存动画当前的开始值和结束值，值没有变化的时候不需要重新设置
+     */
+    private static final class ValuesHolder extends AnimatorListenerAdapter
+    {
+        private boolean mHasValues;
+        private float mValueStart;
+        private float mValueEnd;
+
+        public boolean setValues(float valueStart, float valueEnd)
+        {
+            if (mHasValues && mValueStart == valueStart && mValueEnd == valueEnd)
+                return false;
+
+            mHasValues = true;
+            mValueStart = valueStart;
+            mValueEnd = valueEnd;
+            return true;
+        }
     }
 }
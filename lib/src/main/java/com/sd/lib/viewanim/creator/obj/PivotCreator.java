@@ -3,36 +3,60 @@ package com.sd.lib.viewanim.creator.obj;
 import android.animation.Animator;
 import android.view.View;
 
+import com.sd.lib.viewanim.R;
 import com.sd.lib.viewanim.creator.AnimatorCreator;
 import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
 
 /**
  * 在动画开始的时候修改view的锚点，动画结束后还原view的锚点
+ * <p>
+ * 原始锚点保存在View上，同一个创建者可以同时给多个View使用
  */
 public class PivotCreator extends BaseAnimatorCreator
 {
-    private final AnimatorCreator mCreator;
-
-    private PivotProvider mPivotProviderX;
-    private PivotProvider mPivotProviderY;
-
-    private PivotHolder mPivotHolder;
+    /**
+     * 默认使用View当前的锚点
+     */
+    private static final PivotProvider DEFAULT_PIVOT_PROVIDER_X = new PivotProvider()
+    {
+        @Override
+        public float getPivot(boolean show, View view)
+        {
+            return view.getPivotX();
+        }
+    };
+    private static final PivotProvider DEFAULT_PIVOT_PROVIDER_Y = new PivotProvider()
+    {
+        @Override
+        public float getPivot(boolean show, View view)
+        {
+            return view.getPivotY();
+        }
+    };
 
+    private final AnimatorCreator mCreator;
+    private final PivotProvider mPivotProviderX;
+    private final PivotProvider mPivotProviderY;
+
+    /**
+     * @param creator
+     * @param pivotProviderX null-使用View当前的锚点
+     * @param pivotProviderY null-使用View当前的锚点
+     */
     public PivotCreator(AnimatorCreator creator, PivotProvider pivotProviderX, PivotProvider pivotProviderY)
     {
         if (creator == null)
             throw new NullPointerException("creator is null");
 
         mCreator = creator;
-        mPivotProviderX = pivotProviderX;
-        mPivotProviderY = pivotProviderY;
+        mPivotProviderX = pivotProviderX != null ? pivotProviderX : DEFAULT_PIVOT_PROVIDER_X;
+        mPivotProviderY = pivotProviderY != null ? pivotProviderY : DEFAULT_PIVOT_PROVIDER_Y;
     }
 
-    protected final PivotHolder getPivotHolder()
+    final AnimatorCreator getCreator()
     {
-        if (mPivotHolder == null)
-            mPivotHolder = new PivotHolder();
-        return mPivotHolder;
+        return mCreator;
     }
 
     @Override
@@ -41,54 +65,101 @@ public class PivotCreator extends BaseAnimatorCreator
         return mCreator.createAnimator(show, view);
     }
 
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (mCreator instanceof ReusableAnimatorCreator)
+            return ((ReusableAnimatorCreator) mCreator).updateAnimator(show, view, animator);
+        return false;
+    }
+
     @Override
     protected void onAnimationStart(boolean show, View view)
     {
         super.onAnimationStart(show, view);
-        if (mPivotProviderX == null)
-        {
-            mPivotProviderX = new PivotProvider()
-            {
-                @Override
-                public float getPivot(boolean show, View view)
-                {
-                    return view.getPivotX();
-                }
-            };
-        }
-        if (mPivotProviderY == null)
-        {
-            mPivotProviderY = new PivotProvider()
-            {
-                @Override
-                public float getPivot(boolean show, View view)
-                {
-                    return view.getPivotY();
-                }
-            };
-        }
+        if (view == null)
+            return;
 
-        getPivotHolder().setPivotXY(mPivotProviderX.getPivot(show, view), mPivotProviderY.getPivot(show, view), view);
+        getPivotHolder(view).setPivotXY(mPivotProviderX.getPivot(show, view), mPivotProviderY.getPivot(show, view), view);
     }
 
     @Override
     protected void onAnimationEnd(boolean show, View view)
     {
         super.onAnimationEnd(show, view);
-        getPivotHolder().restore(view);
+        if (view == null)
+            return;
+
+        final Object tag = view.getTag(R.id.lib_viewanim_pivot_holder);
+        if (tag instanceof PivotHolder)
+            ((PivotHolder) tag).restore(view);
     }
 
-    private static class PivotHolder
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        freezeCreator(mCreator);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final PivotCreator other = (PivotCreator) obj;
+        return mCreator.equals(other.mCreator)
+                && mPivotProviderX.equals(other.mPivotProviderX)
+                && mPivotProviderY.equals(other.mPivotProviderY);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = getClass().hashCode();
+        result = 31 * result + mCreator.hashCode();
+        result = 31 * result + mPivotProviderX.hashCode();
+        result = 31 * result + mPivotProviderY.hashCode();
+        return result;
+    }
+
+    /**
+     * 返回View上保存原始锚点的对象，每个View只创建一次
+     */
+    private static PivotHolder getPivotHolder(View view)
+    {
+        final Object tag = view.getTag(R.id.lib_viewanim_pivot_holder);
+        if (tag instanceof PivotHolder)
+            return (PivotHolder) tag;
+
+        final PivotHolder holder = new PivotHolder();
+        view.setTag(R.id.lib_viewanim_pivot_holder, holder);
+        return holder;
+    }
+
+    /**
+     * 保存View的原始锚点，多个动画同时修改锚点的时候，第一个开始的时候保存，最后一个结束的时候还原
+     */
+    private static final class PivotHolder
     {
-        private final float[] mPivotXYOriginal = new float[2];
+        private float mPivotXOriginal;
+        private float mPivotYOriginal;
+        private int mCount;
 
         public void setPivotXY(float pivotX, float pivotY, View view)
         {
-            if (view == null)
-                return;
-
-            mPivotXYOriginal[0] = view.getPivotX();
-            mPivotXYOriginal[1] = view.getPivotY();
+            if (mCount == 0)
+            {
+                mPivotXOriginal = view.getPivotX();
+                mPivotYOriginal = view.getPivotY();
+            }
+            mCount++;
 
             view.setPivotX(pivotX);
             view.setPivotY(pivotY);
@@ -96,11 +167,15 @@ public class PivotCreator extends BaseAnimatorCreator
 
         public void restore(View view)
         {
-            if (view == null)
+            if (mCount <= 0)
                 return;
 
-            view.setPivotX(mPivotXYOriginal[0]);
-            view.setPivotY(mPivotXYOriginal[1]);
+            mCount--;
+            if (mCount == 0)
+            {
+                view.setPivotX(mPivotXOriginal);
+                view.setPivotY(mPivotYOriginal);
+            }
         }
     }
 
@@ -3,6 +3,7 @@ package com.sd.lib.viewanim.creator.obj;
 import android.animation.Animator;
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FTransitionMath;
 import com.sd.lib.viewanim.creator.AnimatorCreator;
 import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
 
@@ -11,9 +12,6 @@ import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
  */
 public class PivotPercentCreator extends BaseAnimatorCreator
 {
-    private final float mPivotPercentX;
-    private final float mPivotPercentY;
-
     private final PivotCreator mPivotCreator;
 
     /**
@@ -23,24 +21,12 @@ public class PivotPercentCreator extends BaseAnimatorCreator
      */
     public PivotPercentCreator(AnimatorCreator creator, float pivotPercentX, float pivotPercentY)
     {
-        mPivotPercentX = pivotPercentX;
-        mPivotPercentY = pivotPercentY;
+        mPivotCreator = new PivotCreator(creator, new PercentPivotProvider(pivotPercentX, true), new PercentPivotProvider(pivotPercentY, false));
+    }
 
-        mPivotCreator = new PivotCreator(creator, new PivotCreator.PivotProvider()
-        {
-            @Override
-            public float getPivot(boolean show, View view)
-            {
-                return mPivotPercentX * view.getWidth();
-            }
-        }, new PivotCreator.PivotProvider()
-        {
-            @Override
-            public float getPivot(boolean show, View view)
-            {
-                return mPivotPercentY * view.getHeight();
-            }
-        });
+    final PivotCreator getPivotCreator()
+    {
+        return mPivotCreator;
     }
 
     @Override
@@ -48,4 +34,76 @@ public class PivotPercentCreator extends BaseAnimatorCreator
     {
         return mPivotCreator.createAnimator(show, view);
     }
+
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        return mPivotCreator.updateAnimator(show, view, animator);
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        mPivotCreator.freeze();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        return mPivotCreator.equals(((PivotPercentCreator) obj).mPivotCreator);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        return 31 * getClass().hashCode() + mPivotCreator.hashCode();
+    }
+
+    /**
+     * 根据宽或者高的百分比返回锚点
+     */
+    private static final class PercentPivotProvider implements PivotCreator.PivotProvider
+    {
+        private final float mPercent;
+        private final boolean mHorizontal;
+
+        public PercentPivotProvider(float percent, boolean horizontal)
+        {
+            mPercent = percent;
+            mHorizontal = horizontal;
+        }
+
+        @Override
+        public float getPivot(boolean show, View view)
+        {
+            return FTransitionMath.getPivot(mPercent, mHorizontal ? view.getWidth() : view.getHeight());
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof PercentPivotProvider))
+                return false;
+
+            final PercentPivotProvider other = (PercentPivotProvider) obj;
+            return Float.compare(mPercent, other.mPercent) == 0 && mHorizontal == other.mHorizontal;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * Float.floatToIntBits(mPercent) + (mHorizontal ? 1 : 0);
+        }
+    }
 }
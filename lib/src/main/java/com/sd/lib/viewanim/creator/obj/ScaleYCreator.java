@@ -2,15 +2,18 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
 /**
  * 缩放y
  */
 public class ScaleYCreator extends ObjectAnimatorCreator
 {
     @Override
-    protected final String getPropertyName()
+    protected final FloatProperty<View> getProperty()
     {
-        return View.SCALE_Y.getName();
+        return ViewProperty.SCALE_Y;
     }
 
     @Override
@@ -0,0 +1,113 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 不依赖{@link android.animation.ValueAnimator}，自己驱动的动画基类，保存开始状态和开始延迟，监听的回调和普通动画一致
+ * <p>
+ * 不支持暂停，{@link #pause()}和{@link #resume()}不做处理
+ */
+abstract class SelfDrivenAnimator extends Animator
+{
+    private long mStartDelay;
+    private boolean mStarted;
+
+    @Override
+    public long getStartDelay()
+    {
+        return mStartDelay;
+    }
+
+    @Override
+    public void setStartDelay(long startDelay)
+    {
+        mStartDelay = startDelay;
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return mStarted;
+    }
+
+    @Override
+    public boolean isStarted()
+    {
+        return mStarted;
+    }
+
+    protected final void setStarted(boolean started)
+    {
+        mStarted = started;
+    }
+
+    /**
+     * 父类的实现只修改暂停状态，动画仍然继续执行，所以不处理
+     */
+    @Override
+    public void pause()
+    {
+    }
+
+    @Override
+    public void resume()
+    {
+    }
+
+    @Override
+    public boolean isPaused()
+    {
+        return false;
+    }
+
+    protected final void notifyStart()
+    {
+        final List<AnimatorListener> listeners = copyListeners();
+        if (listeners == null)
+            return;
+
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            listeners.get(i).onAnimationStart(this);
+        }
+    }
+
+    protected final void notifyCancel()
+    {
+        final List<AnimatorListener> listeners = copyListeners();
+        if (listeners == null)
+            return;
+
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            listeners.get(i).onAnimationCancel(this);
+        }
+    }
+
+    protected final void notifyEnd()
+    {
+        final List<AnimatorListener> listeners = copyListeners();
+        if (listeners == null)
+            return;
+
+        for (int i = 0; i < listeners.size(); i++)
+        {
+            listeners.get(i).onAnimationEnd(this);
+        }
+    }
+
+    /**
+     * 回调期间监听可能被添加或者移除（比如转换显示和隐藏动画），和{@link android.animation.ValueAnimator}一样遍历副本
+     */
+    private List<AnimatorListener> copyListeners()
+    {
+        final List<AnimatorListener> listeners = getListeners();
+        if (listeners == null || listeners.isEmpty())
+            return null;
+
+        return new ArrayList<>(listeners);
+    }
+}
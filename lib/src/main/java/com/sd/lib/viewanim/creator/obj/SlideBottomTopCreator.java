@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向下滑入，向上滑出
  */
@@ -10,7 +12,7 @@ public class SlideBottomTopCreator extends SlideVerticalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return -view.getHeight();
+        return FGeometry.getHiddenToStart(view.getHeight());
     }
 
     @Override
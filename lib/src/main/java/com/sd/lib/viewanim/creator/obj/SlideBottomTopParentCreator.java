@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向下滑入，向上滑出（相对于内容View父容器）
  */
@@ -10,7 +12,7 @@ public class SlideBottomTopParentCreator extends SlideVerticalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return -view.getBottom();
+        return FGeometry.getHiddenToParentStart(view.getBottom());
     }
 
     @Override
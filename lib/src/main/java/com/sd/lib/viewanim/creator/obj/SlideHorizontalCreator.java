@@ -2,15 +2,18 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
 /**
  * 水平方向滑动
  */
 public abstract class SlideHorizontalCreator extends ObjectAnimatorCreator
 {
     @Override
-    protected final String getPropertyName()
+    protected final FloatProperty<View> getProperty()
     {
-        return View.TRANSLATION_X.getName();
+        return ViewProperty.TRANSLATION_X;
     }
 
     @Override
@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向左滑入，向右滑出
  */
@@ -10,7 +12,7 @@ public class SlideLeftRightCreator extends SlideHorizontalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return view.getWidth();
+        return FGeometry.getHiddenToEnd(view.getWidth());
     }
 
     @Override
@@ -3,6 +3,8 @@ package com.sd.lib.viewanim.creator.obj;
 import android.view.View;
 import android.view.ViewParent;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向左滑入，向右滑出（相对于内容View父容器）
  */
@@ -12,14 +14,8 @@ public class SlideLeftRightParentCreator extends SlideHorizontalCreator
     protected float getValueHidden(View view)
     {
         final ViewParent parent = view.getParent();
-        if (parent instanceof View)
-        {
-            final View parentView = (View) parent;
-            final int distance = parentView.getWidth() - view.getLeft();
-            if (distance > 0)
-                return distance;
-        }
-        return view.getWidth();
+        final int parentSize = parent instanceof View ? ((View) parent).getWidth() : 0;
+        return FGeometry.getHiddenToParentEnd(parentSize, view.getLeft(), view.getWidth());
     }
 
     @Override
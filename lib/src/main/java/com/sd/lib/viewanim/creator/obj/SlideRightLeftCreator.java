@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向右滑入，向左滑出
  */
@@ -10,7 +12,7 @@ public class SlideRightLeftCreator extends SlideHorizontalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return -view.getWidth();
+        return FGeometry.getHiddenToStart(view.getWidth());
     }
 
     @Override
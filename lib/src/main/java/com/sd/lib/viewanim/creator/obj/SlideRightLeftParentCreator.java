@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向右滑入，向左滑出（相对于内容View父容器）
  */
@@ -10,7 +12,7 @@ public class SlideRightLeftParentCreator extends SlideHorizontalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return -view.getRight();
+        return FGeometry.getHiddenToParentStart(view.getRight());
     }
 
     @Override
@@ -2,6 +2,8 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.core.FGeometry;
+
 /**
  * 向上滑入，向下滑出
  */
@@ -10,7 +12,7 @@ public class SlideTopBottomCreator extends SlideVerticalCreator
     @Override
     protected float getValueHidden(View view)
     {
-        return view.getHeight();
+        return FGeometry.getHiddenToEnd(view.getHeight());
     }
 
     @Override
@@ -2,15 +2,18 @@ package com.sd.lib.viewanim.creator.obj;
 
 import android.view.View;
 
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
 /**
  * 竖直方向滑动
  */
 public abstract class SlideVerticalCreator extends ObjectAnimatorCreator
 {
     @Override
-    protected final String getPropertyName()
+    protected final FloatProperty<View> getProperty()
     {
-        return View.TRANSLATION_Y.getName();
+        return ViewProperty.TRANSLATION_Y;
     }
 
     @Override
@@ -0,0 +1,203 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.animation.TimeInterpolator;
+import android.view.Choreographer;
+import android.view.View;
+
+import com.sd.lib.viewanim.FAnimatorPolicy;
+import com.sd.lib.viewanim.core.FSpring;
+
+/**
+ * 把{@link FSpring}包装成{@link Animator}，通过{@link Choreographer}逐帧推进，监听的回调和普通动画一致
+ * <p>
+ * 时长由刚度和阻尼比决定，{@link #setDuration(long)}和{@link #setInterpolator(TimeInterpolator)}无效
+ */
+final class SpringAnimator extends SelfDrivenAnimator implements Choreographer.FrameCallback
+{
+    private final TransitionPlan mPlan;
+    private final FSpring mSpring;
+
+    private long mLastFrameTimeNanos;
+    /** 剩余的延迟（纳秒），已经按照全局策略缩放 */
+    private long mDelayRemainingNanos;
+    private float mDurationScale = 1.0f;
+
+    public SpringAnimator(TransitionPlan plan)
+    {
+        final int[] flags = new int[plan.getTrackCount()];
+        for (int i = 0; i < flags.length; i++)
+        {
+            flags[i] = plan.getFlag(i);
+        }
+
+        mPlan = plan;
+        mSpring = new FSpring(flags);
+    }
+
+    public TransitionPlan getPlan()
+    {
+        return mPlan;
+    }
+
+    public FSpring getSpring()
+    {
+        return mSpring;
+    }
+
+    /**
+     * 执行中只修改目标值，保留当前值和速度；未执行的时候不处理，下次开始的时候使用计划中的值
+     */
+    public void retarget()
+    {
+        if (!isStarted())
+            return;
+
+        for (int i = 0; i < mPlan.getTrackCount(); i++)
+        {
+            mSpring.setTarget(i, mPlan.getValueEnd(i));
+        }
+    }
+
+    @Override
+    public Animator setDuration(long duration)
+    {
+        return this;
+    }
+
+    /**
+     * 返回从当前状态到静止的估算时长
+     */
+    @Override
+    public long getDuration()
+    {
+        if (!isStarted())
+        {
+            for (int i = 0; i < mPlan.getTrackCount(); i++)
+            {
+                mSpring.setValue(i, mPlan.getValueStart(i), 0);
+                mSpring.setTarget(i, mPlan.getValueEnd(i));
+            }
+        }
+        return mSpring.estimateDuration();
+    }
+
+    @Override
+    public void setInterpolator(TimeInterpolator interpolator)
+    {
+    }
+
+    @Override
+    public TimeInterpolator getInterpolator()
+    {
+        return null;
+    }
+
+    @Override
+    public void start()
+    {
+        if (isStarted())
+            cancel();
+
+        setStarted(true);
+        mLastFrameTimeNanos = 0;
+        mDelayRemainingNanos = 0;
+
+        for (int i = 0; i < mPlan.getTrackCount(); i++)
+        {
+            mSpring.setValue(i, mPlan.getValueStart(i), 0);
+            mSpring.setTarget(i, mPlan.getValueEnd(i));
+        }
+
+        // 设置开始值
+        apply();
+        notifyStart();
+        if (!isStarted())
+            return;
+
+        // 系统不会缩放弹簧的时长，按照全局策略缩放每一帧推进的时间
+        mDurationScale = FAnimatorPolicy.getDurationScale(mPlan.getView().getContext());
+        if (mDurationScale <= 0)
+        {
+            end();
+            return;
+        }
+        mDelayRemainingNanos = (long) (getStartDelay() * 1000000L * (double) mDurationScale);
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    @Override
+    public void cancel()
+    {
+        if (!isStarted())
+            return;
+
+        Choreographer.getInstance().removeFrameCallback(this);
+        setStarted(false);
+        notifyCancel();
+        notifyEnd();
+    }
+
+    @Override
+    public void end()
+    {
+        if (!isStarted())
+        {
+            start();
+            if (!isStarted())
+                return;
+        }
+
+        Choreographer.getInstance().removeFrameCallback(this);
+        mSpring.skipToEnd();
+        apply();
+        setStarted(false);
+        notifyEnd();
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos)
+    {
+        if (!isStarted())
+            return;
+
+        final long lastFrameTimeNanos = mLastFrameTimeNanos;
+        mLastFrameTimeNanos = frameTimeNanos;
+
+        if (lastFrameTimeNanos > 0)
+        {
+            long deltaNanos = frameTimeNanos - lastFrameTimeNanos;
+            if (mDelayRemainingNanos > 0)
+            {
+                final long delay = Math.min(mDelayRemainingNanos, deltaNanos);
+                mDelayRemainingNanos -= delay;
+                deltaNanos -= delay;
+            }
+
+            if (deltaNanos > 0)
+            {
+                // 保留小数，时长放大很多倍的时候每一帧推进的时间不到1毫秒
+                final boolean atRest = mSpring.stepSeconds(deltaNanos / 1000000000d / mDurationScale);
+                apply();
+                if (atRest)
+                {
+                    setStarted(false);
+                    notifyEnd();
+                    return;
+                }
+            }
+        }
+
+        Choreographer.getInstance().postFrameCallback(this);
+    }
+
+    private void apply()
+    {
+        final View view = mPlan.getView();
+        for (int i = 0; i < mPlan.getTrackCount(); i++)
+        {
+            mPlan.getProperty(i).setValue(view, mSpring.getValue(i));
+        }
+    }
+}
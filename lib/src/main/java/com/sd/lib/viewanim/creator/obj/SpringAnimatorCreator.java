@@ -0,0 +1,164 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.view.View;
+
+import com.sd.lib.viewanim.core.FSpring;
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+
+/**
+ * 使用弹簧执行动画，开始值和结束值和原创建者一致，时长由刚度和阻尼比决定
+ * <p>
+ * 原创建者会先被{@link CompiledCreator}合并编译，如果合并失败，则使用{@link CompiledCreator}创建动画；
+ * 执行中调用{@link #updateAnimator(boolean, View, Animator)}只修改目标值，保留当前值和速度，不创建新的动画
+ */
+public class SpringAnimatorCreator extends BaseAnimatorCreator
+{
+    private final CompiledCreator mCreator;
+
+    private float mStiffness = FSpring.STIFFNESS_MEDIUM;
+    private float mDampingRatio = FSpring.DAMPING_RATIO_NO_BOUNCY;
+
+    public SpringAnimatorCreator(AnimatorCreator creator)
+    {
+        if (creator == null)
+            throw new NullPointerException("creator is null");
+
+        mCreator = creator instanceof CompiledCreator ? (CompiledCreator) creator : new CompiledCreator(creator);
+    }
+
+    /**
+     * 设置刚度，默认{@link FSpring#STIFFNESS_MEDIUM}
+     *
+     * @param stiffness 大于0
+     * @return
+     */
+    public SpringAnimatorCreator setStiffness(float stiffness)
+    {
+        if (!(stiffness > 0))
+            throw new IllegalArgumentException("stiffness must be > 0");
+        checkNotFrozen();
+        mStiffness = stiffness;
+        return this;
+    }
+
+    /**
+     * 设置阻尼比，默认{@link FSpring#DAMPING_RATIO_NO_BOUNCY}
+     *
+     * @param dampingRatio 大于等于0
+     * @return
+     */
+    public SpringAnimatorCreator setDampingRatio(float dampingRatio)
+    {
+        if (!(dampingRatio >= 0))
+            throw new IllegalArgumentException("dampingRatio must be >= 0");
+        checkNotFrozen();
+        mDampingRatio = dampingRatio;
+        return this;
+    }
+
+    /**
+     * 动画是否由弹簧驱动，可以在执行中修改目标值
+     *
+     * @param animator
+     * @return
+     */
+    public static boolean isSpringAnimator(Animator animator)
+    {
+        return animator instanceof SpringAnimator;
+    }
+
+    @Override
+    protected void beforeCreateAnimator(boolean show, View view)
+    {
+        super.beforeCreateAnimator(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchBeforeCreateAnimator(show, view);
+    }
+
+    @Override
+    protected final Animator onCreateAnimator(boolean show, View view)
+    {
+        if (!mCreator.isCompiled())
+            return mCreator.createAnimator(show, view);
+
+        final TransitionPlan plan = new TransitionPlan(mCreator.getProperties());
+        mCreator.plan(show, view, plan);
+
+        final SpringAnimator animator = new SpringAnimator(plan);
+        updateSpring(animator.getSpring());
+        return animator;
+    }
+
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (!mCreator.isCompiled())
+            return mCreator.updateAnimator(show, view, animator);
+
+        if (!(animator instanceof SpringAnimator))
+            return false;
+
+        final SpringAnimator springAnimator = (SpringAnimator) animator;
+        mCreator.plan(show, view, springAnimator.getPlan());
+        updateSpring(springAnimator.getSpring());
+        springAnimator.retarget();
+        return true;
+    }
+
+    private void updateSpring(FSpring spring)
+    {
+        spring.setStiffness(mStiffness);
+        spring.setDampingRatio(mDampingRatio);
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        mCreator.freeze();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final SpringAnimatorCreator other = (SpringAnimatorCreator) obj;
+        return mCreator.equals(other.mCreator)
+                && Float.compare(mStiffness, other.mStiffness) == 0
+                && Float.compare(mDampingRatio, other.mDampingRatio) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = 31 * getClass().hashCode() + mCreator.hashCode();
+        result = 31 * result + Float.floatToIntBits(mStiffness);
+        result = 31 * result + Float.floatToIntBits(mDampingRatio);
+        return result;
+    }
+
+    @Override
+    protected void onAnimationStart(boolean show, View view)
+    {
+        super.onAnimationStart(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchAnimationStart(show, view);
+    }
+
+    @Override
+    protected void onAnimationEnd(boolean show, View view)
+    {
+        super.onAnimationEnd(show, view);
+        if (mCreator.isCompiled())
+            mCreator.dispatchAnimationEnd(show, view);
+    }
+}
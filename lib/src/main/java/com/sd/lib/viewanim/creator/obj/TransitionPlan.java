@@ -0,0 +1,144 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.TimeInterpolator;
+import android.view.View;
+
+import com.sd.lib.viewanim.core.FEasing;
+import com.sd.lib.viewanim.core.FTransitionPlan;
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
+/**
+ * 多个属性的动画计划，开始值，结束值和时长由{@link FTransitionPlan}计算，这里负责把值设置到View上
+ */
+final class TransitionPlan
+{
+    private final FloatProperty<View>[] mProperties;
+    private final FTransitionPlan mPlan;
+    private final TimeInterpolator[] mInterpolators;
+
+    private View mView;
+
+    public TransitionPlan(FloatProperty<View>[] properties)
+    {
+        final int[] flags = new int[properties.length];
+        for (int i = 0; i < properties.length; i++)
+        {
+            flags[i] = ViewProperty.getFlag(properties[i]);
+        }
+
+        mProperties = properties;
+        mPlan = new FTransitionPlan(flags);
+        mInterpolators = new TimeInterpolator[properties.length];
+    }
+
+    public int getTrackCount()
+    {
+        return mProperties.length;
+    }
+
+    public FloatProperty<View> getProperty(int index)
+    {
+        return mProperties[index];
+    }
+
+    public int getFlag(int index)
+    {
+        return mPlan.getFlag(index);
+    }
+
+    public float getValueStart(int index)
+    {
+        return mPlan.getValueStart(index);
+    }
+
+    public float getValueEnd(int index)
+    {
+        return mPlan.getValueEnd(index);
+    }
+
+    public long getTrackDuration(int index)
+    {
+        return mPlan.getTrackDuration(index);
+    }
+
+    /**
+     * 返回某个属性的插值器，null-先加速后减速
+     */
+    public TimeInterpolator getInterpolator(int index)
+    {
+        return mInterpolators[index];
+    }
+
+    public View getView()
+    {
+        return mView;
+    }
+
+    public void setView(View view)
+    {
+        mView = view;
+    }
+
+    /**
+     * 根据隐藏值，显示值和当前值计算某个属性
+     *
+     * @param interpolator null-先加速后减速
+     */
+    public void planTrack(int index, boolean show, float valueHidden, float valueShown, float valueCurrent, long maxDuration, TimeInterpolator interpolator)
+    {
+        mPlan.planTrack(index, show, valueHidden, valueShown, valueCurrent, maxDuration);
+        if (mInterpolators[index] != interpolator)
+        {
+            mInterpolators[index] = interpolator;
+            mPlan.setEasing(index, toEasing(interpolator));
+        }
+    }
+
+    private static FEasing toEasing(final TimeInterpolator interpolator)
+    {
+        if (interpolator == null)
+            return null;
+        if (interpolator instanceof FEasing)
+            return (FEasing) interpolator;
+
+        return new FEasing()
+        {
+            @Override
+            public float getInterpolation(float fraction)
+            {
+                return interpolator.getInterpolation(fraction);
+            }
+        };
+    }
+
+    /**
+     * 返回最长的属性时长
+     */
+    public long getDuration()
+    {
+        return mPlan.getDuration();
+    }
+
+    /**
+     * 所有属性设置完成后调用
+     */
+    public void finishPlan()
+    {
+        mPlan.finishPlan();
+    }
+
+    /**
+     * 设置动画执行到playTime时候的属性值
+     *
+     * @param playTime 动画已经执行的时长
+     */
+    public void apply(float playTime)
+    {
+        final View view = mView;
+        for (int i = 0; i < mProperties.length; i++)
+        {
+            mProperties[i].setValue(view, mPlan.getValue(i, playTime));
+        }
+    }
+}
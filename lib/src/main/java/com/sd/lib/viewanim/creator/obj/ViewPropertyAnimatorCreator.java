@@ -0,0 +1,147 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.view.View;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.BaseAnimatorCreator;
+import com.sd.lib.viewanim.property.FloatProperty;
+
+/**
+ * 使用{@link View#animate()}执行动画，所有属性在同一帧里面批量更新
+ * <p>
+ * 原创建者会先被{@link CompiledCreator}合并编译，如果合并失败，包含{@link android.view.ViewPropertyAnimator}不支持的属性，
+ * 或者这个方向各个属性的插值器不同（{@link android.view.ViewPropertyAnimator}所有属性共用一个插值器），则使用{@link CompiledCreator}创建动画
+ * <p>
+ * 注意：{@link View#animate()}每个View只有一个，开始动画的时候会取消外部正在执行的{@link View#animate()}，动画执行期间不要在外部使用
+ */
+public class ViewPropertyAnimatorCreator extends BaseAnimatorCreator
+{
+    private final CompiledCreator mCreator;
+    private final boolean mSupported;
+
+    private boolean mWithLayer;
+
+    public ViewPropertyAnimatorCreator(AnimatorCreator creator)
+    {
+        if (creator == null)
+            throw new NullPointerException("creator is null");
+
+        mCreator = creator instanceof CompiledCreator ? (CompiledCreator) creator : new CompiledCreator(creator);
+        mSupported = mCreator.isCompiled() && ViewPropertyAnimatorWrapper.isSupported(mCreator.getProperties());
+    }
+
+    /**
+     * 动画执行期间是否开启硬件层，默认false
+     *
+     * @param withLayer
+     */
+    public void setWithLayer(boolean withLayer)
+    {
+        checkNotFrozen();
+        mWithLayer = withLayer;
+    }
+
+    /**
+     * 这个方向是否使用{@link android.view.ViewPropertyAnimator}
+     */
+    private boolean isWrapperUsed(boolean show)
+    {
+        return mSupported && mCreator.hasSameInterpolator(show);
+    }
+
+    @Override
+    protected void beforeCreateAnimator(boolean show, View view)
+    {
+        super.beforeCreateAnimator(show, view);
+        if (isWrapperUsed(show))
+            mCreator.dispatchBeforeCreateAnimator(show, view);
+    }
+
+    @Override
+    protected final Animator onCreateAnimator(boolean show, View view)
+    {
+        if (!isWrapperUsed(show))
+            return mCreator.createAnimator(show, view);
+
+        final TransitionPlan plan = new TransitionPlan(mCreator.getProperties());
+        mCreator.plan(show, view, plan);
+
+        final ViewPropertyAnimatorWrapper animator = new ViewPropertyAnimatorWrapper(plan);
+        animator.setWithLayer(mWithLayer);
+        return animator;
+    }
+
+    @Override
+    protected final boolean onUpdateAnimator(boolean show, View view, Animator animator)
+    {
+        if (!isWrapperUsed(show))
+            return mCreator.updateAnimator(show, view, animator);
+
+        if (!(animator instanceof ViewPropertyAnimatorWrapper))
+            return false;
+
+        final ViewPropertyAnimatorWrapper wrapper = (ViewPropertyAnimatorWrapper) animator;
+        mCreator.plan(show, view, wrapper.getPlan());
+        wrapper.setWithLayer(mWithLayer);
+        return true;
+    }
+
+    @Override
+    protected void onFreeze()
+    {
+        super.onFreeze();
+        mCreator.freeze();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj)
+            return true;
+        if (!isSameValueClass(obj))
+            return false;
+
+        final ViewPropertyAnimatorCreator other = (ViewPropertyAnimatorCreator) obj;
+        return mCreator.equals(other.mCreator)
+                && mWithLayer == other.mWithLayer;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        if (!hasValueEquality())
+            return super.hashCode();
+
+        int result = 31 * getClass().hashCode() + mCreator.hashCode();
+        result = 31 * result + (mWithLayer ? 1 : 0);
+        return result;
+    }
+
+    @Override
+    protected void onAnimationStart(boolean show, View view)
+    {
+        super.onAnimationStart(show, view);
+        if (isWrapperUsed(show))
+            mCreator.dispatchAnimationStart(show, view);
+    }
+
+    @Override
+    protected void onAnimationEnd(boolean show, View view)
+    {
+        super.onAnimationEnd(show, view);
+        if (isWrapperUsed(show))
+            mCreator.dispatchAnimationEnd(show, view);
+    }
+
+    /**
+     * 属性是否支持
+     *
+     * @param property
+     * @return
+     */
+    public static boolean isSupported(FloatProperty<View> property)
+    {
+        return ViewPropertyAnimatorWrapper.isSupported(property);
+    }
+}
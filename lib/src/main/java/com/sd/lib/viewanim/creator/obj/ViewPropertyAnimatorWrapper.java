@@ -0,0 +1,296 @@
+package com.sd.lib.viewanim.creator.obj;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
+import android.os.Build;
+import android.view.View;
+import android.view.ViewPropertyAnimator;
+import android.view.animation.AccelerateDecelerateInterpolator;
+
+import com.sd.lib.viewanim.FAnimatorPolicy;
+import com.sd.lib.viewanim.property.FloatProperty;
+import com.sd.lib.viewanim.property.ViewProperty;
+
+/**
+ * 把{@link ViewPropertyAnimator}包装成{@link Animator}，监听的回调和普通动画一致
+ * <p>
+ * {@link View#animate()}每个View只有一个，开始的时候会取消外部正在执行的{@link View#animate()}；
+ * 执行期间如果外部取消或者替换了监听，收不到结束的回调，超过预计的时长之后直接结束，不再修改{@link ViewPropertyAnimator}
+ */
+final class ViewPropertyAnimatorWrapper extends SelfDrivenAnimator
+{
+    private static final TimeInterpolator DEFAULT_INTERPOLATOR = new AccelerateDecelerateInterpolator();
+    /** 超过预计时长多久没有收到结束的回调，认为监听被替换 */
+    private static final long END_TIMEOUT_SLACK = 100;
+
+    private final TransitionPlan mPlan;
+
+    private long mDuration = -1;
+    private TimeInterpolator mInterpolator;
+    private boolean mWithLayer;
+
+    private ViewPropertyAnimator mAnimator;
+    private View mAnimatorView;
+
+    public ViewPropertyAnimatorWrapper(TransitionPlan plan)
+    {
+        mPlan = plan;
+    }
+
+    public TransitionPlan getPlan()
+    {
+        return mPlan;
+    }
+
+    public void setWithLayer(boolean withLayer)
+    {
+        mWithLayer = withLayer;
+    }
+
+    /**
+     * 设置动画时长，小于0则使用计划的时长
+     */
+    @Override
+    public Animator setDuration(long duration)
+    {
+        mDuration = duration;
+        return this;
+    }
+
+    @Override
+    public long getDuration()
+    {
+        return mDuration >= 0 ? mDuration : mPlan.getDuration();
+    }
+
+    @Override
+    public void setInterpolator(TimeInterpolator interpolator)
+    {
+        mInterpolator = interpolator;
+    }
+
+    @Override
+    public TimeInterpolator getInterpolator()
+    {
+        return mInterpolator;
+    }
+
+    @Override
+    public void start()
+    {
+        if (isStarted())
+            cancel();
+
+        final View view = mPlan.getView();
+        setStarted(true);
+
+        // 设置开始值
+        mPlan.apply(0);
+        notifyStart();
+        if (!isStarted())
+            return;
+
+        final ViewPropertyAnimator animator = view.animate();
+        animator.cancel();
+        animator.setListener(mAnimatorListener);
+        animator.setStartDelay(getStartDelay());
+        animator.setDuration(getDuration());
+        animator.setInterpolator(getAnimatorInterpolator());
+
+        for (int i = 0; i < mPlan.getTrackCount(); i++)
+        {
+            animateProperty(animator, mPlan.getProperty(i), mPlan.getValueEnd(i));
+        }
+
+        if (mWithLayer)
+            animator.withLayer();
+
+        mAnimator = animator;
+        mAnimatorView = view;
+        animator.start();
+
+        view.removeCallbacks(mEndTimeoutRunnable);
+        view.postOnAnimationDelayed(mEndTimeoutRunnable, getEndTimeout());
+    }
+
+    /**
+     * 预计收到结束回调的时间，{@link ViewPropertyAnimator}的时长由系统缩放
+     */
+    private long getEndTimeout()
+    {
+        float scale = Build.VERSION.SDK_INT >= 26
+                ? ValueAnimator.getDurationScale()
+                : FAnimatorPolicy.getDurationScale(mPlan.getView().getContext());
+        if (scale < 1.0f)
+            scale = 1.0f;
+
+        return (long) ((getStartDelay() + getDuration()) * scale) + END_TIMEOUT_SLACK;
+    }
+
+    /**
+     * {@link ViewPropertyAnimator}所有属性共用一个插值器，未设置的时候使用计划的插值器，插值器不同的计划不会使用这个类
+     */
+    private TimeInterpolator getAnimatorInterpolator()
+    {
+        if (mInterpolator != null)
+            return mInterpolator;
+
+        final TimeInterpolator interpolator = mPlan.getTrackCount() > 0 ? mPlan.getInterpolator(0) : null;
+        return interpolator != null ? interpolator : DEFAULT_INTERPOLATOR;
+    }
+
+    @Override
+    public void cancel()
+    {
+        if (!isStarted())
+            return;
+
+        stopAnimator();
+        setStarted(false);
+        notifyCancel();
+        notifyEnd();
+    }
+
+    @Override
+    public void end()
+    {
+        if (!isStarted())
+        {
+            setStarted(true);
+            notifyStart();
+            if (!isStarted())
+                return;
+        }
+
+        stopAnimator();
+        mPlan.apply(Float.MAX_VALUE);
+        setStarted(false);
+        notifyEnd();
+    }
+
+    private void stopAnimator()
+    {
+        final ViewPropertyAnimator animator = releaseAnimator();
+        if (animator != null)
+        {
+            animator.setListener(null);
+            animator.cancel();
+        }
+    }
+
+    /**
+     * 不再跟踪{@link ViewPropertyAnimator}
+     *
+     * @return null-已经不在跟踪
+     */
+    private ViewPropertyAnimator releaseAnimator()
+    {
+        final ViewPropertyAnimator animator = mAnimator;
+        if (animator != null)
+        {
+            mAnimator = null;
+            mAnimatorView.removeCallbacks(mEndTimeoutRunnable);
+            mAnimatorView = null;
+        }
+        return animator;
+    }
+
+    private final AnimatorListenerAdapter mAnimatorListener = new AnimatorListenerAdapter()
+    {
+        @Override
+        public void onAnimationCancel(Animator animation)
+        {
+            super.onAnimationCancel(animation);
+            // 被外部取消
+            final ViewPropertyAnimator animator = releaseAnimator();
+            if (animator == null)
+                return;
+
+            animator.setListener(null);
+            setStarted(false);
+            notifyCancel();
+            notifyEnd();
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            final ViewPropertyAnimator animator = releaseAnimator();
+            if (animator == null)
+                return;
+
+            animator.setListener(null);
+            setStarted(false);
+            notifyEnd();
+        }
+    };
+
+    /**
+     * 监听被外部替换，收不到结束的回调；{@link ViewPropertyAnimator}已经属于外部，不再修改它
+     */
+    private final Runnable mEndTimeoutRunnable = new Runnable()
+    {
+        @Override
+        public void run()
+        {
+            if (releaseAnimator() == null)
+                return;
+
+            setStarted(false);
+            notifyEnd();
+        }
+    };
+
+    private static void animateProperty(ViewPropertyAnimator animator, FloatProperty<View> property, float value)
+    {
+        if (property == ViewProperty.ALPHA)
+            animator.alpha(value);
+        else if (property == ViewProperty.TRANSLATION_X)
+            animator.translationX(value);
+        else if (property == ViewProperty.TRANSLATION_Y)
+            animator.translationY(value);
+        else if (property == ViewProperty.X)
+            animator.x(value);
+        else if (property == ViewProperty.Y)
+            animator.y(value);
+        else if (property == ViewProperty.SCALE_X)
+            animator.scaleX(value);
+        else if (property == ViewProperty.SCALE_Y)
+            animator.scaleY(value);
+        else if (property == ViewProperty.ROTATION)
+            animator.rotation(value);
+        else if (property == ViewProperty.ROTATION_X)
+            animator.rotationX(value);
+        else if (property == ViewProperty.ROTATION_Y)
+            animator.rotationY(value);
+        else
+            throw new IllegalArgumentException("property is not supported:" + property.getName());
+    }
+
+    static boolean isSupported(FloatProperty<View> property)
+    {
+        return property == ViewProperty.ALPHA
+                || property == ViewProperty.TRANSLATION_X
+                || property == ViewProperty.TRANSLATION_Y
+                || property == ViewProperty.X
+                || property == ViewProperty.Y
+                || property == ViewProperty.SCALE_X
+                || property == ViewProperty.SCALE_Y
+                || property == ViewProperty.ROTATION
+                || property == ViewProperty.ROTATION_X
+                || property == ViewProperty.ROTATION_Y;
+    }
+
+    static boolean isSupported(FloatProperty<View>[] properties)
+    {
+        for (FloatProperty<View> item : properties)
+        {
+            if (!isSupported(item))
+                return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,33 @@
+package com.sd.lib.viewanim.property;
+
+import android.view.View;
+
+/**
+ * View属性的工具方法
+ */
+public final class FViewProperties
+{
+    private FViewProperties()
+    {
+    }
+
+    /**
+     * 重置view，还原动画可能修改的透明度，旋转，平移和缩放
+     *
+     * @param view
+     */
+    public static void reset(View view)
+    {
+        if (view == null)
+            return;
+
+        view.setAlpha(1.0f);
+        view.setRotation(0.0f);
+        view.setRotationX(0.0f);
+        view.setRotationY(0.0f);
+        view.setTranslationX(0.0f);
+        view.setTranslationY(0.0f);
+        view.setScaleX(1.0f);
+        view.setScaleY(1.0f);
+    }
+}
@@ -0,0 +1,46 @@
+package com.sd.lib.viewanim.property;
+
+import android.util.Property;
+
+/**
+ * float类型的属性，兼容低版本的{@code android.util.FloatProperty}
+ * <p>
+ * 动画每一帧直接调用{@link #setValue(Object, float)}，不需要反射查找方法，也不需要装箱
+ *
+ * @param <T>
+ */
+public abstract class FloatProperty<T> extends Property<T, Float>
+{
+    public FloatProperty(String name)
+    {
+        super(Float.class, name);
+    }
+
+    /**
+     * 设置属性值
+     *
+     * @param object
+     * @param value
+     */
+    public abstract void setValue(T object, float value);
+
+    /**
+     * 返回属性值
+     *
+     * @param object
+     * @return
+     */
+    public abstract float getValue(T object);
+
+    @Override
+    public final void set(T object, Float value)
+    {
+        setValue(object, value);
+    }
+
+    @Override
+    public final Float get(T object)
+    {
+        return getValue(object);
+    }
+}
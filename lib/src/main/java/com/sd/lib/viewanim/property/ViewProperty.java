@@ -0,0 +1,243 @@
+package com.sd.lib.viewanim.property;
+
+import android.view.View;
+
+import com.sd.lib.viewanim.core.FPropertyFlags;
+
+/**
+ * View常用的float属性
+ */
+public final class ViewProperty
+{
+    /**
+     * 透明度
+     */
+    public static final int FLAG_ALPHA = FPropertyFlags.FLAG_ALPHA;
+    /**
+     * 平移，包括{@link #TRANSLATION_X}，{@link #TRANSLATION_Y}，{@link #X}，{@link #Y}
+     */
+    public static final int FLAG_TRANSLATION = FPropertyFlags.FLAG_TRANSLATION;
+    /**
+     * 缩放
+     */
+    public static final int FLAG_SCALE = FPropertyFlags.FLAG_SCALE;
+    /**
+     * 旋转
+     */
+    public static final int FLAG_ROTATION = FPropertyFlags.FLAG_ROTATION;
+    /**
+     * 其他属性
+     */
+    public static final int FLAG_OTHER = FPropertyFlags.FLAG_OTHER;
+
+    private ViewProperty()
+    {
+    }
+
+    public static final FloatProperty<View> ALPHA = new FloatProperty<View>("alpha")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setAlpha(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getAlpha();
+        }
+    };
+
+    public static final FloatProperty<View> TRANSLATION_X = new FloatProperty<View>("translationX")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setTranslationX(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getTranslationX();
+        }
+    };
+
+    public static final FloatProperty<View> TRANSLATION_Y = new FloatProperty<View>("translationY")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setTranslationY(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getTranslationY();
+        }
+    };
+
+    public static final FloatProperty<View> X = new FloatProperty<View>("x")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setX(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getX();
+        }
+    };
+
+    public static final FloatProperty<View> Y = new FloatProperty<View>("y")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setY(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getY();
+        }
+    };
+
+    public static final FloatProperty<View> SCALE_X = new FloatProperty<View>("scaleX")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setScaleX(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getScaleX();
+        }
+    };
+
+    public static final FloatProperty<View> SCALE_Y = new FloatProperty<View>("scaleY")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setScaleY(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getScaleY();
+        }
+    };
+
+    public static final FloatProperty<View> ROTATION = new FloatProperty<View>("rotation")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setRotation(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getRotation();
+        }
+    };
+
+    public static final FloatProperty<View> ROTATION_X = new FloatProperty<View>("rotationX")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setRotationX(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getRotationX();
+        }
+    };
+
+    public static final FloatProperty<View> ROTATION_Y = new FloatProperty<View>("rotationY")
+    {
+        @Override
+        public void setValue(View object, float value)
+        {
+            object.setRotationY(value);
+        }
+
+        @Override
+        public float getValue(View object)
+        {
+            return object.getRotationY();
+        }
+    };
+
+    /**
+     * 返回属性对应的标识
+     *
+     * @param property
+     * @return {@link #FLAG_ALPHA}，{@link #FLAG_TRANSLATION}，{@link #FLAG_SCALE}，{@link #FLAG_ROTATION}，{@link #FLAG_OTHER}
+     */
+    public static int getFlag(FloatProperty<View> property)
+    {
+        if (property == ALPHA)
+            return FLAG_ALPHA;
+        if (property == TRANSLATION_X || property == TRANSLATION_Y || property == X || property == Y)
+            return FLAG_TRANSLATION;
+        if (property == SCALE_X || property == SCALE_Y)
+            return FLAG_SCALE;
+        if (property == ROTATION || property == ROTATION_X || property == ROTATION_Y)
+            return FLAG_ROTATION;
+        return FLAG_OTHER;
+    }
+
+    /**
+     * 根据属性名称返回对应的属性
+     *
+     * @param name
+     * @return 如果不是View的常用属性，返回null
+     */
+    public static FloatProperty<View> forName(String name)
+    {
+        if (name == null)
+            return null;
+
+        switch (name)
+        {
+            case "alpha":
+                return ALPHA;
+            case "translationX":
+                return TRANSLATION_X;
+            case "translationY":
+                return TRANSLATION_Y;
+            case "x":
+                return X;
+            case "y":
+                return Y;
+            case "scaleX":
+                return SCALE_X;
+            case "scaleY":
+                return SCALE_Y;
+            case "rotation":
+                return ROTATION;
+            case "rotationX":
+                return ROTATION_X;
+            case "rotationY":
+                return ROTATION_Y;
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.sd.lib.viewanim;
+
+import org.junit.Assume;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * 测量当前线程分配的字节数，JVM不支持的时候跳过测试
+ */
+final class AllocationCounter
+{
+    private AllocationCounter()
+    {
+    }
+
+    /**
+     * 返回当前线程累计分配的字节数
+     *
+     * @return
+     */
+    static long getAllocatedBytes()
+    {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue("allocated bytes measurement is not supported", bean instanceof com.sun.management.ThreadMXBean);
+
+        final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        Assume.assumeTrue("allocated bytes measurement is not enabled",
+                sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled());
+
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
@@ -0,0 +1,120 @@
+package com.sd.lib.viewanim;
+
+import android.view.View;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.AlphaCreator;
+import com.sd.lib.viewanim.creator.obj.CombineCreator;
+import com.sd.lib.viewanim.creator.obj.PivotPercentCreator;
+import com.sd.lib.viewanim.creator.obj.ScaleXCreator;
+import com.sd.lib.viewanim.creator.obj.ScaleYCreator;
+import com.sd.lib.viewanim.creator.obj.SlideHorizontalCreator;
+
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * 创建者相等和享元池测试
+ */
+public class FCreatorPoolTest
+{
+    @After
+    public void tearDown()
+    {
+        FCreatorPool.clear();
+    }
+
+    private static AnimatorCreator newCreator(long duration, float pivotY)
+    {
+        return new PivotPercentCreator(new CombineCreator(
+                new AlphaCreator().setDuration(duration),
+                new ScaleXCreator(),
+                new ScaleYCreator().setInterpolator(FEasingInterpolator.cubicBezier(0.4f, 0.0f, 0.2f, 1.0f))),
+                0.5f, pivotY);
+    }
+
+    @Test
+    public void equality()
+    {
+        assertEquals(newCreator(250, 1.0f), newCreator(250, 1.0f));
+        assertEquals(newCreator(250, 1.0f).hashCode(), newCreator(250, 1.0f).hashCode());
+
+        assertNotEquals(newCreator(250, 1.0f), newCreator(300, 1.0f));
+        assertNotEquals(newCreator(250, 1.0f), newCreator(250, 0.5f));
+        assertNotEquals(new ScaleXCreator(), new ScaleYCreator());
+    }
+
+    @Test
+    public void intern()
+    {
+        final AnimatorCreator first = FCreatorPool.intern(newCreator(250, 1.0f));
+        final AnimatorCreator second = FCreatorPool.intern(newCreator(250, 1.0f));
+        final AnimatorCreator other = FCreatorPool.intern(newCreator(300, 1.0f));
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(2, FCreatorPool.size());
+    }
+
+    @Test
+    public void subclass_identity_equality()
+    {
+        // 子类自己的参数没有参与比较，默认按照对象本身比较，不能被合并
+        final AnimatorCreator near = new FixedSlideCreator(10);
+        final AnimatorCreator far = new FixedSlideCreator(100);
+        assertNotEquals(near, far);
+        assertNotEquals(new FixedSlideCreator(10), new FixedSlideCreator(10));
+        assertEquals(near, near);
+
+        assertNotSame(FCreatorPool.intern(new CombineCreator(new AlphaCreator(), near)),
+                FCreatorPool.intern(new CombineCreator(new AlphaCreator(), far)));
+        assertSame(far, FCreatorPool.intern(far));
+    }
+
+    /**
+     * 有自己参数的子类
+     */
+    private static final class FixedSlideCreator extends SlideHorizontalCreator
+    {
+        private final float mDistance;
+
+        FixedSlideCreator(float distance)
+        {
+            mDistance = distance;
+        }
+
+        @Override
+        protected float getValueHidden(View view)
+        {
+            return -mDistance;
+        }
+
+        @Override
+        protected float getValueShown(View view)
+        {
+            return 0;
+        }
+    }
+
+    @Test
+    public void intern_freezes()
+    {
+        final AlphaCreator alpha = new AlphaCreator();
+        final AnimatorCreator creator = FCreatorPool.intern(new CombineCreator(alpha, new ScaleXCreator()));
+        final int hashCode = creator.hashCode();
+
+        try
+        {
+            alpha.setDuration(500);
+            fail("frozen creator was modified");
+        } catch (IllegalStateException e)
+        {
+            // 预期
+        }
+
+        assertEquals(hashCode, creator.hashCode());
+        assertSame(creator, FCreatorPool.intern(new CombineCreator(new AlphaCreator(), new ScaleXCreator())));
+    }
+}
@@ -0,0 +1,169 @@
+package com.sd.lib.viewanim;
+
+import android.animation.Animator;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * 监听分发测试
+ */
+public class FVisibilityAnimatorHandlerTest
+{
+    private static final int DISPATCH_COUNT = 100000;
+
+    @Test
+    public void dispatch_order()
+    {
+        final List<String> events = new ArrayList<>();
+        final FVisibilityAnimatorHandler handler = new FVisibilityAnimatorHandler();
+        handler.setShowAnimatorListener(new RecordListener("internal", events));
+        handler.addShowAnimatorListener(new RecordListener("a", events));
+        handler.addShowAnimatorListener(new RecordListener("b", events));
+        handler.addShowAnimatorListener(new RecordListener("c", events));
+
+        handler.mShowDispatcher.onAnimationStart(null);
+        assertEquals("[internal start, a start, b start, c start]", events.toString());
+    }
+
+    @Test
+    public void dispatch_directions_separated()
+    {
+        final List<String> events = new ArrayList<>();
+        final FVisibilityAnimatorHandler handler = new FVisibilityAnimatorHandler();
+        handler.addShowAnimatorListener(new RecordListener("show", events));
+        handler.addHideAnimatorListener(new RecordListener("hide", events));
+
+        handler.mHideDispatcher.onAnimationEnd(null);
+        assertEquals("[hide end]", events.toString());
+    }
+
+    @Test
+    public void modify_during_dispatch()
+    {
+        final List<String> events = new ArrayList<>();
+        final FVisibilityAnimatorHandler handler = new FVisibilityAnimatorHandler();
+        final RecordListener added = new RecordListener("added", events);
+
+        handler.addShowAnimatorListener(new RecordListener("self", events)
+        {
+            @Override
+            public void onAnimationStart(Animator animation)
+            {
+                super.onAnimationStart(animation);
+                handler.removeShowAnimatorListener(this);
+                handler.addShowAnimatorListener(added);
+            }
+        });
+        handler.addShowAnimatorListener(new RecordListener("next", events));
+
+        handler.mShowDispatcher.onAnimationStart(null);
+        assertEquals("[self start, next start]", events.toString());
+
+        events.clear();
+        handler.mShowDispatcher.onAnimationStart(null);
+        assertEquals("[next start, added start]", events.toString());
+    }
+
+    @Test
+    public void dispatch_without_allocation()
+    {
+        final FVisibilityAnimatorHandler handler = new FVisibilityAnimatorHandler();
+        handler.setShowAnimatorListener(new CountListener());
+        for (int i = 0; i < 8; i++)
+        {
+            handler.addShowAnimatorListener(new CountListener());
+            handler.addHideAnimatorListener(new CountListener());
+        }
+
+        // 预热
+        dispatch(handler);
+
+        final long bytes = AllocationCounter.getAllocatedBytes();
+        dispatch(handler);
+        final long allocated = AllocationCounter.getAllocatedBytes() - bytes;
+
+        // 如果每次分发都创建迭代器，这里会分配若干MB，预留的字节用于测量本身和JIT的少量分配
+        assertTrue("allocated bytes:" + allocated, allocated < 64 * 1024);
+    }
+
+    private static void dispatch(FVisibilityAnimatorHandler handler)
+    {
+        for (int i = 0; i < DISPATCH_COUNT; i++)
+        {
+            handler.mShowDispatcher.onAnimationStart(null);
+            handler.mShowDispatcher.onAnimationEnd(null);
+            handler.mHideDispatcher.onAnimationCancel(null);
+            handler.mHideDispatcher.onAnimationRepeat(null);
+        }
+    }
+
+    private static class RecordListener implements Animator.AnimatorListener
+    {
+        private final String mName;
+        private final List<String> mEvents;
+
+        public RecordListener(String name, List<String> events)
+        {
+            mName = name;
+            mEvents = events;
+        }
+
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            mEvents.add(mName + " start");
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            mEvents.add(mName + " end");
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation)
+        {
+            mEvents.add(mName + " cancel");
+        }
+
+        @Override
+        public void onAnimationRepeat(Animator animation)
+        {
+            mEvents.add(mName + " repeat");
+        }
+    }
+
+    private static class CountListener implements Animator.AnimatorListener
+    {
+        private int mCount;
+
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            mCount++;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            mCount++;
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation)
+        {
+            mCount++;
+        }
+
+        @Override
+        public void onAnimationRepeat(Animator animation)
+        {
+            mCount++;
+        }
+    }
+}
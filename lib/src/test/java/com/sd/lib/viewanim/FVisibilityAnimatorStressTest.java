@@ -0,0 +1,414 @@
+package com.sd.lib.viewanim;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.ObjectAnimator;
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.sd.lib.viewanim.creator.obj.AlphaCreator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.android.controller.ActivityController;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 压力测试：大量View随机执行显示，隐藏，取消，移除和添加，逐帧推进，检查内存分配和遗留的注册
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@Config(sdk = 28)
+public class FVisibilityAnimatorStressTest
+{
+    private static final int VIEW_COUNT = 1000;
+    private static final int OPERATION_COUNT = 10000;
+    private static final int OPERATIONS_PER_FRAME = 10;
+    private static final long FRAME_MILLIS = 16;
+    private static final long SEED = 20201021L;
+
+    /** 随机操作平均每次允许分配的字节数，包含第一次创建动画和Robolectric自身的开销，当前实测约1.5KB */
+    private static final long MAX_BYTES_PER_OPERATION = 2 * 1024;
+
+    private static final int REUSED_TOGGLE_COUNT = 200;
+    /** 复用动画之后，每次开始显示或者隐藏比直接开始一个平台动画多分配的字节数，只够框架在开始动画的时候复制监听列表 */
+    private static final long MAX_BYTES_PER_REUSED_TOGGLE = 256;
+
+    private ActivityController<Activity> mController;
+    private Activity mActivity;
+    private FrameLayout mContainer;
+    private View[] mViews;
+    private FVisibilityAnimator[] mAnimators;
+
+    @Before
+    public void setUp()
+    {
+        mController = Robolectric.buildActivity(Activity.class).setup();
+        mActivity = mController.get();
+        mContainer = new FrameLayout(mActivity);
+        mActivity.setContentView(mContainer, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        mViews = new View[VIEW_COUNT];
+        mAnimators = new FVisibilityAnimator[VIEW_COUNT];
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            final View view = new View(mActivity);
+            view.setVisibility(i % 2 == 0 ? View.VISIBLE : View.INVISIBLE);
+            mContainer.addView(view, new FrameLayout.LayoutParams(10 + i % 50, 10 + i % 30));
+
+            final FVisibilityAnimator animator = new FVisibilityAnimator(view);
+            animator.setAnimatorCreator(new AlphaCreator());
+            animator.setReuseAnimator(true);
+            // 一半的View打断的时候原地反转
+            animator.setReverseOnInterrupt(i % 4 < 2);
+
+            mViews[i] = view;
+            mAnimators[i] = animator;
+        }
+
+        stepFrames(2);
+    }
+
+    @After
+    public void tearDown()
+    {
+        FAnimatorPolicy.setMode(FAnimatorPolicy.MODE_SYSTEM);
+        mActivity.finish();
+    }
+
+    @Test
+    public void randomOperations()
+    {
+        final Random random = new Random(SEED);
+        final long startTime = System.nanoTime();
+
+        long allocatedBytes = 0;
+        for (int i = 0; i < OPERATION_COUNT; i++)
+        {
+            final int index = random.nextInt(VIEW_COUNT);
+            final int operation = random.nextInt(7);
+
+            final long bytes = AllocationCounter.getAllocatedBytes();
+            runOperation(index, operation);
+            allocatedBytes += AllocationCounter.getAllocatedBytes() - bytes;
+
+            if (i % OPERATIONS_PER_FRAME == 0)
+                stepFrames(1);
+        }
+
+        // 所有View重新添加，等待所有动画结束
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            attach(i);
+        }
+        stepFrames(200);
+
+        final long wallTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        final long bytesPerOperation = allocatedBytes / OPERATION_COUNT;
+        final int runningAnimators = getRunningAnimatorCount();
+        final int pendingCheckers = FPreDrawCoordinator.getInstance().getPendingCount();
+        final int preDrawObservers = FPreDrawCoordinator.getInstance().getObserverCount();
+        final int layoutListeners = getLayoutChangeListenerCount();
+        final int attachListeners = getAttachStateListenerCount();
+        final Duration nextTask = getMainLooper().getNextScheduledTaskTime();
+
+        assertTrue("bytes/operation:" + bytesPerOperation + " wall time(ms):" + wallTime, bytesPerOperation <= MAX_BYTES_PER_OPERATION);
+        assertEquals("running animators", 0, runningAnimators);
+        assertEquals("pending checkers", 0, pendingCheckers);
+        assertEquals("pre-draw observers", 0, preDrawObservers);
+        assertEquals("layout listeners", 0, layoutListeners);
+        // 每个FVisibilityAnimator只注册一个
+        assertEquals("attach listeners", VIEW_COUNT, attachListeners);
+        assertEquals("looper tasks", Duration.ZERO, nextTask);
+    }
+
+    @Test
+    public void reusedToggleAllocation()
+    {
+        final FVisibilityAnimator animator = mAnimators[0];
+        assertEquals(View.VISIBLE, mViews[0].getVisibility());
+
+        // 预热：两个方向的动画都已经创建，之后只更新参数
+        for (int i = 0; i < 3; i++)
+        {
+            toggle(animator);
+        }
+
+        long allocatedBytes = 0;
+        for (int i = 0; i < REUSED_TOGGLE_COUNT; i++)
+        {
+            allocatedBytes += toggle(animator);
+        }
+
+        // Robolectric安排每一帧也会分配，扣除直接开始一个平台动画的开销
+        final long platformBytes = getPlatformStartBytes(mViews[2]);
+        final long bytesPerToggle = allocatedBytes / (REUSED_TOGGLE_COUNT * 2);
+        assertTrue("reused bytes/toggle:" + bytesPerToggle + " platform bytes/start:" + platformBytes,
+                bytesPerToggle - platformBytes <= MAX_BYTES_PER_REUSED_TOGGLE);
+    }
+
+    /**
+     * 复用同一个平台动画，测量每次开始分配的字节数
+     *
+     * @param view
+     * @return 平均每次开始分配的字节数
+     */
+    private long getPlatformStartBytes(View view)
+    {
+        final ObjectAnimator animator = ObjectAnimator.ofFloat(view, View.ALPHA, 1.0f, 1.0f);
+        animator.start();
+        stepFrames(30);
+
+        long allocatedBytes = 0;
+        for (int i = 0; i < REUSED_TOGGLE_COUNT; i++)
+        {
+            final long bytes = AllocationCounter.getAllocatedBytes();
+            animator.start();
+            allocatedBytes += AllocationCounter.getAllocatedBytes() - bytes;
+            stepFrames(30);
+        }
+        return allocatedBytes / REUSED_TOGGLE_COUNT;
+    }
+
+    /**
+     * 隐藏之后再显示，每次都等待动画结束
+     *
+     * @return 开始隐藏和显示动画分配的字节数，不包括推进帧的开销
+     */
+    private long toggle(FVisibilityAnimator animator)
+    {
+        long bytes = AllocationCounter.getAllocatedBytes();
+        assertTrue(animator.startHide());
+        long allocated = AllocationCounter.getAllocatedBytes() - bytes;
+        stepFrames(30);
+        assertFalse(animator.isHideAnimatorStarted());
+
+        bytes = AllocationCounter.getAllocatedBytes();
+        animator.startShow();
+        // 显示动画在绘制之前开始
+        mContainer.getViewTreeObserver().dispatchOnPreDraw();
+        allocated += AllocationCounter.getAllocatedBytes() - bytes;
+        assertTrue(animator.isShowAnimatorStarted());
+        stepFrames(30);
+        assertFalse(animator.isShowAnimatorStarted());
+        return allocated;
+    }
+
+    @Test
+    public void pauseWhenHostStopped()
+    {
+        for (FVisibilityAnimator item : mAnimators)
+        {
+            item.startHide();
+        }
+
+        // Robolectric每次垂直同步都推进时钟，推进一帧就会把动画执行完，所以开始之后直接停止宿主
+        final int runningAnimators = getRunningAnimatorCount();
+        assertTrue("running animators", runningAnimators > 0);
+
+        mController.pause().stop();
+        for (FVisibilityAnimator item : mAnimators)
+        {
+            assertTrue(item.isPaused());
+        }
+
+        // 暂停期间动画不推进
+        stepFrames(100);
+        assertEquals("running animators", runningAnimators, getRunningAnimatorCount());
+
+        mController.start().resume();
+        stepFrames(100);
+        assertEquals("running animators", 0, getRunningAnimatorCount());
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+        }
+    }
+
+    @Test
+    public void cullOffscreen()
+    {
+        final int[] endCount = new int[1];
+        for (FVisibilityAnimator item : mAnimators)
+        {
+            item.setCullOffscreen(true);
+            item.addHideAnimatorListener(new AnimatorListenerAdapter()
+            {
+                @Override
+                public void onAnimationEnd(Animator animation)
+                {
+                    endCount[0]++;
+                }
+            });
+        }
+
+        // 父容器不可见，所有View都不在屏幕上
+        mContainer.setVisibility(View.INVISIBLE);
+
+        int visibleCount = 0;
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            if (mViews[i].getVisibility() == View.VISIBLE)
+            {
+                visibleCount++;
+                assertFalse(mAnimators[i].startHide());
+            }
+        }
+
+        assertEquals("running animators", 0, getRunningAnimatorCount());
+        assertEquals("end callbacks", visibleCount, endCount[0]);
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+        }
+    }
+
+    @Test
+    public void animatorsDisabled()
+    {
+        FAnimatorPolicy.setMode(FAnimatorPolicy.MODE_DISABLED);
+
+        final int[] endCount = new int[1];
+        for (FVisibilityAnimator item : mAnimators)
+        {
+            item.addShowAnimatorListener(new AnimatorListenerAdapter()
+            {
+                @Override
+                public void onAnimationEnd(Animator animation)
+                {
+                    endCount[0]++;
+                }
+            });
+        }
+
+        int hiddenCount = 0;
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            if (mViews[i].getVisibility() != View.VISIBLE)
+            {
+                hiddenCount++;
+                mAnimators[i].startShow();
+            }
+        }
+
+        // 不等待布局，立即显示
+        assertEquals("running animators", 0, getRunningAnimatorCount());
+        assertEquals("pending checkers", 0, FPreDrawCoordinator.getInstance().getPendingCount());
+        assertEquals("end callbacks", hiddenCount, endCount[0]);
+        for (View item : mViews)
+        {
+            assertEquals(View.VISIBLE, item.getVisibility());
+        }
+    }
+
+    private void runOperation(int index, int operation)
+    {
+        final FVisibilityAnimator animator = mAnimators[index];
+        switch (operation)
+        {
+            case 0:
+            case 1:
+                animator.startShow();
+                break;
+            case 2:
+            case 3:
+                animator.startHide();
+                break;
+            case 4:
+                animator.cancelShowAnimator();
+                break;
+            case 5:
+                animator.cancelHideAnimator();
+                break;
+            default:
+                if (mViews[index].getParent() == null)
+                    attach(index);
+                else
+                    mContainer.removeView(mViews[index]);
+                break;
+        }
+    }
+
+    private void attach(int index)
+    {
+        final View view = mViews[index];
+        if (view.getParent() == null)
+            mContainer.addView(view, new FrameLayout.LayoutParams(10 + index % 50, 10 + index % 30));
+    }
+
+    private void stepFrames(int count)
+    {
+        final ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        for (int i = 0; i < count; i++)
+        {
+            looper.idleFor(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private ShadowLooper getMainLooper()
+    {
+        return shadowOf(Looper.getMainLooper());
+    }
+
+    private int getRunningAnimatorCount()
+    {
+        int count = 0;
+        for (FVisibilityAnimator item : mAnimators)
+        {
+            if (item.isShowAnimatorStarted() || item.isHideAnimatorStarted())
+                count++;
+        }
+        return count;
+    }
+
+    private int getLayoutChangeListenerCount()
+    {
+        int count = getListenerCount(mContainer, "mOnLayoutChangeListeners");
+        for (View item : mViews)
+        {
+            count += getListenerCount(item, "mOnLayoutChangeListeners");
+        }
+        return count;
+    }
+
+    private int getAttachStateListenerCount()
+    {
+        int count = 0;
+        for (View item : mViews)
+        {
+            count += getListenerCount(item, "mOnAttachStateChangeListeners");
+        }
+        return count;
+    }
+
+    private static int getListenerCount(View view, String fieldName)
+    {
+        final Object listenerInfo = ReflectionHelpers.getField(view, "mListenerInfo");
+        if (listenerInfo == null)
+            return 0;
+
+        final Object listeners = ReflectionHelpers.getField(listenerInfo, fieldName);
+        if (listeners == null)
+            return 0;
+
+        return ((List<?>) listeners).size();
+    }
+}
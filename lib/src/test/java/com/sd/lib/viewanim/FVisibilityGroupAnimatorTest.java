@@ -0,0 +1,325 @@
+package com.sd.lib.viewanim;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.animation.AnimatorSet;
+import android.animation.ObjectAnimator;
+import android.animation.ValueAnimator;
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.LinearInterpolator;
+import android.widget.FrameLayout;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.obj.AlphaCreator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+import org.robolectric.shadows.ShadowLooper;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 多个View的错开显示，打断隐藏和移除View
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@Config(sdk = 28)
+public class FVisibilityGroupAnimatorTest
+{
+    private static final int VIEW_COUNT = 3;
+    private static final long DURATION = 100;
+    private static final long STAGGER = 50;
+    private static final long FRAME_MILLIS = 16;
+    private static final float DELTA = 0.01f;
+
+    private Activity mActivity;
+    private FrameLayout mContainer;
+    private View[] mViews;
+    private FVisibilityGroupAnimator mAnimator;
+    private CountListener mShowListener;
+    private CountListener mHideListener;
+
+    @Before
+    public void setUp()
+    {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mContainer = new FrameLayout(mActivity);
+        mActivity.setContentView(mContainer, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        mAnimator = new FVisibilityGroupAnimator();
+        mAnimator.setStagger(STAGGER);
+        mShowListener = new CountListener();
+        mHideListener = new CountListener();
+        mAnimator.addShowAnimatorListener(mShowListener);
+        mAnimator.addHideAnimatorListener(mHideListener);
+
+        mViews = new View[VIEW_COUNT];
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            final View view = new View(mActivity);
+            view.setVisibility(View.INVISIBLE);
+            mContainer.addView(view, new FrameLayout.LayoutParams(100, 100));
+            mAnimator.addView(view);
+            mViews[i] = view;
+        }
+
+        stepFrames(2);
+    }
+
+    @After
+    public void tearDown()
+    {
+        FAnimatorPolicy.setMode(FAnimatorPolicy.MODE_SYSTEM);
+        mActivity.finish();
+    }
+
+    @Test
+    public void staggeredShowCompiled()
+    {
+        final AlphaCreator creator = new AlphaCreator();
+        creator.setDuration(DURATION);
+        creator.setInterpolator(new LinearInterpolator());
+        mAnimator.setAnimatorCreator(creator);
+
+        startShow();
+        assertStartValues();
+
+        // 所有View由同一个动画驱动
+        final ValueAnimator animator = (ValueAnimator) getShowAnimator();
+        animator.setCurrentPlayTime(DURATION * 3 / 4);
+        assertEquals(0.75f, mViews[0].getAlpha(), DELTA);
+        assertEquals(0.25f, mViews[1].getAlpha(), DELTA);
+        assertEquals(0.0f, mViews[2].getAlpha(), DELTA);
+
+        assertShowEnd();
+    }
+
+    @Test
+    public void staggeredShowAnimatorSet()
+    {
+        // 自定义的创建者不能合并编译，每个View单独创建动画
+        mAnimator.setAnimatorCreator(new LinearAlphaCreator());
+
+        startShow();
+        assertStartValues();
+
+        final List<Animator> children = ((AnimatorSet) getShowAnimator()).getChildAnimations();
+        assertEquals(VIEW_COUNT, children.size());
+        for (int i = 0; i < VIEW_COUNT; i++)
+        {
+            assertEquals(i * STAGGER, children.get(i).getStartDelay());
+        }
+
+        assertShowEnd();
+    }
+
+    @Test
+    public void interruptingHide()
+    {
+        mAnimator.setAnimatorCreator(new AlphaCreator());
+        startShow();
+
+        assertTrue(mAnimator.startHide());
+        assertFalse(mAnimator.isShowAnimatorStarted());
+        assertTrue(mAnimator.isHideAnimatorStarted());
+        assertEquals(1, mShowListener.mCancelCount);
+        assertEquals(1, mShowListener.mEndCount);
+
+        stepFrames(30);
+        assertFalse(mAnimator.isHideAnimatorStarted());
+        assertEquals(1, mHideListener.mEndCount);
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+            // 隐藏之后属性被重置
+            assertEquals(1.0f, item.getAlpha(), 0.0f);
+        }
+    }
+
+    @Test
+    public void hideNotReady()
+    {
+        mAnimator.setAnimatorCreator(new AlphaCreator());
+        showViews();
+
+        // 有一个View未添加到ui上，所有可见的View直接隐藏
+        final View detached = new View(mActivity);
+        mAnimator.addView(detached);
+
+        assertFalse(mAnimator.startHide());
+        assertFalse(mAnimator.isHideAnimatorStarted());
+        assertEquals(View.INVISIBLE, detached.getVisibility());
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+        }
+    }
+
+    @Test
+    public void detachCancelsShow()
+    {
+        mAnimator.setAnimatorCreator(new AlphaCreator());
+        startShow();
+
+        mContainer.removeView(mViews[1]);
+        assertFalse(mAnimator.isShowAnimatorStarted());
+        assertEquals(1, mShowListener.mCancelCount);
+    }
+
+    @Test
+    public void detachCancelsHide()
+    {
+        mAnimator.setAnimatorCreator(new AlphaCreator());
+        showViews();
+
+        assertTrue(mAnimator.startHide());
+        mContainer.removeView(mViews[1]);
+        assertFalse(mAnimator.isHideAnimatorStarted());
+        assertEquals(1, mHideListener.mCancelCount);
+
+        // 取消之后也会结束，View被隐藏
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+        }
+    }
+
+    @Test
+    public void animatorsDisabled()
+    {
+        FAnimatorPolicy.setMode(FAnimatorPolicy.MODE_DISABLED);
+        mAnimator.setAnimatorCreator(new AlphaCreator());
+
+        // 不等待布局，立即显示
+        mAnimator.startShow();
+        assertFalse(mAnimator.isShowAnimatorStarted());
+        assertEquals(1, mShowListener.mStartCount);
+        assertEquals(1, mShowListener.mEndCount);
+        for (View item : mViews)
+        {
+            assertEquals(View.VISIBLE, item.getVisibility());
+        }
+
+        assertFalse(mAnimator.startHide());
+        assertEquals(1, mHideListener.mStartCount);
+        assertEquals(1, mHideListener.mEndCount);
+        for (View item : mViews)
+        {
+            assertEquals(View.INVISIBLE, item.getVisibility());
+        }
+    }
+
+    /**
+     * 动画开始之后所有View可见，延迟开始的View也停留在开始值
+     */
+    private void assertStartValues()
+    {
+        for (View item : mViews)
+        {
+            assertEquals(View.VISIBLE, item.getVisibility());
+            assertEquals(0.0f, item.getAlpha(), DELTA);
+        }
+    }
+
+    private void assertShowEnd()
+    {
+        stepFrames(30);
+        assertFalse(mAnimator.isShowAnimatorStarted());
+        assertEquals(1, mShowListener.mEndCount);
+        for (View item : mViews)
+        {
+            assertEquals(1.0f, item.getAlpha(), DELTA);
+        }
+    }
+
+    /**
+     * 开始显示，在绘制之前开始动画，不推进帧
+     */
+    private void startShow()
+    {
+        mAnimator.startShow();
+        assertFalse(mAnimator.isShowAnimatorStarted());
+
+        mContainer.getViewTreeObserver().dispatchOnPreDraw();
+        assertTrue(mAnimator.isShowAnimatorStarted());
+        assertEquals(1, mShowListener.mStartCount);
+    }
+
+    private void showViews()
+    {
+        for (View item : mViews)
+        {
+            item.setVisibility(View.VISIBLE);
+        }
+        stepFrames(2);
+    }
+
+    private Animator getShowAnimator()
+    {
+        final FVisibilityAnimatorHandler handler = ReflectionHelpers.getField(mAnimator, "mAnimatorHandler");
+        return handler.getShowAnimator();
+    }
+
+    private void stepFrames(int count)
+    {
+        final ShadowLooper looper = shadowOf(Looper.getMainLooper());
+        for (int i = 0; i < count; i++)
+        {
+            looper.idleFor(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 线性的透明度动画，不支持合并编译
+     */
+    private static final class LinearAlphaCreator implements AnimatorCreator
+    {
+        @Override
+        public Animator createAnimator(boolean show, View view)
+        {
+            final ObjectAnimator animator = ObjectAnimator.ofFloat(view, View.ALPHA, show ? 0.0f : 1.0f, show ? 1.0f : 0.0f);
+            animator.setDuration(DURATION);
+            animator.setInterpolator(new LinearInterpolator());
+            return animator;
+        }
+    }
+
+    private static final class CountListener extends AnimatorListenerAdapter
+    {
+        private int mStartCount;
+        private int mCancelCount;
+        private int mEndCount;
+
+        @Override
+        public void onAnimationStart(Animator animation)
+        {
+            mStartCount++;
+        }
+
+        @Override
+        public void onAnimationCancel(Animator animation)
+        {
+            mCancelCount++;
+        }
+
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            mEndCount++;
+        }
+    }
+}
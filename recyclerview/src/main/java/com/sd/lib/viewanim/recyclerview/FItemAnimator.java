@@ -0,0 +1,390 @@
+package com.sd.lib.viewanim.recyclerview;
+
+import android.animation.Animator;
+import android.animation.AnimatorListenerAdapter;
+import android.util.SparseArray;
+import android.view.View;
+
+import androidx.recyclerview.widget.DefaultItemAnimator;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.sd.lib.viewanim.creator.AnimatorCreator;
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
+import com.sd.lib.viewanim.property.FViewProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 使用{@link AnimatorCreator}执行添加和移除动画的ItemAnimator，移动和变化仍然使用{@link DefaultItemAnimator}的动画
+ * <p>
+ * 如果创建者实现了{@link ReusableAnimatorCreator}，结束的动画按照ViewType分别放入池中，之后的动画优先复用池中的动画
+ */
+public class FItemAnimator extends DefaultItemAnimator
+{
+    private static final int DEFAULT_MAX_POOL_SIZE = 5;
+
+    private AnimatorCreator mAddCreator;
+    private AnimatorCreator mRemoveCreator;
+    private int mMaxPoolSize = DEFAULT_MAX_POOL_SIZE;
+
+    private final SparseArray<List<Animator>> mAddPool = new SparseArray<>();
+    private final SparseArray<List<Animator>> mRemovePool = new SparseArray<>();
+
+    private final List<RecyclerView.ViewHolder> mPendingAdditions = new ArrayList<>();
+    private final List<RecyclerView.ViewHolder> mPendingRemovals = new ArrayList<>();
+    /** 等待移除动画结束后再开始的添加动画 */
+    private final List<List<RecyclerView.ViewHolder>> mAdditionsList = new ArrayList<>();
+
+    private final Map<RecyclerView.ViewHolder, Animator> mRunningAnimators = new HashMap<>();
+    private final Map<Animator, RecyclerView.ViewHolder> mRunningHolders = new HashMap<>();
+
+    /**
+     * 设置添加的动画创建者，为null则使用{@link DefaultItemAnimator}的动画
+     *
+     * @param creator
+     */
+    public void setAddCreator(AnimatorCreator creator)
+    {
+        if (mAddCreator != creator)
+        {
+            mAddCreator = creator;
+            mAddPool.clear();
+        }
+    }
+
+    /**
+     * 设置移除的动画创建者，为null则使用{@link DefaultItemAnimator}的动画
+     *
+     * @param creator
+     */
+    public void setRemoveCreator(AnimatorCreator creator)
+    {
+        if (mRemoveCreator != creator)
+        {
+            mRemoveCreator = creator;
+            mRemovePool.clear();
+        }
+    }
+
+    /**
+     * 设置每个ViewType每个方向最多缓存的动画数量，默认5
+     *
+     * @param size 大于等于0，0表示不缓存
+     */
+    public void setMaxPoolSize(int size)
+    {
+        if (size < 0)
+            throw new IllegalArgumentException("size must be >= 0");
+
+        mMaxPoolSize = size;
+        trimPool(mAddPool, size);
+        trimPool(mRemovePool, size);
+    }
+
+    /**
+     * 清空缓存的动画
+     */
+    public void clearPool()
+    {
+        mAddPool.clear();
+        mRemovePool.clear();
+    }
+
+    @Override
+    public boolean animateAdd(RecyclerView.ViewHolder holder)
+    {
+        if (mAddCreator == null)
+            return super.animateAdd(holder);
+
+        endAnimation(holder);
+        // 等待动画开始之前先隐藏，避免先显示一帧
+        holder.itemView.setAlpha(0.0f);
+        mPendingAdditions.add(holder);
+        return true;
+    }
+
+    @Override
+    public boolean animateRemove(RecyclerView.ViewHolder holder)
+    {
+        if (mRemoveCreator == null)
+            return super.animateRemove(holder);
+
+        endAnimation(holder);
+        mPendingRemovals.add(holder);
+        return true;
+    }
+
+    @Override
+    public void runPendingAnimations()
+    {
+        // 父类的移动和变化动画结束之后再开始添加
+        final boolean othersPending = super.isRunning();
+        final boolean removalsPending = !mPendingRemovals.isEmpty();
+        super.runPendingAnimations();
+
+        if (removalsPending)
+        {
+            for (RecyclerView.ViewHolder item : mPendingRemovals)
+            {
+                startAnimator(item, false);
+            }
+            mPendingRemovals.clear();
+        }
+
+        if (mPendingAdditions.isEmpty())
+            return;
+
+        final long delay = (removalsPending ? getRemoveDuration() : 0) + (othersPending ? getMoveDuration() : 0);
+        if (delay <= 0)
+        {
+            for (RecyclerView.ViewHolder item : mPendingAdditions)
+            {
+                startAnimator(item, true);
+            }
+            mPendingAdditions.clear();
+            return;
+        }
+
+        final List<RecyclerView.ViewHolder> additions = new ArrayList<>(mPendingAdditions);
+        mAdditionsList.add(additions);
+        mPendingAdditions.clear();
+
+        final Runnable runnable = new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                if (!mAdditionsList.remove(additions))
+                    return;
+
+                for (RecyclerView.ViewHolder item : additions)
+                {
+                    startAnimator(item, true);
+                }
+            }
+        };
+        additions.get(0).itemView.postOnAnimationDelayed(runnable, delay);
+    }
+
+    private void startAnimator(RecyclerView.ViewHolder holder, boolean add)
+    {
+        if (add)
+            holder.itemView.setAlpha(1.0f);
+
+        final Animator animator = obtainAnimator(holder, add);
+        if (animator == null)
+        {
+            if (add)
+            {
+                dispatchAddStarting(holder);
+                dispatchAddFinished(holder);
+            } else
+            {
+                dispatchRemoveStarting(holder);
+                FViewProperties.reset(holder.itemView);
+                dispatchRemoveFinished(holder);
+            }
+            dispatchFinishedWhenDone();
+            return;
+        }
+
+        mRunningAnimators.put(holder, animator);
+        mRunningHolders.put(animator, holder);
+
+        if (add)
+            dispatchAddStarting(holder);
+        else
+            dispatchRemoveStarting(holder);
+
+        animator.start();
+    }
+
+    /**
+     * 返回要执行的动画，优先更新池中的动画
+     *
+     * @param holder
+     * @param add
+     * @return
+     */
+    private Animator obtainAnimator(RecyclerView.ViewHolder holder, boolean add)
+    {
+        final AnimatorCreator creator = add ? mAddCreator : mRemoveCreator;
+        final View view = holder.itemView;
+
+        if (creator instanceof ReusableAnimatorCreator)
+        {
+            final List<Animator> pool = (add ? mAddPool : mRemovePool).get(holder.getItemViewType());
+            if (pool != null && !pool.isEmpty())
+            {
+                final Animator animator = pool.remove(pool.size() - 1);
+                if (((ReusableAnimatorCreator) creator).updateAnimator(add, view, animator))
+                    return animator;
+            }
+        }
+
+        final Animator animator = creator.createAnimator(add, view);
+        if (animator != null)
+            animator.addListener(add ? mAddListener : mRemoveListener);
+        return animator;
+    }
+
+    private void recycleAnimator(RecyclerView.ViewHolder holder, boolean add, Animator animator)
+    {
+        final AnimatorCreator creator = add ? mAddCreator : mRemoveCreator;
+        if (!(creator instanceof ReusableAnimatorCreator) || mMaxPoolSize <= 0)
+            return;
+
+        final SparseArray<List<Animator>> pools = add ? mAddPool : mRemovePool;
+        final int viewType = holder.getItemViewType();
+
+        List<Animator> pool = pools.get(viewType);
+        if (pool == null)
+        {
+            pool = new ArrayList<>(mMaxPoolSize);
+            pools.put(viewType, pool);
+        }
+
+        if (pool.size() < mMaxPoolSize)
+            pool.add(animator);
+    }
+
+    private final AnimatorListenerAdapter mAddListener = new AnimatorListenerAdapter()
+    {
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            final RecyclerView.ViewHolder holder = mRunningHolders.remove(animation);
+            if (holder == null)
+                return;
+
+            mRunningAnimators.remove(holder);
+            dispatchAddFinished(holder);
+            recycleAnimator(holder, true, animation);
+            dispatchFinishedWhenDone();
+        }
+    };
+
+    private final AnimatorListenerAdapter mRemoveListener = new AnimatorListenerAdapter()
+    {
+        @Override
+        public void onAnimationEnd(Animator animation)
+        {
+            super.onAnimationEnd(animation);
+            final RecyclerView.ViewHolder holder = mRunningHolders.remove(animation);
+            if (holder == null)
+                return;
+
+            mRunningAnimators.remove(holder);
+            // 移除的View会被复用，还原动画修改的属性
+            FViewProperties.reset(holder.itemView);
+            dispatchRemoveFinished(holder);
+            recycleAnimator(holder, false, animation);
+            dispatchFinishedWhenDone();
+        }
+    };
+
+    @Override
+    public void endAnimation(RecyclerView.ViewHolder holder)
+    {
+        final Animator animator = mRunningAnimators.get(holder);
+        if (animator != null)
+            animator.end();
+
+        if (mPendingRemovals.remove(holder))
+        {
+            FViewProperties.reset(holder.itemView);
+            dispatchRemoveFinished(holder);
+        }
+
+        if (mPendingAdditions.remove(holder))
+        {
+            holder.itemView.setAlpha(1.0f);
+            dispatchAddFinished(holder);
+        }
+
+        for (int i = mAdditionsList.size() - 1; i >= 0; i--)
+        {
+            final List<RecyclerView.ViewHolder> additions = mAdditionsList.get(i);
+            if (additions.remove(holder))
+            {
+                holder.itemView.setAlpha(1.0f);
+                dispatchAddFinished(holder);
+                if (additions.isEmpty())
+                    mAdditionsList.remove(i);
+            }
+        }
+
+        // 父类最后会检查是否全部结束
+        super.endAnimation(holder);
+    }
+
+    @Override
+    public void endAnimations()
+    {
+        for (int i = mPendingRemovals.size() - 1; i >= 0; i--)
+        {
+            final RecyclerView.ViewHolder holder = mPendingRemovals.remove(i);
+            FViewProperties.reset(holder.itemView);
+            dispatchRemoveFinished(holder);
+        }
+
+        for (int i = mPendingAdditions.size() - 1; i >= 0; i--)
+        {
+            final RecyclerView.ViewHolder holder = mPendingAdditions.remove(i);
+            holder.itemView.setAlpha(1.0f);
+            dispatchAddFinished(holder);
+        }
+
+        for (int i = mAdditionsList.size() - 1; i >= 0; i--)
+        {
+            final List<RecyclerView.ViewHolder> additions = mAdditionsList.remove(i);
+            for (RecyclerView.ViewHolder holder : additions)
+            {
+                holder.itemView.setAlpha(1.0f);
+                dispatchAddFinished(holder);
+            }
+        }
+
+        if (!mRunningAnimators.isEmpty())
+        {
+            for (Animator animator : new ArrayList<>(mRunningAnimators.values()))
+            {
+                animator.end();
+            }
+        }
+
+        super.endAnimations();
+    }
+
+    @Override
+    public boolean isRunning()
+    {
+        return !mPendingAdditions.isEmpty()
+                || !mPendingRemovals.isEmpty()
+                || !mAdditionsList.isEmpty()
+                || !mRunningAnimators.isEmpty()
+                || super.isRunning();
+    }
+
+    private void dispatchFinishedWhenDone()
+    {
+        if (!isRunning())
+            dispatchAnimationsFinished();
+    }
+
+    private static void trimPool(SparseArray<List<Animator>> pools, int size)
+    {
+        for (int i = 0; i < pools.size(); i++)
+        {
+            final List<Animator> pool = pools.valueAt(i);
+            while (pool.size() > size)
+            {
+                pool.remove(pool.size() - 1);
+            }
+        }
+    }
+}
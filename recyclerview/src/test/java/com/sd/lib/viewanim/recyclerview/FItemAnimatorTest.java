@@ -0,0 +1,271 @@
+package com.sd.lib.viewanim.recyclerview;
+
+import android.animation.Animator;
+import android.animation.ObjectAnimator;
+import android.app.Activity;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.sd.lib.viewanim.creator.ReusableAnimatorCreator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.LooperMode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * 添加和移除动画的复用，以及结束动画之后的状态
+ */
+@RunWith(RobolectricTestRunner.class)
+@LooperMode(LooperMode.Mode.PAUSED)
+@Config(sdk = 28)
+public class FItemAnimatorTest
+{
+    private static final long DURATION = 100;
+    private static final long FRAME_MILLIS = 16;
+
+    private Activity mActivity;
+    private FrameLayout mContainer;
+    private CountCreator mAddCreator;
+    private CountCreator mRemoveCreator;
+    private RecordItemAnimator mItemAnimator;
+
+    @Before
+    public void setUp()
+    {
+        mActivity = Robolectric.buildActivity(Activity.class).setup().get();
+        mContainer = new FrameLayout(mActivity);
+        mActivity.setContentView(mContainer, new ViewGroup.LayoutParams(ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        mAddCreator = new CountCreator();
+        mRemoveCreator = new CountCreator();
+        mItemAnimator = new RecordItemAnimator();
+        mItemAnimator.setAddCreator(mAddCreator);
+        mItemAnimator.setRemoveCreator(mRemoveCreator);
+    }
+
+    @After
+    public void tearDown()
+    {
+        mActivity.finish();
+    }
+
+    @Test
+    public void addReusesPooledAnimator()
+    {
+        final RecyclerView.ViewHolder first = newHolder();
+        assertTrue(mItemAnimator.animateAdd(first));
+        mItemAnimator.runPendingAnimations();
+        assertTrue(mItemAnimator.isRunning());
+        stepFrames(DURATION * 2);
+
+        assertFalse(mItemAnimator.isRunning());
+        assertEquals(1, mAddCreator.mCreateCount);
+        assertEquals(0, mAddCreator.mUpdateCount);
+        assertEquals(1.0f, first.itemView.getAlpha(), 0.0f);
+
+        final RecyclerView.ViewHolder second = newHolder();
+        mItemAnimator.animateAdd(second);
+        mItemAnimator.runPendingAnimations();
+        stepFrames(DURATION * 2);
+
+        assertFalse(mItemAnimator.isRunning());
+        assertEquals(1, mAddCreator.mCreateCount);
+        assertEquals(1, mAddCreator.mUpdateCount);
+        assertEquals(2, mItemAnimator.mAddFinished.size());
+        assertEquals(2, mItemAnimator.mFinishedCount);
+    }
+
+    @Test
+    public void removeReusesPooledAnimatorAndResetsView()
+    {
+        for (int i = 0; i < 3; i++)
+        {
+            final RecyclerView.ViewHolder holder = newHolder();
+            assertTrue(mItemAnimator.animateRemove(holder));
+            mItemAnimator.runPendingAnimations();
+            stepFrames(DURATION * 2);
+
+            assertFalse(mItemAnimator.isRunning());
+            // 移除的View会被复用，动画修改的属性要还原
+            assertEquals(1.0f, holder.itemView.getAlpha(), 0.0f);
+        }
+
+        assertEquals(1, mRemoveCreator.mCreateCount);
+        assertEquals(2, mRemoveCreator.mUpdateCount);
+        assertEquals(3, mItemAnimator.mRemoveFinished.size());
+    }
+
+    @Test
+    public void poolSizeLimit()
+    {
+        mItemAnimator.setMaxPoolSize(0);
+
+        for (int i = 0; i < 2; i++)
+        {
+            mItemAnimator.animateAdd(newHolder());
+            mItemAnimator.runPendingAnimations();
+            stepFrames(DURATION * 2);
+        }
+
+        assertEquals(2, mAddCreator.mCreateCount);
+        assertEquals(0, mAddCreator.mUpdateCount);
+    }
+
+    @Test
+    public void endPendingAnimation()
+    {
+        final RecyclerView.ViewHolder holder = newHolder();
+        mItemAnimator.animateAdd(holder);
+        assertTrue(mItemAnimator.isRunning());
+        assertEquals(0.0f, holder.itemView.getAlpha(), 0.0f);
+
+        mItemAnimator.endAnimation(holder);
+
+        assertFalse(mItemAnimator.isRunning());
+        assertEquals(1.0f, holder.itemView.getAlpha(), 0.0f);
+        assertEquals(1, mItemAnimator.mAddFinished.size());
+        assertEquals(0, mAddCreator.mCreateCount);
+    }
+
+    @Test
+    public void endRunningAnimation()
+    {
+        final RecyclerView.ViewHolder holder = newHolder();
+        mItemAnimator.animateRemove(holder);
+        mItemAnimator.runPendingAnimations();
+        stepFrames(FRAME_MILLIS * 2);
+        assertTrue(mItemAnimator.isRunning());
+
+        mItemAnimator.endAnimation(holder);
+
+        assertFalse(mItemAnimator.isRunning());
+        assertEquals(1.0f, holder.itemView.getAlpha(), 0.0f);
+        assertEquals(1, mItemAnimator.mRemoveFinished.size());
+
+        // 结束的动画放入池中，下次复用
+        mItemAnimator.animateRemove(newHolder());
+        mItemAnimator.runPendingAnimations();
+        stepFrames(DURATION * 2);
+        assertEquals(1, mRemoveCreator.mCreateCount);
+        assertEquals(1, mRemoveCreator.mUpdateCount);
+    }
+
+    @Test
+    public void endAnimationsWithDelayedAdditions()
+    {
+        final RecyclerView.ViewHolder removed = newHolder();
+        final RecyclerView.ViewHolder added = newHolder();
+        mItemAnimator.animateRemove(removed);
+        mItemAnimator.animateAdd(added);
+        mItemAnimator.runPendingAnimations();
+
+        // 添加动画等待移除动画结束
+        assertEquals(1, mRemoveCreator.mCreateCount);
+        assertEquals(0, mAddCreator.mCreateCount);
+        assertTrue(mItemAnimator.isRunning());
+
+        mItemAnimator.endAnimations();
+
+        assertFalse(mItemAnimator.isRunning());
+        assertEquals(1, mItemAnimator.mRemoveFinished.size());
+        assertEquals(1, mItemAnimator.mAddFinished.size());
+        assertEquals(1.0f, added.itemView.getAlpha(), 0.0f);
+
+        // 等待的添加动画已经结束，不会再开始
+        stepFrames(DURATION * 3);
+        assertEquals(0, mAddCreator.mCreateCount);
+        assertEquals(1, mItemAnimator.mAddFinished.size());
+    }
+
+    private RecyclerView.ViewHolder newHolder()
+    {
+        final View view = new View(mActivity);
+        mContainer.addView(view, new FrameLayout.LayoutParams(100, 100));
+        return new RecyclerView.ViewHolder(view)
+        {
+        };
+    }
+
+    private void stepFrames(long millis)
+    {
+        for (long i = 0; i < millis; i += FRAME_MILLIS)
+        {
+            shadowOf(Looper.getMainLooper()).idleFor(FRAME_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 记录创建和更新次数的透明度动画
+     */
+    private static final class CountCreator implements ReusableAnimatorCreator
+    {
+        private int mCreateCount;
+        private int mUpdateCount;
+
+        @Override
+        public Animator createAnimator(boolean show, View view)
+        {
+            mCreateCount++;
+            final ObjectAnimator animator = ObjectAnimator.ofFloat(view, View.ALPHA, show ? 0.0f : 1.0f, show ? 1.0f : 0.0f);
+            animator.setDuration(DURATION);
+            return animator;
+        }
+
+        @Override
+        public boolean updateAnimator(boolean show, View view, Animator animator)
+        {
+            if (!(animator instanceof ObjectAnimator))
+                return false;
+
+            mUpdateCount++;
+            final ObjectAnimator objectAnimator = (ObjectAnimator) animator;
+            objectAnimator.setTarget(view);
+            objectAnimator.setFloatValues(show ? 0.0f : 1.0f, show ? 1.0f : 0.0f);
+            return true;
+        }
+    }
+
+    private static final class RecordItemAnimator extends FItemAnimator
+    {
+        private final List<RecyclerView.ViewHolder> mAddFinished = new ArrayList<>();
+        private final List<RecyclerView.ViewHolder> mRemoveFinished = new ArrayList<>();
+        private int mFinishedCount;
+
+        @Override
+        public void onAddFinished(RecyclerView.ViewHolder item)
+        {
+            super.onAddFinished(item);
+            mAddFinished.add(item);
+        }
+
+        @Override
+        public void onRemoveFinished(RecyclerView.ViewHolder item)
+        {
+            super.onRemoveFinished(item);
+            mRemoveFinished.add(item);
+        }
+
+        @Override
+        public void onAnimationFinished(RecyclerView.ViewHolder viewHolder)
+        {
+            super.onAnimationFinished(viewHolder);
+            mFinishedCount++;
+        }
+    }
+}